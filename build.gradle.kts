@@ -43,6 +43,10 @@ dependencies {
     api("org.apache.commons:commons-lang3:3.14.0")
     api("commons-io:commons-io:2.15.1")
     api("commons-codec:commons-codec:1.16.0")
+
+    testImplementation(platform("org.junit:junit-bom:5.10.1"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 java {
@@ -90,6 +94,10 @@ tasks.withType<JavaCompile> {
     }
 }
 
+tasks.test {
+    useJUnitPlatform()
+}
+
 tasks.withType<DependencyUpdatesTask> {
     gradleReleaseChannel = "current"
 
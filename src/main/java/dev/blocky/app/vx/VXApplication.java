@@ -19,7 +19,9 @@ package dev.blocky.app.vx;
 
 import com.sun.jna.platform.win32.Advapi32Util;
 import com.sun.jna.platform.win32.WinReg;
+import dev.blocky.app.vx.archive.crypto.CipherBackend;
 import dev.blocky.app.vx.entities.NodeCreator;
+import dev.blocky.app.vx.handler.SettingHandler;
 import dev.blocky.app.vx.windows.api.dwm.DWMAttribute;
 import dev.blocky.app.vx.windows.api.dwm.DWMHandler;
 import javafx.application.Application;
@@ -57,6 +59,7 @@ import static dev.blocky.app.vx.handler.ActionHandler.lastUsedButton;
 import static dev.blocky.app.vx.handler.ArchiveCreationHandler.initCreateArchive;
 import static dev.blocky.app.vx.handler.ArchiveCreationHandler.initRoot;
 import static dev.blocky.app.vx.handler.ArchiveExtractionHandler.initExtractArchive;
+import static dev.blocky.app.vx.handler.ArchiveOpeningHandler.initBrowser;
 import static dev.blocky.app.vx.handler.ArchiveOpeningHandler.initOpenArchive;
 import static dev.blocky.app.vx.handler.BarcodeCreationHandler.initCreateBarcode;
 import static dev.blocky.app.vx.handler.BarcodeReadingHandler.initReadBarcode;
@@ -139,7 +142,7 @@ public class VXApplication extends Application
         {
             File file = new File(args[0]);
 
-            if (!file.exists() || !file.isFile() || file.isDirectory() || Files.isReadable(file.toPath()) || !FilenameUtils.getExtension(file.getName()).equals("vxar"))
+            if (!file.exists() || !file.isFile() || file.isDirectory() || !Files.isReadable(file.toPath()) || !FilenameUtils.getExtension(file.getName()).equals("vxar"))
             {
                 String title = "Error while opening VorteX...";
                 String headerText = "Unknown error detected...";
@@ -168,6 +171,7 @@ public class VXApplication extends Application
 
             openArchive = creator.createButton("Open Archive", 140, 10, 125, true);
             lastUsedButton = openArchive;
+            initBrowser(stage, anchorPane, detailArea, file);
         }
 
         hiddenSidesPane.setContent(anchorPane);
@@ -214,6 +218,9 @@ public class VXApplication extends Application
 
         boolean defaultDarkMode = root.getBoolean("default-dark-mode");
 
+        SettingHandler.archiveWorkers = SettingHandler.clampArchiveWorkers(root.optLong("archive-workers", SettingHandler.archiveWorkers));
+        SettingHandler.cipherBackend = root.optEnum(CipherBackend.class, "cipher-backend", SettingHandler.cipherBackend);
+
         JSONObject dwm = root.getJSONObject("dwm");
 
         int windowType = dwm.getInt("window-type");
@@ -251,7 +258,7 @@ public class VXApplication extends Application
         stage.show();
 
         initCreateArchive(stage, anchorPane, detailArea, createArchive);
-        initOpenArchive(anchorPane, detailArea, openArchive);
+        initOpenArchive(stage, anchorPane, detailArea, openArchive);
         initExtractArchive(stage, hostServices, anchorPane, detailArea, extractArchive);
         initCreateBarcode(stage, anchorPane, detailArea, createBarcode);
         initReadBarcode(stage, anchorPane, detailArea, readBarcode);
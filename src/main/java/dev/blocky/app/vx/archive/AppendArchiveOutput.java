@@ -0,0 +1,127 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+class AppendArchiveOutput implements ArchiveOutput
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File target;
+    private final File backup;
+    private final long offset;
+    private final FileChannel channel;
+    private final CountingOutputStream out;
+
+    AppendArchiveOutput(File target, long offset) throws IOException
+    {
+        this.target = target;
+        this.backup = new File(target.getParentFile(), target.getName() + ".bak");
+        this.offset = offset;
+        this.channel = FileChannel.open(target.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try
+        {
+            try (FileChannel backupChannel = FileChannel.open(backup.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+            {
+                transfer(channel, offset, channel.size() - offset, backupChannel, 0);
+            }
+
+            channel.position(offset);
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            FileUtils.deleteQuietly(backup);
+            throw e;
+        }
+
+        this.out = new CountingOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+    }
+
+    @Override
+    public void writeEntry(WritableEntry entry) throws IOException
+    {
+        entry.record().localHeaderOffset = offset + out.getByteCount();
+        entry.writeTo(out);
+    }
+
+    @Override
+    public void finish(List<EntryRecord> records, String comment) throws IOException
+    {
+        long centralDirectoryOffset = offset + out.getByteCount();
+
+        for (EntryRecord record : records)
+        {
+            out.write(HeaderWriter.createCentralDirectoryHeader(record));
+        }
+
+        long centralDirectorySize = offset + out.getByteCount() - centralDirectoryOffset;
+
+        out.write(HeaderWriter.createEndOfCentralDirectory(records, centralDirectoryOffset, centralDirectorySize, 0, comment));
+        out.flush();
+
+        channel.truncate(offset + out.getByteCount());
+        channel.force(false);
+        channel.close();
+
+        FileUtils.deleteQuietly(backup);
+    }
+
+    @Override
+    public void abort()
+    {
+        IOUtils.closeQuietly(channel);
+
+        try (FileChannel targetChannel = FileChannel.open(target.toPath(), StandardOpenOption.WRITE);
+             FileChannel backupChannel = FileChannel.open(backup.toPath(), StandardOpenOption.READ))
+        {
+            transfer(backupChannel, 0, backupChannel.size(), targetChannel, offset);
+            targetChannel.truncate(offset + backupChannel.size());
+        }
+        catch (IOException e)
+        {
+            return;
+        }
+
+        FileUtils.deleteQuietly(backup);
+    }
+
+    private static void transfer(FileChannel source, long position, long count, FileChannel target, long targetPosition) throws IOException
+    {
+        while (count > 0)
+        {
+            long transferred = source.transferTo(position, count, target.position(targetPosition));
+
+            position += transferred;
+            targetPosition += transferred;
+            count -= transferred;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+
+import java.util.*;
+
+public class ArchiveDiff
+{
+    private final List<Change> changes;
+    private final EnumMap<ChangeType, Integer> counts = new EnumMap<>(ChangeType.class);
+
+    private ArchiveDiff(List<Change> changes)
+    {
+        this.changes = changes;
+
+        for (ChangeType type : ChangeType.values())
+        {
+            counts.put(type, 0);
+        }
+
+        for (Change change : changes)
+        {
+            counts.merge(change.type(), 1, Integer::sum);
+        }
+    }
+
+    public static ArchiveDiff compare(DecodedPathIndex original, DecodedPathIndex revised) throws ZipException
+    {
+        List<FileHeader> originalHeaders = original.getFileHeaders();
+        List<FileHeader> revisedHeaders = revised.getFileHeaders();
+
+        HeaderResolver originalResolver = new HeaderResolver(originalHeaders);
+        HeaderResolver revisedResolver = new HeaderResolver(revisedHeaders);
+
+        HashMap<String, Integer> originalNames = new HashMap<>(originalHeaders.size() * 4 / 3 + 1);
+
+        for (int i = 0; i < originalHeaders.size(); i++)
+        {
+            originalNames.put(originalHeaders.get(i).getFileName(), i);
+        }
+
+        boolean[] matched = new boolean[originalHeaders.size()];
+
+        ArrayList<Change> changes = new ArrayList<>();
+        ArrayList<FileHeader> unmatchedHeaders = new ArrayList<>();
+
+        for (FileHeader revisedHeader : revisedHeaders)
+        {
+            Integer index = originalNames.get(revisedHeader.getFileName());
+
+            if (index == null)
+            {
+                unmatchedHeaders.add(revisedHeader);
+                continue;
+            }
+
+            matched[index] = true;
+            compareEntries(originalHeaders.get(index), originalResolver, revised, revisedHeader, revisedResolver, changes);
+        }
+
+        HashMap<String, Integer> originalPaths = new HashMap<>();
+
+        for (int i = 0; i < matched.length; i++)
+        {
+            if (!matched[i])
+            {
+                originalPaths.put(getKey(original, originalHeaders.get(i)), i);
+            }
+        }
+
+        for (FileHeader revisedHeader : unmatchedHeaders)
+        {
+            Integer index = originalPaths.remove(getKey(revised, revisedHeader));
+
+            if (index == null)
+            {
+                changes.add(new Change(getKey(revised, revisedHeader), ChangeType.ADDED));
+                continue;
+            }
+
+            compareEntries(originalHeaders.get(index), originalResolver, revised, revisedHeader, revisedResolver, changes);
+        }
+
+        for (String path : originalPaths.keySet())
+        {
+            changes.add(new Change(path, ChangeType.REMOVED));
+        }
+
+        changes.sort(Comparator.comparing(Change::path));
+        return new ArchiveDiff(changes);
+    }
+
+    public List<Change> getChanges()
+    {
+        return changes;
+    }
+
+    public int getCount(ChangeType type)
+    {
+        return counts.get(type);
+    }
+
+    public boolean isEmpty()
+    {
+        return changes.isEmpty();
+    }
+
+    private static String getKey(DecodedPathIndex pathIndex, FileHeader fileHeader)
+    {
+        String path = pathIndex.getPath(fileHeader);
+        return fileHeader.isDirectory() ? path + "/" : path;
+    }
+
+    private static void compareEntries(FileHeader originalHeader, HeaderResolver originalResolver, DecodedPathIndex revised, FileHeader revisedHeader, HeaderResolver revisedResolver, List<Change> changes) throws ZipException
+    {
+        if (revisedHeader.isDirectory())
+        {
+            return;
+        }
+
+        ChangeType type = compareFiles(originalHeader, originalResolver, revisedHeader, revisedResolver);
+
+        if (type != null)
+        {
+            changes.add(new Change(revised.getPath(revisedHeader), type));
+        }
+    }
+
+    private static ChangeType compareFiles(FileHeader original, HeaderResolver originalResolver, FileHeader revised, HeaderResolver revisedResolver) throws ZipException
+    {
+        FileHeader originalContent = originalResolver.resolve(original);
+        FileHeader revisedContent = revisedResolver.resolve(revised);
+
+        if (originalContent.getUncompressedSize() != revisedContent.getUncompressedSize())
+        {
+            return ChangeType.MODIFIED;
+        }
+
+        boolean checksums = originalContent.getCrc() != 0 && revisedContent.getCrc() != 0;
+
+        if (checksums && originalContent.getCrc() != revisedContent.getCrc())
+        {
+            return ChangeType.MODIFIED;
+        }
+
+        if (original.getLastModifiedTime() != revised.getLastModifiedTime())
+        {
+            return checksums ? ChangeType.TOUCHED : ChangeType.MODIFIED;
+        }
+        return null;
+    }
+
+    public enum ChangeType
+    {
+        ADDED,
+        REMOVED,
+        MODIFIED,
+        TOUCHED
+    }
+
+    public record Change(String path, ChangeType type)
+    {
+    }
+
+    private static class HeaderResolver
+    {
+        private final List<FileHeader> fileHeaders;
+
+        private HashMap<String, FileHeader> entries;
+
+        private HeaderResolver(List<FileHeader> fileHeaders)
+        {
+            this.fileHeaders = fileHeaders;
+        }
+
+        private FileHeader resolve(FileHeader fileHeader) throws ZipException
+        {
+            String referencedName = Deduplicator.getReferencedName(fileHeader);
+
+            if (referencedName == null)
+            {
+                return fileHeader;
+            }
+
+            if (entries == null)
+            {
+                entries = new HashMap<>(fileHeaders.size() * 4 / 3 + 1);
+
+                for (FileHeader entry : fileHeaders)
+                {
+                    entries.put(entry.getFileName(), entry);
+                }
+            }
+
+            FileHeader referencedHeader = entries.get(referencedName);
+
+            if (referencedHeader == null)
+            {
+                throw new ZipException("Referenced entry " + referencedName + " does not exist");
+            }
+            return referencedHeader;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ArchiveExtractor
+{
+    private static final Comparator<FileHeader> ARCHIVE_ORDER = Comparator.comparingInt(FileHeader::getDiskNumberStart).thenComparingLong(FileHeader::getOffsetLocalHeader);
+
+    private final ArchiveReader archiveReader;
+    private final int workers;
+
+    private ExtractionPolicy policy = ExtractionPolicy.SKIP_IF_SAME_SIZE_AND_TIME;
+
+    public ArchiveExtractor(ArchiveReader archiveReader, int workers)
+    {
+        this.archiveReader = archiveReader;
+        this.workers = Math.max(1, workers);
+    }
+
+    public void setPolicy(ExtractionPolicy policy)
+    {
+        this.policy = policy;
+    }
+
+    public int extract(File destination, Map<FileHeader, File> targets) throws IOException
+    {
+        Path root = normalize(destination.toPath());
+
+        for (Map.Entry<FileHeader, File> target : targets.entrySet())
+        {
+            checkTarget(root, target.getKey(), target.getValue().toPath());
+        }
+
+        checkPassword(targets.keySet());
+
+        DirectoryCache directoryCache = new DirectoryCache();
+
+        ArrayList<FileHeader> directoryHeaders = new ArrayList<>();
+        ArrayList<FileHeader> fileHeaders = new ArrayList<>();
+
+        for (Map.Entry<FileHeader, File> target : targets.entrySet())
+        {
+            File directory = target.getKey().isDirectory() ? target.getValue() : target.getValue().getParentFile();
+
+            if (target.getKey().isDirectory())
+            {
+                directoryHeaders.add(target.getKey());
+            }
+            else
+            {
+                fileHeaders.add(target.getKey());
+            }
+
+            if (directory != null)
+            {
+                directoryCache.require(directory.toPath());
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+
+        List<FileHeader> changedHeaders;
+
+        try
+        {
+            directoryCache.createAll(pool, workers);
+
+            changedHeaders = findChanged(pool, fileHeaders, targets, directoryCache);
+            changedHeaders.sort(ARCHIVE_ORDER);
+
+            extractFiles(pool, changedHeaders, targets);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        directoryHeaders.sort(Comparator.comparing(FileHeader::getFileName).reversed());
+
+        for (FileHeader directoryHeader : directoryHeaders)
+        {
+            targets.get(directoryHeader).setLastModified(directoryHeader.getLastModifiedTimeEpoch());
+        }
+        return changedHeaders.size();
+    }
+
+    public Map<FileHeader, IOException> verify(Collection<FileHeader> fileHeaders) throws IOException
+    {
+        checkPassword(fileHeaders);
+
+        ArrayList<FileHeader> entries = new ArrayList<>(fileHeaders.size());
+
+        for (FileHeader fileHeader : fileHeaders)
+        {
+            if (!fileHeader.isDirectory())
+            {
+                entries.add(fileHeader);
+            }
+        }
+
+        entries.sort(ARCHIVE_ORDER);
+
+        ConcurrentHashMap<FileHeader, IOException> failures = new ConcurrentHashMap<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+
+        try
+        {
+            forEachEntry(pool, entries, (handle, fileHeader) ->
+            {
+                try
+                {
+                    handle.extractEntry(fileHeader, OutputStream.nullOutputStream());
+                }
+                catch (ZipException e)
+                {
+                    if (e.getType() == ZipException.Type.WRONG_PASSWORD)
+                    {
+                        throw e;
+                    }
+                    failures.put(fileHeader, e);
+                }
+                catch (InterruptedIOException e)
+                {
+                    throw e;
+                }
+                catch (IOException e)
+                {
+                    failures.put(fileHeader, e);
+                }
+            });
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        return failures;
+    }
+
+    public void read(Collection<FileHeader> fileHeaders, EntryReader reader) throws IOException
+    {
+        checkPassword(fileHeaders);
+
+        ArrayList<FileHeader> entries = new ArrayList<>(fileHeaders);
+        entries.sort(ARCHIVE_ORDER);
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+
+        try
+        {
+            forEachEntry(pool, entries, (handle, fileHeader) ->
+            {
+                try (InputStream in = handle.openEntry(fileHeader))
+                {
+                    reader.read(fileHeader, in);
+                }
+            });
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    public static File resolveTarget(File destination, FileHeader fileHeader, String path) throws ZipException
+    {
+        Path root = normalize(destination.toPath());
+
+        try
+        {
+            Path target = root.resolve(path).normalize();
+
+            checkTarget(root, fileHeader, target);
+            return target.toFile();
+        }
+        catch (InvalidPathException e)
+        {
+            throw new ZipException("Illegal file name " + path + " in entry " + fileHeader.getFileName(), e);
+        }
+    }
+
+    private static void checkTarget(Path root, FileHeader fileHeader, Path target) throws ZipException
+    {
+        Path normalizedTarget = normalize(target);
+
+        if (!normalizedTarget.startsWith(root) || normalizedTarget.equals(root))
+        {
+            throw new ZipException("Illegal file name that breaks out of the target directory: " + fileHeader.getFileName());
+        }
+    }
+
+    private static Path normalize(Path path)
+    {
+        return path.toAbsolutePath().normalize();
+    }
+
+    private List<FileHeader> findChanged(ExecutorService pool, List<FileHeader> fileHeaders, Map<FileHeader, File> targets, DirectoryCache directoryCache) throws IOException
+    {
+        if (policy == ExtractionPolicy.ALWAYS_OVERWRITE)
+        {
+            return fileHeaders;
+        }
+
+        boolean[] upToDate = new boolean[fileHeaders.size()];
+
+        int chunkSize = Math.max(1, (fileHeaders.size() + workers - 1) / workers);
+
+        ArrayList<Future<Void>> tasks = new ArrayList<>();
+
+        for (int start = 0; start < fileHeaders.size(); start += chunkSize)
+        {
+            int from = start;
+            int to = Math.min(fileHeaders.size(), start + chunkSize);
+
+            tasks.add(pool.submit(() ->
+            {
+                for (int i = from; i < to; i++)
+                {
+                    FileHeader fileHeader = fileHeaders.get(i);
+                    File target = targets.get(fileHeader);
+
+                    if (target.getParentFile() == null || !directoryCache.isCreated(target.getParentFile().toPath()))
+                    {
+                        upToDate[i] = policy.isUpToDate(fileHeader, archiveReader.resolve(fileHeader), target.toPath());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        for (Future<Void> task : tasks)
+        {
+            ArchiveWriter.join(task);
+        }
+
+        ArrayList<FileHeader> changedHeaders = new ArrayList<>();
+
+        for (int i = 0; i < upToDate.length; i++)
+        {
+            if (!upToDate[i])
+            {
+                changedHeaders.add(fileHeaders.get(i));
+            }
+        }
+        return changedHeaders;
+    }
+
+    private void extractFiles(ExecutorService pool, List<FileHeader> fileHeaders, Map<FileHeader, File> targets) throws IOException
+    {
+        forEachEntry(pool, fileHeaders, (handle, fileHeader) -> handle.extractFile(fileHeader, targets.get(fileHeader)));
+    }
+
+    private void checkPassword(Collection<FileHeader> fileHeaders) throws IOException
+    {
+        if (!archiveReader.checkPassword(fileHeaders))
+        {
+            throw new ZipException("Wrong password!", ZipException.Type.WRONG_PASSWORD);
+        }
+    }
+
+    private void forEachEntry(ExecutorService pool, List<FileHeader> fileHeaders, EntryAction action) throws IOException
+    {
+        int threads = Math.min(workers, fileHeaders.size());
+
+        AtomicInteger next = new AtomicInteger();
+        ArrayList<Future<Void>> tasks = new ArrayList<>(threads);
+
+        try
+        {
+            for (int i = 0; i < threads; i++)
+            {
+                tasks.add(pool.submit(() ->
+                {
+                    try (ArchiveReader handle = archiveReader.openHandle())
+                    {
+                        int index;
+
+                        while ((index = next.getAndIncrement()) < fileHeaders.size())
+                        {
+                            action.accept(handle, fileHeaders.get(index));
+                        }
+                    }
+                    catch (IOException e)
+                    {
+                        next.set(fileHeaders.size());
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<Void> task : tasks)
+            {
+                ArchiveWriter.join(task);
+            }
+        }
+        finally
+        {
+            next.set(fileHeaders.size());
+        }
+    }
+
+    public interface EntryReader
+    {
+        void read(FileHeader fileHeader, InputStream in) throws IOException;
+    }
+
+    private interface EntryAction
+    {
+        void accept(ArchiveReader handle, FileHeader fileHeader) throws IOException;
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.archive.crypto.ArchiveKey;
+import dev.blocky.app.vx.archive.crypto.CipherBackend;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+public class ArchiveMerger
+{
+    private final File target;
+    private final char[] password;
+
+    private CipherBackend cipherBackend = CipherBackend.JCE;
+    private ArchiveProgress progress = new ArchiveProgress();
+
+    private ArchiveKey archiveKey;
+
+    public ArchiveMerger(File target, char[] password)
+    {
+        this.target = target;
+        this.password = password;
+    }
+
+    public void setCipherBackend(CipherBackend cipherBackend)
+    {
+        this.cipherBackend = cipherBackend;
+    }
+
+    public void setProgress(ArchiveProgress progress)
+    {
+        this.progress = progress;
+    }
+
+    public MergeResult merge(List<File> sources) throws IOException
+    {
+        boolean append = target.isFile();
+
+        ArrayList<EntryRecord> records = new ArrayList<>();
+        HashSet<String> names = new HashSet<>();
+
+        String comment = null;
+        long offset = 0;
+
+        archiveKey = null;
+
+        if (append)
+        {
+            List<FileHeader> fileHeaders = readFileHeaders(target);
+
+            try (ArchiveReader archiveReader = openArchive(target, fileHeaders))
+            {
+                if (archiveReader.isSplit())
+                {
+                    throw new ZipException("Archives cannot be merged into split volumes");
+                }
+
+                archiveKey = archiveReader.getArchiveKey();
+                comment = archiveReader.getComment();
+                offset = archiveReader.getCentralDirectoryOffset();
+
+                for (FileHeader fileHeader : fileHeaders)
+                {
+                    EntryRecord record = EntryRecord.copyOf(fileHeader);
+                    record.localHeaderOffset = fileHeader.getOffsetLocalHeader();
+
+                    records.add(record);
+                    names.add(fileHeader.getFileName());
+                }
+            }
+        }
+
+        ArrayList<ArchiveReader> archiveReaders = new ArrayList<>(sources.size());
+        ArrayList<WritableEntry> entries = new ArrayList<>();
+
+        int copiedEntries = 0;
+        int skippedEntries = 0;
+        int reencryptedEntries = 0;
+        long totalBytes = 0;
+
+        ArchiveOutput output = null;
+        boolean finished = false;
+
+        try
+        {
+            for (File source : sources)
+            {
+                if (append && Files.isSameFile(source.toPath(), target.toPath()))
+                {
+                    continue;
+                }
+
+                List<FileHeader> fileHeaders = readFileHeaders(source);
+
+                ArchiveReader archiveReader = openArchive(source, fileHeaders);
+                archiveReaders.add(archiveReader);
+
+                ArchiveKey sourceKey = archiveReader.getArchiveKey();
+
+                if (archiveKey == null && sourceKey != null)
+                {
+                    archiveKey = sourceKey;
+                }
+
+                boolean rekey = sourceKey != null && !sourceKey.toMarker().equals(archiveKey.toMarker());
+
+                ArrayList<FileHeader> mergedHeaders = new ArrayList<>(fileHeaders.size());
+                HashSet<String> mergedNames = new HashSet<>();
+
+                for (FileHeader fileHeader : fileHeaders)
+                {
+                    if (!names.add(fileHeader.getFileName()))
+                    {
+                        if (!fileHeader.isDirectory())
+                        {
+                            skippedEntries++;
+                        }
+                        continue;
+                    }
+
+                    mergedHeaders.add(fileHeader);
+                    mergedNames.add(fileHeader.getFileName());
+                }
+
+                for (FileHeader fileHeader : mergedHeaders)
+                {
+                    String referencedName = Deduplicator.getReferencedName(fileHeader);
+
+                    WritableEntry entry = referencedName == null || mergedNames.contains(referencedName)
+                            ? createEntry(archiveReader, sourceKey, rekey, fileHeader, EntryRecord.copyOf(fileHeader))
+                            : createEntry(archiveReader, sourceKey, rekey, archiveReader.resolve(fileHeader), createMaterializedRecord(fileHeader, archiveReader.resolve(fileHeader)));
+
+                    if (!fileHeader.isDirectory())
+                    {
+                        copiedEntries++;
+                    }
+
+                    if (entry instanceof ReencryptedEntry)
+                    {
+                        reencryptedEntries++;
+                    }
+
+                    entries.add(entry);
+                    totalBytes += entry.record().compressedSize;
+                }
+            }
+
+            if (archiveKey != null)
+            {
+                comment = archiveKey.toMarker();
+            }
+
+            progress.start(entries.size(), totalBytes);
+
+            output = append ? new AppendArchiveOutput(target, offset) : new StreamArchiveOutput(target);
+
+            for (WritableEntry entry : entries)
+            {
+                progress.checkCancelled();
+
+                output.writeEntry(entry);
+                records.add(entry.record());
+
+                progress.addBytes(entry.record().compressedSize);
+                progress.completeEntry();
+            }
+
+            progress.checkCancelled();
+
+            output.finish(records, comment);
+            finished = true;
+        }
+        finally
+        {
+            if (!finished && output != null)
+            {
+                output.abort();
+            }
+
+            for (ArchiveReader archiveReader : archiveReaders)
+            {
+                IOUtils.closeQuietly(archiveReader);
+            }
+        }
+        return new MergeResult(copiedEntries, skippedEntries, reencryptedEntries);
+    }
+
+    private ArchiveReader openArchive(File archive, List<FileHeader> fileHeaders) throws IOException
+    {
+        ArchiveReader archiveReader = new ArchiveReader(archive, password);
+        archiveReader.setCipherBackend(cipherBackend);
+        archiveReader.setFileHeaders(fileHeaders);
+
+        try
+        {
+            if (!archiveReader.checkPassword(fileHeaders))
+            {
+                throw new ZipException("'" + archive.getName() + "' was encrypted with a different password", ZipException.Type.WRONG_PASSWORD);
+            }
+            return archiveReader;
+        }
+        catch (IOException e)
+        {
+            archiveReader.close();
+            throw e;
+        }
+    }
+
+    private WritableEntry createEntry(ArchiveReader archiveReader, ArchiveKey sourceKey, boolean rekey, FileHeader fileHeader, EntryRecord record) throws ZipException
+    {
+        if (!fileHeader.isEncrypted() || EntryRecord.getExtraData(fileHeader, EntryCompressor.VXAR_EXTRA_FIELD_ID) == null)
+        {
+            return new CopiedEntry(record, archiveReader, fileHeader);
+        }
+
+        if (sourceKey == null)
+        {
+            throw new ZipException("Archive key marker is missing for entry " + fileHeader.getFileName());
+        }
+
+        if (rekey || !Arrays.equals(record.name, fileHeader.getFileName().getBytes(StandardCharsets.UTF_8)))
+        {
+            return new ReencryptedEntry(record, archiveReader, fileHeader, sourceKey.getKey(), archiveKey.getKey());
+        }
+        return new CopiedEntry(record, archiveReader, fileHeader);
+    }
+
+    private static EntryRecord createMaterializedRecord(FileHeader fileHeader, FileHeader contentHeader)
+    {
+        EntryRecord record = EntryRecord.copyOf(contentHeader);
+        record.name = fileHeader.getFileName().getBytes(StandardCharsets.UTF_8);
+        record.comment = EntryRecord.copyOf(fileHeader).comment;
+
+        if ((record.flags & EntryRecord.FLAG_DATA_DESCRIPTOR) == 0)
+        {
+            record.dosTime = (int) fileHeader.getLastModifiedTime();
+        }
+        return record;
+    }
+
+    private static List<FileHeader> readFileHeaders(File archive) throws IOException
+    {
+        try (ZipFile zipFile = new ZipFile(archive))
+        {
+            return zipFile.getFileHeaders();
+        }
+    }
+
+    public record MergeResult(int copiedEntries, int skippedEntries, int reencryptedEntries)
+    {
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ArchiveProgress
+{
+    private final AtomicLong processedBytes = new AtomicLong();
+    private final AtomicLong processedEntries = new AtomicLong();
+    private final AtomicLong copiedEntries = new AtomicLong();
+    private final AtomicLong deduplicatedBytes = new AtomicLong();
+    private final AtomicLong passthroughBytes = new AtomicLong();
+
+    private volatile long totalBytes, totalEntries, startTime;
+    private volatile String currentFile;
+    private volatile boolean cancelled;
+
+    public void start(long totalEntries, long totalBytes)
+    {
+        this.totalEntries = totalEntries;
+        this.totalBytes = totalBytes;
+        this.startTime = System.nanoTime();
+    }
+
+    public void addBytes(long bytes)
+    {
+        processedBytes.addAndGet(bytes);
+    }
+
+    public void completeEntry()
+    {
+        processedEntries.incrementAndGet();
+    }
+
+    public void completeCopiedEntry()
+    {
+        copiedEntries.incrementAndGet();
+    }
+
+    public void addDeduplicatedBytes(long bytes)
+    {
+        deduplicatedBytes.addAndGet(bytes);
+    }
+
+    public void addPassthroughBytes(long bytes)
+    {
+        passthroughBytes.addAndGet(bytes);
+    }
+
+    public void setCurrentFile(String currentFile)
+    {
+        this.currentFile = currentFile;
+    }
+
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    public void checkCancelled() throws InterruptedIOException
+    {
+        if (cancelled)
+        {
+            throw new InterruptedIOException("Archiving was cancelled.");
+        }
+    }
+
+    public long getProcessedBytes()
+    {
+        return processedBytes.get();
+    }
+
+    public long getTotalBytes()
+    {
+        return totalBytes;
+    }
+
+    public long getProcessedEntries()
+    {
+        return processedEntries.get();
+    }
+
+    public long getCopiedEntries()
+    {
+        return copiedEntries.get();
+    }
+
+    public long getDeduplicatedBytes()
+    {
+        return deduplicatedBytes.get();
+    }
+
+    public long getPassthroughBytes()
+    {
+        return passthroughBytes.get();
+    }
+
+    public long getTotalEntries()
+    {
+        return totalEntries;
+    }
+
+    public String getCurrentFile()
+    {
+        return currentFile;
+    }
+
+    public double getFraction()
+    {
+        return totalBytes == 0 ? (totalEntries == 0 ? 0 : (double) getProcessedEntries() / totalEntries) : (double) getProcessedBytes() / totalBytes;
+    }
+
+    public long getThroughput()
+    {
+        long elapsed = System.nanoTime() - startTime;
+        return elapsed <= 0 ? 0 : (long) (getProcessedBytes() * 1_000_000_000.0 / elapsed);
+    }
+
+    public long getRemainingMillis()
+    {
+        long throughput = getThroughput();
+
+        if (throughput == 0)
+        {
+            return -1;
+        }
+        return Math.max(0, totalBytes - getProcessedBytes()) * 1000 / throughput;
+    }
+}
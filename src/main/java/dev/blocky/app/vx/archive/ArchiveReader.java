@@ -0,0 +1,467 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.archive.crypto.ArchiveKey;
+import dev.blocky.app.vx.archive.crypto.CipherBackend;
+import dev.blocky.app.vx.archive.crypto.EntryDecrypter;
+import dev.blocky.app.vx.archive.crypto.GcmChunkInputStream;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.CompressionMethod;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+public class ArchiveReader implements Closeable
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LENGTH = 56;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    private final File archive;
+    private final FileChannel[] channels;
+    private final char[] password;
+    private final ArchiveReader root;
+
+    private EndOfCentralDirectory endOfCentralDirectory;
+    private ArchiveKey archiveKey;
+    private Map<String, FileHeader> fileHeaders;
+
+    private CipherBackend cipherBackend = CipherBackend.JCE;
+
+    public ArchiveReader(File archive, char[] password) throws IOException
+    {
+        this.archive = archive;
+        this.channels = openVolumes(archive);
+        this.password = password;
+        this.root = this;
+    }
+
+    private ArchiveReader(ArchiveReader root) throws IOException
+    {
+        this.archive = root.archive;
+        this.channels = openVolumes(archive);
+        this.password = root.password;
+        this.root = root;
+        this.cipherBackend = root.cipherBackend;
+    }
+
+    ArchiveReader openHandle() throws IOException
+    {
+        return new ArchiveReader(root);
+    }
+
+    public ArchiveKey getArchiveKey() throws IOException
+    {
+        return root.loadArchiveKey();
+    }
+
+    private synchronized ArchiveKey loadArchiveKey() throws IOException
+    {
+        String comment = endOfCentralDirectory.comment();
+
+        if (archiveKey == null && ArchiveKey.isMarker(comment))
+        {
+            archiveKey = ArchiveKey.fromMarker(comment, password);
+        }
+        return archiveKey;
+    }
+
+    public int getVolumeCount()
+    {
+        return channels.length;
+    }
+
+    public void setCipherBackend(CipherBackend cipherBackend)
+    {
+        this.cipherBackend = cipherBackend;
+    }
+
+    public synchronized void setFileHeaders(Collection<FileHeader> fileHeaders)
+    {
+        this.fileHeaders = new HashMap<>();
+
+        for (FileHeader fileHeader : fileHeaders)
+        {
+            this.fileHeaders.put(fileHeader.getFileName(), fileHeader);
+        }
+    }
+
+    public boolean checkPassword(Collection<FileHeader> fileHeaders) throws IOException
+    {
+        try
+        {
+            if (ArchiveKey.isMarker(endOfCentralDirectory.comment()))
+            {
+                return getArchiveKey() != null;
+            }
+
+            for (FileHeader fileHeader : fileHeaders)
+            {
+                if (!fileHeader.isEncrypted() || fileHeader.isDirectory() || Deduplicator.getReferencedName(fileHeader) != null)
+                {
+                    continue;
+                }
+
+                int headerLength = CipherBackend.getHeaderLength(fileHeader);
+
+                try (InputStream in = openRegion(fileHeader.getDiskNumberStart(), getDataOffset(fileHeader), headerLength))
+                {
+                    cipherBackend.createDecrypter(fileHeader, password, IOUtils.readFully(in, headerLength));
+                }
+                return true;
+            }
+            return true;
+        }
+        catch (ZipException e)
+        {
+            if (e.getType() == ZipException.Type.WRONG_PASSWORD)
+            {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    public int extractFiles(File destination, Map<FileHeader, File> targets, int workers, ExtractionPolicy policy) throws IOException
+    {
+        ArchiveExtractor archiveExtractor = new ArchiveExtractor(this, workers);
+        archiveExtractor.setPolicy(policy);
+        return archiveExtractor.extract(destination, targets);
+    }
+
+    public void extractFile(FileHeader fileHeader, File target) throws IOException
+    {
+        try (OutputStream out = new FileOutputStream(target))
+        {
+            extractEntry(fileHeader, out);
+        }
+        catch (IOException e)
+        {
+            FileUtils.deleteQuietly(target);
+            throw e;
+        }
+
+        target.setLastModified(fileHeader.getLastModifiedTimeEpoch());
+    }
+
+    public void extractEntry(FileHeader fileHeader, OutputStream out) throws IOException
+    {
+        try (InputStream in = openEntry(fileHeader))
+        {
+            IOUtils.copy(in, out, BUFFER_SIZE);
+        }
+    }
+
+    public InputStream openEntry(FileHeader fileHeader) throws IOException
+    {
+        fileHeader = resolve(fileHeader);
+
+        long dataOffset = getDataOffset(fileHeader);
+        long compressedSize = fileHeader.getCompressedSize();
+
+        InputStream in = openRegion(fileHeader.getDiskNumberStart(), dataOffset, compressedSize);
+
+        boolean checkCrc = true;
+        CompressionMethod compressionMethod = fileHeader.getCompressionMethod();
+
+        if (fileHeader.isEncrypted() && EntryRecord.getExtraData(fileHeader, EntryCompressor.VXAR_EXTRA_FIELD_ID) != null)
+        {
+            ArchiveKey archiveKey = getArchiveKey();
+
+            if (archiveKey == null)
+            {
+                throw new ZipException("Archive key marker is missing for entry " + fileHeader.getFileName());
+            }
+
+            in = new GcmChunkInputStream(in, archiveKey.getKey(), fileHeader.getFileName().getBytes(StandardCharsets.UTF_8));
+            checkCrc = false;
+        }
+        else if (fileHeader.isEncrypted())
+        {
+            int headerLength = CipherBackend.getHeaderLength(fileHeader);
+            int trailerLength = CipherBackend.getTrailerLength(fileHeader);
+
+            EntryDecrypter decrypter = cipherBackend.createDecrypter(fileHeader, password, IOUtils.readFully(in, headerLength));
+
+            in = new DecryptingInputStream(in, decrypter, compressedSize - headerLength - trailerLength, trailerLength);
+
+            if (fileHeader.getEncryptionMethod() == EncryptionMethod.AES)
+            {
+                compressionMethod = fileHeader.getAesExtraDataRecord().getCompressionMethod();
+                checkCrc = fileHeader.getAesExtraDataRecord().getAesVersion() != AesVersion.TWO;
+            }
+        }
+
+        return EntryInputStream.create(in, fileHeader, compressionMethod == CompressionMethod.DEFLATE, checkCrc);
+    }
+
+    public FileHeader resolve(FileHeader fileHeader) throws IOException
+    {
+        String referencedName = Deduplicator.getReferencedName(fileHeader);
+        return referencedName == null ? fileHeader : root.getFileHeader(referencedName);
+    }
+
+    private synchronized FileHeader getFileHeader(String fileName) throws IOException
+    {
+        if (fileHeaders == null)
+        {
+            fileHeaders = new HashMap<>();
+
+            try (ZipFile zipFile = new ZipFile(archive))
+            {
+                for (FileHeader fileHeader : zipFile.getFileHeaders())
+                {
+                    fileHeaders.put(fileHeader.getFileName(), fileHeader);
+                }
+            }
+        }
+
+        FileHeader fileHeader = fileHeaders.get(fileName);
+
+        if (fileHeader == null)
+        {
+            throw new ZipException("Referenced entry " + fileName + " does not exist");
+        }
+        return fileHeader;
+    }
+
+    public long getCentralDirectoryChecksum() throws IOException
+    {
+        CentralDirectoryLocation location = locateCentralDirectory();
+
+        CRC32C checksum = new CRC32C();
+
+        try (InputStream in = new CheckedInputStream(openRegion(location.disk(), location.offset(), location.size()), checksum))
+        {
+            IOUtils.consume(in);
+        }
+
+        checksum.update(endOfCentralDirectory.record());
+        return checksum.getValue();
+    }
+
+    long getCentralDirectoryOffset() throws IOException
+    {
+        return locateCentralDirectory().offset();
+    }
+
+    String getComment()
+    {
+        return endOfCentralDirectory.comment();
+    }
+
+    boolean isSplit()
+    {
+        return channels.length > 1;
+    }
+
+    private CentralDirectoryLocation locateCentralDirectory() throws IOException
+    {
+        if (endOfCentralDirectory.zip64Disk() < 0)
+        {
+            return new CentralDirectoryLocation(endOfCentralDirectory.centralDirectoryDisk(), endOfCentralDirectory.centralDirectoryOffset(), endOfCentralDirectory.centralDirectorySize());
+        }
+
+        ByteBuffer zip64Record = ByteBuffer.allocate(ZIP64_END_OF_CENTRAL_DIRECTORY_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+
+        try (InputStream in = openRegion(endOfCentralDirectory.zip64Disk(), endOfCentralDirectory.zip64Offset(), ZIP64_END_OF_CENTRAL_DIRECTORY_LENGTH))
+        {
+            zip64Record.put(IOUtils.readFully(in, ZIP64_END_OF_CENTRAL_DIRECTORY_LENGTH));
+        }
+        return new CentralDirectoryLocation(zip64Record.getInt(20), zip64Record.getLong(48), zip64Record.getLong(40));
+    }
+
+    void copyRawEntry(FileHeader fileHeader, OutputStream out) throws IOException
+    {
+        try (InputStream in = openRawEntry(fileHeader))
+        {
+            IOUtils.copy(in, out, (int) Math.max(1, Math.min(BUFFER_SIZE, fileHeader.getCompressedSize())));
+        }
+    }
+
+    InputStream openRawEntry(FileHeader fileHeader) throws IOException
+    {
+        return openRegion(fileHeader.getDiskNumberStart(), getDataOffset(fileHeader), fileHeader.getCompressedSize());
+    }
+
+    private InputStream openRegion(int volume, long position, long length) throws IOException
+    {
+        ArrayList<InputStream> parts = new ArrayList<>();
+
+        while (length > 0)
+        {
+            if (volume >= channels.length)
+            {
+                throw new EOFException("Unexpected end of archive");
+            }
+
+            long volumeSize = channels[volume].size();
+
+            if (position >= volumeSize)
+            {
+                position -= volumeSize;
+                volume++;
+                continue;
+            }
+
+            long count = Math.min(volumeSize - position, length);
+
+            parts.add(new ChannelInputStream(channels[volume], position, count));
+
+            length -= count;
+            position = 0;
+            volume++;
+        }
+
+        if (parts.size() == 1)
+        {
+            return parts.get(0);
+        }
+        return new SequenceInputStream(Collections.enumeration(parts));
+    }
+
+    private long getDataOffset(FileHeader fileHeader) throws IOException
+    {
+        FileChannel channel = channels[fileHeader.getDiskNumberStart()];
+        long offset = fileHeader.getOffsetLocalHeader();
+
+        ByteBuffer localHeader = ByteBuffer.allocate(HeaderWriter.LOCAL_FILE_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (localHeader.hasRemaining())
+        {
+            if (channel.read(localHeader, offset + localHeader.position()) == -1)
+            {
+                throw new EOFException("Unexpected end of archive");
+            }
+        }
+
+        if (localHeader.getInt(0) != HeaderWriter.LOCAL_FILE_HEADER_SIGNATURE)
+        {
+            throw new ZipException("Invalid local file header for entry " + fileHeader.getFileName());
+        }
+
+        int fileNameLength = localHeader.getShort(26) & 0xFFFF;
+        int extraFieldLength = localHeader.getShort(28) & 0xFFFF;
+
+        return offset + HeaderWriter.LOCAL_FILE_HEADER_LENGTH + fileNameLength + extraFieldLength;
+    }
+
+    private FileChannel[] openVolumes(File archive) throws IOException
+    {
+        FileChannel channel = FileChannel.open(archive.toPath(), StandardOpenOption.READ);
+
+        try
+        {
+            endOfCentralDirectory = readEndOfCentralDirectory(channel);
+
+            int volumeCount = endOfCentralDirectory.volumeCount();
+
+            FileChannel[] channels = new FileChannel[volumeCount];
+            channels[volumeCount - 1] = channel;
+
+            for (int i = 0; i < volumeCount - 1; i++)
+            {
+                File volumeFile = SplitArchiveOutput.getVolumeFile(archive, i);
+
+                if (!volumeFile.exists())
+                {
+                    throw new ZipException("Split volume " + volumeFile.getName() + " is missing");
+                }
+
+                channels[i] = FileChannel.open(volumeFile.toPath(), StandardOpenOption.READ);
+            }
+            return channels;
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static EndOfCentralDirectory readEndOfCentralDirectory(FileChannel channel) throws IOException
+    {
+        int length = (int) Math.min(channel.size(), END_OF_CENTRAL_DIRECTORY_LENGTH + MAX_COMMENT_LENGTH);
+
+        ByteBuffer tail = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (tail.hasRemaining())
+        {
+            if (channel.read(tail, channel.size() - length + tail.position()) == -1)
+            {
+                throw new EOFException("Unexpected end of archive");
+            }
+        }
+
+        for (int i = length - END_OF_CENTRAL_DIRECTORY_LENGTH; i >= 0; i--)
+        {
+            if (tail.getInt(i) != HeaderWriter.END_OF_CENTRAL_DIRECTORY_SIGNATURE || (tail.getShort(i + 20) & 0xFFFF) != length - i - END_OF_CENTRAL_DIRECTORY_LENGTH)
+            {
+                continue;
+            }
+
+            int diskNumber = tail.getShort(i + 4) & 0xFFFF;
+            String comment = new String(tail.array(), i + END_OF_CENTRAL_DIRECTORY_LENGTH, length - i - END_OF_CENTRAL_DIRECTORY_LENGTH, StandardCharsets.UTF_8);
+            byte[] record = Arrays.copyOfRange(tail.array(), i, length);
+
+            int centralDirectoryDisk = tail.getShort(i + 6) & 0xFFFF;
+            long centralDirectorySize = tail.getInt(i + 12) & 0xFFFFFFFFL;
+            long centralDirectoryOffset = tail.getInt(i + 16) & 0xFFFFFFFFL;
+
+            if (i >= 20 && tail.getInt(i - 20) == HeaderWriter.ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE)
+            {
+                int volumeCount = diskNumber == 0xFFFF ? tail.getInt(i - 4) : diskNumber + 1;
+                return new EndOfCentralDirectory(volumeCount, comment, record, centralDirectoryDisk, centralDirectoryOffset, centralDirectorySize, tail.getInt(i - 16), tail.getLong(i - 12));
+            }
+            return new EndOfCentralDirectory(diskNumber + 1, comment, record, centralDirectoryDisk, centralDirectoryOffset, centralDirectorySize, -1, -1);
+        }
+        throw new ZipException("End of central directory record not found");
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        for (FileChannel channel : channels)
+        {
+            channel.close();
+        }
+    }
+
+    private record EndOfCentralDirectory(int volumeCount, String comment, byte[] record, int centralDirectoryDisk, long centralDirectoryOffset, long centralDirectorySize, int zip64Disk, long zip64Offset)
+    {
+    }
+
+    private record CentralDirectoryLocation(int disk, long offset, long size)
+    {
+    }
+}
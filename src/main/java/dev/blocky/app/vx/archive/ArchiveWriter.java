@@ -0,0 +1,305 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.archive.crypto.ArchiveKey;
+import dev.blocky.app.vx.archive.crypto.CipherBackend;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.util.Zip4jUtil;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ArchiveWriter
+{
+    private final File archive;
+    private final char[] password;
+    private final ZipParameters zipParameters;
+
+    private CipherBackend cipherBackend = CipherBackend.JCE;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private ArchiveProgress progress = new ArchiveProgress();
+    private boolean deduplicate;
+    private long volumeSize;
+    private int formatVersion = 1;
+
+    private ArchiveKey archiveKey;
+
+    public ArchiveWriter(File archive, char[] password, ZipParameters zipParameters)
+    {
+        this.archive = archive;
+        this.password = password;
+        this.zipParameters = zipParameters;
+    }
+
+    public void setCipherBackend(CipherBackend cipherBackend)
+    {
+        this.cipherBackend = cipherBackend;
+    }
+
+    public void setWorkers(int workers)
+    {
+        this.workers = Math.max(1, workers);
+    }
+
+    public void setDeduplicate(boolean deduplicate)
+    {
+        this.deduplicate = deduplicate;
+    }
+
+    public void setVolumeSize(long volumeSize)
+    {
+        this.volumeSize = volumeSize;
+    }
+
+    public void setFormatVersion(int formatVersion)
+    {
+        this.formatVersion = formatVersion;
+    }
+
+    public void setProgress(ArchiveProgress progress)
+    {
+        this.progress = progress;
+    }
+
+    public void writeArchive(ScanResult scanResult) throws IOException
+    {
+        if (volumeSize > 0)
+        {
+            write(scanResult, archive, Collections.emptyMap(), null);
+            return;
+        }
+
+        File newArchive = new File(archive.getParentFile(), archive.getName() + ".tmp");
+
+        try
+        {
+            write(scanResult, newArchive, Collections.emptyMap(), null);
+
+            Files.move(newArchive.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            FileUtils.deleteQuietly(newArchive);
+        }
+    }
+
+    public void updateArchive(ScanResult scanResult) throws IOException
+    {
+        if (volumeSize > 0)
+        {
+            throw new ZipException("Archives cannot be updated into split volumes");
+        }
+
+        HashMap<String, FileHeader> existingEntries = new HashMap<>();
+
+        try (ZipFile zipFile = new ZipFile(archive, password))
+        {
+            for (FileHeader fileHeader : zipFile.getFileHeaders())
+            {
+                existingEntries.put(fileHeader.getFileName(), fileHeader);
+            }
+        }
+
+        File updatedArchive = new File(archive.getParentFile(), archive.getName() + ".tmp");
+
+        try
+        {
+            try (ArchiveReader archiveReader = new ArchiveReader(archive, password))
+            {
+                archiveReader.setCipherBackend(cipherBackend);
+
+                for (FileHeader fileHeader : existingEntries.values())
+                {
+                    if (fileHeader.isEncrypted() && !fileHeader.isDirectory())
+                    {
+                        archiveReader.openEntry(fileHeader).close();
+                        break;
+                    }
+                }
+
+                write(scanResult, updatedArchive, existingEntries, archiveReader);
+            }
+
+            Files.move(updatedArchive.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            FileUtils.deleteQuietly(updatedArchive);
+        }
+    }
+
+    private void write(ScanResult scanResult, File target, Map<String, FileHeader> existingEntries, ArchiveReader archiveReader) throws IOException
+    {
+        List<ArchiveEntry> entries = scanResult.entries();
+
+        progress.start(entries.size(), scanResult.totalBytes());
+
+        archiveKey = archiveReader == null ? null : archiveReader.getArchiveKey();
+
+        if (archiveKey == null && formatVersion == EntryCompressor.VXAR_FORMAT_VERSION && zipParameters.isEncryptFiles())
+        {
+            archiveKey = ArchiveKey.generate(password);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(workers);
+
+        ArrayDeque<Future<WritableEntry>> pending = new ArrayDeque<>();
+        ArrayList<EntryRecord> records = new ArrayList<>(entries.size());
+
+        ArchiveOutput output = volumeSize > 0 ? new SplitArchiveOutput(target, volumeSize, workers) : new StreamArchiveOutput(target);
+
+        boolean finished = false;
+
+        try
+        {
+            Map<ArchiveEntry, ArchiveEntry> duplicates = deduplicate ? Deduplicator.findDuplicates(entries, pool, progress) : Collections.emptyMap();
+
+            Iterator<ArchiveEntry> iterator = entries.iterator();
+
+            while (iterator.hasNext() || !pending.isEmpty())
+            {
+                progress.checkCancelled();
+
+                while (iterator.hasNext() && pending.size() < workers * 2)
+                {
+                    ArchiveEntry entry = iterator.next();
+                    ArchiveEntry original = duplicates.get(entry);
+                    FileHeader fileHeader = existingEntries.get(entry.name());
+
+                    pending.add(pool.submit(() -> prepareEntry(entry, original, fileHeader, archiveReader)));
+                }
+
+                WritableEntry writableEntry = join(pending.poll());
+
+                output.writeEntry(writableEntry);
+
+                records.add(writableEntry.record());
+                progress.completeEntry();
+            }
+
+            progress.checkCancelled();
+
+            output.finish(records, archiveKey == null ? null : archiveKey.toMarker());
+            finished = true;
+        }
+        finally
+        {
+            if (!finished)
+            {
+                progress.cancel();
+                pool.awaitQuiescence(1, TimeUnit.MINUTES);
+
+                discard(pending);
+
+                output.abort();
+            }
+
+            pool.shutdownNow();
+        }
+    }
+
+    private WritableEntry prepareEntry(ArchiveEntry entry, ArchiveEntry original, FileHeader fileHeader, ArchiveReader archiveReader) throws IOException
+    {
+        if (original != null)
+        {
+            progress.addBytes(entry.size());
+            progress.addDeduplicatedBytes(entry.size());
+            return Deduplicator.createReference(entry, original, zipParameters.getFileComment());
+        }
+
+        if (fileHeader == null || entry.directory() || fileHeader.isDirectory() || entry.size() != fileHeader.getUncompressedSize())
+        {
+            return EntryCompressor.compress(entry, zipParameters, password, cipherBackend, archiveKey, progress);
+        }
+
+        EntryRecord record = EntryRecord.copyOf(fileHeader);
+
+        int dosTime = (int) Zip4jUtil.epochToExtendedDosTime(entry.lastModified());
+
+        if (record.dosTime != dosTime)
+        {
+            progress.setCurrentFile(entry.file().getPath());
+
+            if (fileHeader.getCrc() == 0 || FileUtils.checksumCRC32(entry.file()) != fileHeader.getCrc())
+            {
+                return EntryCompressor.compress(entry, zipParameters, password, cipherBackend, archiveKey, progress);
+            }
+
+            if ((record.flags & EntryRecord.FLAG_DATA_DESCRIPTOR) == 0)
+            {
+                record.dosTime = dosTime;
+            }
+        }
+
+        progress.addBytes(entry.size());
+        progress.completeCopiedEntry();
+        return new CopiedEntry(record, archiveReader, fileHeader);
+    }
+
+    static <T> T join(Future<T> task) throws IOException
+    {
+        try
+        {
+            return task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Archiving was interrupted.");
+        }
+        catch (ExecutionException e)
+        {
+            IOException ioe = ExceptionUtils.throwableOfType(e, IOException.class);
+
+            if (ioe != null)
+            {
+                throw ioe;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    static void discard(Collection<Future<WritableEntry>> pending)
+    {
+        for (Future<WritableEntry> task : pending)
+        {
+            if (!task.cancel(true) && task.isDone())
+            {
+                try
+                {
+                    task.get().discard();
+                }
+                catch (Exception ignored)
+                {
+                }
+            }
+        }
+    }
+}
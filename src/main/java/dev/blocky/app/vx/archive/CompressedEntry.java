@@ -0,0 +1,61 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public record CompressedEntry(EntryRecord record, DeferredFileOutputStream payload) implements WritableEntry
+{
+    @Override
+    public void writeTo(OutputStream out) throws IOException
+    {
+        out.write(HeaderWriter.createLocalFileHeader(record));
+
+        if (payload == null)
+        {
+            return;
+        }
+
+        try
+        {
+            payload.writeTo(out);
+        }
+        finally
+        {
+            discard();
+        }
+
+        if ((record.flags & EntryRecord.FLAG_DATA_DESCRIPTOR) != 0)
+        {
+            out.write(HeaderWriter.createDataDescriptor(record));
+        }
+    }
+
+    @Override
+    public void discard()
+    {
+        if (payload != null && !payload.isInMemory())
+        {
+            FileUtils.deleteQuietly(payload.getFile());
+        }
+    }
+}
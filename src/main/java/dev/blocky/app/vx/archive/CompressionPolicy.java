@@ -0,0 +1,102 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.CompressionLevel;
+import net.lingala.zip4j.model.enums.CompressionMethod;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+public class CompressionPolicy
+{
+    private static final Set<String> INCOMPRESSIBLE_EXTENSIONS = Set.of
+            (
+                    "jpg", "jpeg", "png", "gif", "webp", "heic", "avif",
+                    "mp3", "aac", "m4a", "ogg", "opus", "flac",
+                    "mp4", "m4v", "mkv", "mov", "avi", "webm", "wmv",
+                    "zip", "vxar", "7z", "rar", "gz", "tgz", "bz2", "xz", "zst", "lz4", "cab",
+                    "jar", "war", "apk", "docx", "xlsx", "pptx", "odt", "ods", "odp", "epub"
+            );
+
+    private static final int SAMPLE_SIZE = 64 * 1024;
+    private static final int MIN_SAMPLE_SIZE = 4 * 1024;
+    private static final double INCOMPRESSIBLE_RATIO = 0.97;
+
+    public static CompressionMethod chooseMethod(ArchiveEntry entry, ZipParameters zipParameters) throws IOException
+    {
+        CompressionMethod compressionMethod = zipParameters.getCompressionMethod();
+
+        if (compressionMethod != CompressionMethod.DEFLATE || zipParameters.getCompressionLevel() == CompressionLevel.NO_COMPRESSION)
+        {
+            return compressionMethod;
+        }
+
+        String extension = FilenameUtils.getExtension(entry.file().getName()).toLowerCase(Locale.ROOT);
+
+        if (INCOMPRESSIBLE_EXTENSIONS.contains(extension))
+        {
+            return CompressionMethod.STORE;
+        }
+
+        if (entry.size() < MIN_SAMPLE_SIZE)
+        {
+            return compressionMethod;
+        }
+
+        byte[] sample = new byte[(int) Math.min(SAMPLE_SIZE, entry.size())];
+        int length;
+
+        try (InputStream in = new FileInputStream(entry.file()))
+        {
+            length = IOUtils.read(in, sample);
+        }
+        return isIncompressible(sample, length) ? CompressionMethod.STORE : compressionMethod;
+    }
+
+    private static boolean isIncompressible(byte[] sample, int length)
+    {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+
+        try
+        {
+            deflater.setInput(sample, 0, length);
+            deflater.finish();
+
+            byte[] output = new byte[SAMPLE_SIZE];
+            long compressedLength = 0;
+
+            while (!deflater.finished())
+            {
+                compressedLength += deflater.deflate(output);
+            }
+            return compressedLength >= length * INCOMPRESSIBLE_RATIO;
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.model.FileHeader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+record CopiedEntry(EntryRecord record, ArchiveReader archiveReader, FileHeader fileHeader) implements WritableEntry
+{
+    @Override
+    public void writeTo(OutputStream out) throws IOException
+    {
+        out.write(HeaderWriter.createLocalFileHeader(record));
+
+        archiveReader.copyRawEntry(fileHeader, out);
+
+        if ((record.flags & EntryRecord.FLAG_DATA_DESCRIPTOR) != 0)
+        {
+            out.write(HeaderWriter.createDataDescriptor(record));
+        }
+    }
+
+    @Override
+    public void discard()
+    {
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.archive.crypto.EntryDecrypter;
+import org.apache.commons.io.IOUtils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class DecryptingInputStream extends FilterInputStream
+{
+    private final EntryDecrypter decrypter;
+    private final int trailerLength;
+
+    private final byte[] buffer = new byte[64 * 1024];
+    private int position;
+    private int limit;
+
+    private long remaining;
+    private boolean verified;
+
+    public DecryptingInputStream(InputStream in, EntryDecrypter decrypter, long length, int trailerLength)
+    {
+        super(in);
+
+        this.decrypter = decrypter;
+        this.remaining = length;
+        this.trailerLength = trailerLength;
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        if (position == limit && !fill())
+        {
+            return -1;
+        }
+
+        int count = Math.min(len, limit - position);
+
+        System.arraycopy(buffer, position, b, off, count);
+
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available()
+    {
+        return limit - position;
+    }
+
+    private boolean fill() throws IOException
+    {
+        if (remaining == 0)
+        {
+            verifyTrailer();
+            return false;
+        }
+
+        int count = (int) Math.min(buffer.length, remaining);
+
+        IOUtils.readFully(in, buffer, 0, count);
+        decrypter.decrypt(buffer, 0, count);
+
+        remaining -= count;
+
+        position = 0;
+        limit = count;
+
+        if (remaining == 0)
+        {
+            verifyTrailer();
+        }
+        return true;
+    }
+
+    private void verifyTrailer() throws IOException
+    {
+        if (verified)
+        {
+            return;
+        }
+
+        verified = true;
+
+        decrypter.verifyTrailer(IOUtils.readFully(in, trailerLength));
+    }
+}
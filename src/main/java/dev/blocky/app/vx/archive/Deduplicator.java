@@ -0,0 +1,154 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.enums.CompressionMethod;
+import net.lingala.zip4j.util.Zip4jUtil;
+import org.apache.commons.codec.binary.Hex;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class Deduplicator
+{
+    public static final int REFERENCE_EXTRA_FIELD_ID = 0x5658;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int STORE_VERSION_NEEDED = 10;
+
+    static Map<ArchiveEntry, ArchiveEntry> findDuplicates(List<ArchiveEntry> entries, ForkJoinPool pool, ArchiveProgress progress) throws IOException
+    {
+        HashMap<Long, List<ArchiveEntry>> entriesBySize = new HashMap<>();
+
+        for (ArchiveEntry entry : entries)
+        {
+            if (!entry.directory() && entry.size() > 0)
+            {
+                entriesBySize.computeIfAbsent(entry.size(), size -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        ArrayList<ArchiveEntry> candidates = new ArrayList<>();
+        ArrayList<Callable<String>> tasks = new ArrayList<>();
+
+        for (List<ArchiveEntry> sameSize : entriesBySize.values())
+        {
+            if (sameSize.size() < 2)
+            {
+                continue;
+            }
+
+            for (ArchiveEntry entry : sameSize)
+            {
+                candidates.add(entry);
+                tasks.add(() -> hash(entry, progress));
+            }
+        }
+
+        List<Future<String>> hashes = pool.invokeAll(tasks);
+
+        HashMap<ArchiveEntry, String> hashByEntry = new HashMap<>();
+
+        for (int i = 0; i < candidates.size(); i++)
+        {
+            hashByEntry.put(candidates.get(i), ArchiveWriter.join(hashes.get(i)));
+        }
+
+        HashMap<String, ArchiveEntry> originals = new HashMap<>();
+        HashMap<ArchiveEntry, ArchiveEntry> duplicates = new HashMap<>();
+
+        for (ArchiveEntry entry : entries)
+        {
+            String hash = hashByEntry.get(entry);
+
+            if (hash == null)
+            {
+                continue;
+            }
+
+            ArchiveEntry original = originals.putIfAbsent(entry.size() + ":" + hash, entry);
+
+            if (original != null)
+            {
+                duplicates.put(entry, original);
+            }
+        }
+        return duplicates;
+    }
+
+    static CompressedEntry createReference(ArchiveEntry entry, ArchiveEntry original, String comment)
+    {
+        byte[] originalName = original.name().getBytes(StandardCharsets.UTF_8);
+
+        EntryRecord record = new EntryRecord(entry.name(), comment);
+        record.versionNeeded = STORE_VERSION_NEEDED;
+        record.method = CompressionMethod.STORE.getCode();
+        record.dosTime = (int) Zip4jUtil.epochToExtendedDosTime(entry.lastModified());
+        record.externalAttributes = EntryRecord.ATTRIBUTE_ARCHIVE;
+
+        record.extra = createReferenceExtraField(originalName);
+        return new CompressedEntry(record, null);
+    }
+
+    static byte[] createReferenceExtraField(byte[] originalName)
+    {
+        ByteBuffer extra = ByteBuffer.allocate(4 + originalName.length).order(ByteOrder.LITTLE_ENDIAN);
+        extra.putShort((short) REFERENCE_EXTRA_FIELD_ID);
+        extra.putShort((short) originalName.length);
+        extra.put(originalName);
+        return extra.array();
+    }
+
+    public static String getReferencedName(FileHeader fileHeader)
+    {
+        byte[] referencedName = EntryRecord.getExtraData(fileHeader, REFERENCE_EXTRA_FIELD_ID);
+        return referencedName == null ? null : new String(referencedName, StandardCharsets.UTF_8);
+    }
+
+    private static String hash(ArchiveEntry entry, ArchiveProgress progress) throws IOException, NoSuchAlgorithmException
+    {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+        progress.setCurrentFile(entry.file().getPath());
+
+        try (InputStream in = new FileInputStream(entry.file()))
+        {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+
+            while ((read = in.read(buffer)) != -1)
+            {
+                progress.checkCancelled();
+
+                digest.update(buffer, 0, read);
+            }
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+}
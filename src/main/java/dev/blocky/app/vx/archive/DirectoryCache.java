@@ -0,0 +1,110 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.exception.ZipException;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+class DirectoryCache
+{
+    private final HashSet<Path> existing = new HashSet<>();
+    private final HashSet<Path> created = new HashSet<>();
+    private final TreeMap<Integer, List<Path>> missing = new TreeMap<>();
+
+    void require(Path directory)
+    {
+        if (existing.contains(directory) || created.contains(directory))
+        {
+            return;
+        }
+
+        Path parent = directory.getParent();
+
+        if (parent != null)
+        {
+            require(parent);
+        }
+
+        if (parent != null && created.contains(parent) || !Files.isDirectory(directory))
+        {
+            created.add(directory);
+            missing.computeIfAbsent(directory.getNameCount(), depth -> new ArrayList<>()).add(directory);
+            return;
+        }
+
+        existing.add(directory);
+    }
+
+    boolean isCreated(Path directory)
+    {
+        return created.contains(directory);
+    }
+
+    void createAll(ExecutorService pool, int workers) throws IOException
+    {
+        for (List<Path> level : missing.values())
+        {
+            int chunkSize = Math.max(1, (level.size() + workers - 1) / workers);
+
+            ArrayList<Future<Void>> tasks = new ArrayList<>();
+
+            for (int start = 0; start < level.size(); start += chunkSize)
+            {
+                List<Path> chunk = level.subList(start, Math.min(level.size(), start + chunkSize));
+
+                tasks.add(pool.submit(() ->
+                {
+                    for (Path directory : chunk)
+                    {
+                        createDirectory(directory);
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<Void> task : tasks)
+            {
+                ArchiveWriter.join(task);
+            }
+        }
+
+        missing.clear();
+    }
+
+    private static void createDirectory(Path directory) throws IOException
+    {
+        try
+        {
+            Files.createDirectory(directory);
+        }
+        catch (FileAlreadyExistsException e)
+        {
+            if (!Files.isDirectory(directory))
+            {
+                throw new ZipException("Unable to create directory " + directory + ", a file with the same name exists");
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.codec.Base32Codec;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DirectoryScanner
+{
+    private static final int BATCH_SIZE = 64;
+
+    private final LongAdder fileCount = new LongAdder();
+    private final LongAdder directoryCount = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+
+    private final int workers;
+
+    private ArchiveProgress progress = new ArchiveProgress();
+
+    public DirectoryScanner(int workers)
+    {
+        this.workers = Math.max(1, workers);
+    }
+
+    public void setProgress(ArchiveProgress progress)
+    {
+        this.progress = progress;
+    }
+
+    public ScanResult scan(Collection<File> files, Collection<File> directories) throws IOException
+    {
+        ArrayList<Path> roots = new ArrayList<>(files.size() + directories.size());
+
+        for (File file : files)
+        {
+            roots.add(file.toPath());
+        }
+
+        for (File directory : directories)
+        {
+            roots.add(directory.toPath());
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(workers);
+
+        try
+        {
+            List<ArchiveEntry> entries = pool.invoke(new ScanTask(roots, "", Set.of()));
+            return new ScanResult(entries, fileCount.sum(), directoryCount.sum(), totalBytes.sum());
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        catch (RuntimeException e)
+        {
+            UncheckedIOException uioe = ExceptionUtils.throwableOfType(e, UncheckedIOException.class);
+
+            if (uioe != null)
+            {
+                throw uioe.getCause();
+            }
+            throw e;
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    private static List<Path> listChildren(Path directory)
+    {
+        ArrayList<Path> children = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory))
+        {
+            for (Path child : stream)
+            {
+                children.add(child);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return children;
+    }
+
+    private class ScanTask extends RecursiveTask<List<ArchiveEntry>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> paths;
+        private final String parentName;
+        private final Set<Object> ancestors;
+
+        private ScanTask(List<Path> paths, String parentName, Set<Object> ancestors)
+        {
+            this.paths = paths;
+            this.parentName = parentName;
+            this.ancestors = ancestors;
+        }
+
+        @Override
+        protected List<ArchiveEntry> compute()
+        {
+            checkCancelled();
+
+            if (paths.size() > BATCH_SIZE)
+            {
+                int middle = paths.size() / 2;
+
+                ScanTask right = new ScanTask(paths.subList(middle, paths.size()), parentName, ancestors);
+                right.fork();
+
+                List<ArchiveEntry> entries = new ArrayList<>(new ScanTask(paths.subList(0, middle), parentName, ancestors).compute());
+                entries.addAll(right.join());
+                return entries;
+            }
+
+            ArrayList<Object> parts = new ArrayList<>(paths.size());
+
+            for (Path path : paths)
+            {
+                BasicFileAttributes attributes = readAttributes(path);
+
+                String name = parentName + path.getFileName();
+                long lastModified = attributes.lastModifiedTime().toMillis();
+
+                if (attributes.isDirectory())
+                {
+                    Object directoryKey = getDirectoryKey(path, attributes);
+
+                    if (ancestors.contains(directoryKey))
+                    {
+                        continue;
+                    }
+
+                    HashSet<Object> childAncestors = new HashSet<>(ancestors);
+                    childAncestors.add(directoryKey);
+
+                    directoryCount.increment();
+
+                    parts.add(new ArchiveEntry(path.toFile(), Base32Codec.encodePath(name + "/"), true, 0, lastModified));
+                    parts.add(new ScanTask(listChildren(path), name + "/", childAncestors).fork());
+                    continue;
+                }
+
+                fileCount.increment();
+                totalBytes.add(attributes.size());
+
+                parts.add(new ArchiveEntry(path.toFile(), Base32Codec.encodePath(name), false, attributes.size(), lastModified));
+            }
+
+            ArrayList<ArchiveEntry> entries = new ArrayList<>(parts.size());
+
+            for (Object part : parts)
+            {
+                if (part instanceof ArchiveEntry entry)
+                {
+                    entries.add(entry);
+                    continue;
+                }
+
+                @SuppressWarnings("unchecked")
+                ForkJoinTask<List<ArchiveEntry>> task = (ForkJoinTask<List<ArchiveEntry>>) part;
+
+                entries.addAll(task.join());
+            }
+            return entries;
+        }
+
+        private void checkCancelled()
+        {
+            try
+            {
+                progress.checkCancelled();
+            }
+            catch (InterruptedIOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private Object getDirectoryKey(Path path, BasicFileAttributes attributes)
+        {
+            if (attributes.fileKey() != null)
+            {
+                return attributes.fileKey();
+            }
+
+            try
+            {
+                return path.toRealPath();
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private BasicFileAttributes readAttributes(Path path)
+        {
+            try
+            {
+                return Files.readAttributes(path, BasicFileAttributes.class);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
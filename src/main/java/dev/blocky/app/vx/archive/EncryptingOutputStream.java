@@ -0,0 +1,98 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.archive.crypto.EntryEncrypter;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class EncryptingOutputStream extends FilterOutputStream
+{
+    private static final int BLOCK_SIZE = 16;
+
+    private final EntryEncrypter encrypter;
+
+    private final byte[] buffer = new byte[64 * 1024];
+    private int buffered;
+
+    public EncryptingOutputStream(OutputStream out, EntryEncrypter encrypter) throws IOException
+    {
+        super(out);
+
+        this.encrypter = encrypter;
+
+        out.write(encrypter.getHeader());
+    }
+
+    @Override
+    public void write(int b) throws IOException
+    {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException
+    {
+        while (len > 0)
+        {
+            int count = Math.min(len, buffer.length - buffered);
+
+            System.arraycopy(b, off, buffer, buffered, count);
+
+            buffered += count;
+            off += count;
+            len -= count;
+
+            if (buffered == buffer.length)
+            {
+                encryptAndWrite(buffered);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        int aligned = buffered - (buffered % BLOCK_SIZE);
+
+        if (aligned > 0)
+        {
+            encryptAndWrite(aligned);
+        }
+
+        if (buffered > 0)
+        {
+            encryptAndWrite(buffered);
+        }
+
+        out.write(encrypter.getTrailer());
+        out.close();
+    }
+
+    private void encryptAndWrite(int length) throws IOException
+    {
+        encrypter.encrypt(buffer, 0, length);
+        out.write(buffer, 0, length);
+
+        buffered -= length;
+
+        System.arraycopy(buffer, length, buffer, 0, buffered);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.model.FileHeader;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+public class EntryCache
+{
+    private final LinkedHashMap<FileHeader, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxSize;
+
+    private long size;
+
+    public EntryCache(long maxSize)
+    {
+        this.maxSize = maxSize;
+    }
+
+    public synchronized byte[] get(FileHeader fileHeader)
+    {
+        return entries.get(fileHeader);
+    }
+
+    public synchronized void put(FileHeader fileHeader, byte[] data)
+    {
+        if (data.length > maxSize)
+        {
+            return;
+        }
+
+        byte[] previous = entries.put(fileHeader, data);
+        size += data.length - (previous == null ? 0 : previous.length);
+
+        Iterator<byte[]> iterator = entries.values().iterator();
+
+        while (size > maxSize && iterator.hasNext())
+        {
+            size -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+
+    public synchronized void clear()
+    {
+        entries.clear();
+        size = 0;
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.archive.crypto.ArchiveKey;
+import dev.blocky.app.vx.archive.crypto.CipherBackend;
+import dev.blocky.app.vx.archive.crypto.EntryEncrypter;
+import dev.blocky.app.vx.archive.crypto.GcmChunkOutputStream;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesKeyStrength;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.CompressionMethod;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import net.lingala.zip4j.util.Zip4jUtil;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+public class EntryCompressor
+{
+    public static final int AES_EXTRA_FIELD_ID = 0x9901;
+    public static final int VXAR_EXTRA_FIELD_ID = 0x5632;
+    public static final int VXAR_FORMAT_VERSION = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int IN_MEMORY_THRESHOLD = 4 * 1024 * 1024;
+
+    private static final int STORE_VERSION_NEEDED = 10;
+    private static final int DEFLATE_VERSION_NEEDED = 20;
+    private static final int AES_VERSION_NEEDED = 51;
+
+    public static CompressedEntry compress(ArchiveEntry entry, ZipParameters zipParameters, char[] password, CipherBackend cipherBackend, ArchiveKey archiveKey, ArchiveProgress progress) throws IOException
+    {
+        File file = entry.file();
+
+        progress.setCurrentFile(file.getPath());
+
+        EntryRecord record = new EntryRecord(entry.name(), zipParameters.getFileComment());
+        record.dosTime = (int) Zip4jUtil.epochToExtendedDosTime(entry.lastModified());
+
+        if (entry.directory())
+        {
+            record.versionNeeded = STORE_VERSION_NEEDED;
+            record.method = CompressionMethod.STORE.getCode();
+            record.externalAttributes = EntryRecord.ATTRIBUTE_DIRECTORY;
+            return new CompressedEntry(record, null);
+        }
+
+        CompressionMethod compressionMethod = CompressionPolicy.chooseMethod(entry, zipParameters);
+
+        if (compressionMethod != zipParameters.getCompressionMethod())
+        {
+            progress.addPassthroughBytes(entry.size());
+        }
+
+        record.versionNeeded = compressionMethod == CompressionMethod.DEFLATE ? DEFLATE_VERSION_NEEDED : STORE_VERSION_NEEDED;
+        record.method = compressionMethod.getCode();
+        record.externalAttributes = EntryRecord.ATTRIBUTE_ARCHIVE;
+
+        DeferredFileOutputStream payload = DeferredFileOutputStream.builder()
+                .setThreshold(IN_MEMORY_THRESHOLD)
+                .setPrefix("vxar")
+                .setSuffix(".tmp")
+                .get();
+
+        CRC32 crc32 = new CRC32();
+
+        try
+        {
+            OutputStream out = payload;
+
+            if (zipParameters.isEncryptFiles() && archiveKey != null)
+            {
+                record.flags |= EntryRecord.FLAG_ENCRYPTED;
+                record.extra = createVxarExtraField();
+
+                out = new GcmChunkOutputStream(payload, archiveKey.getKey(), record.name);
+            }
+            else if (zipParameters.isEncryptFiles())
+            {
+                out = new EncryptingOutputStream(payload, createEncrypter(record, zipParameters, password, cipherBackend));
+            }
+
+            Deflater deflater = null;
+
+            if (compressionMethod == CompressionMethod.DEFLATE)
+            {
+                deflater = new Deflater(zipParameters.getCompressionLevel().getLevel(), true);
+                out = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+            }
+
+            try (InputStream in = new CheckedInputStream(new FileInputStream(file), crc32); OutputStream cout = out)
+            {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+
+                while ((read = in.read(buffer)) != -1)
+                {
+                    progress.checkCancelled();
+
+                    cout.write(buffer, 0, read);
+                    record.uncompressedSize += read;
+                    progress.addBytes(read);
+                }
+            }
+            finally
+            {
+                if (deflater != null)
+                {
+                    deflater.end();
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            new CompressedEntry(record, payload).discard();
+            throw e;
+        }
+
+        boolean aesVersionTwo = record.method == CompressionMethod.AES_INTERNAL_ONLY.getCode() && zipParameters.getAesVersion().getVersionNumber() == 2;
+
+        record.crc = aesVersionTwo || archiveKey != null && zipParameters.isEncryptFiles() ? 0 : crc32.getValue();
+        record.compressedSize = payload.getByteCount();
+        return new CompressedEntry(record, payload);
+    }
+
+    private static EntryEncrypter createEncrypter(EntryRecord record, ZipParameters zipParameters, char[] password, CipherBackend cipherBackend) throws IOException
+    {
+        EncryptionMethod encryptionMethod = zipParameters.getEncryptionMethod();
+
+        record.flags |= EntryRecord.FLAG_ENCRYPTED;
+
+        long key = 0;
+
+        if (encryptionMethod == EncryptionMethod.AES)
+        {
+            record.extra = createAesExtraField(zipParameters.getAesVersion(), zipParameters.getAesKeyStrength(), record.method);
+            record.method = CompressionMethod.AES_INTERNAL_ONLY.getCode();
+            record.versionNeeded = AES_VERSION_NEEDED;
+        }
+
+        if (encryptionMethod == EncryptionMethod.ZIP_STANDARD)
+        {
+            record.flags |= EntryRecord.FLAG_DATA_DESCRIPTOR;
+            key = (record.dosTime & 0xFFFFL) << 16;
+        }
+
+        return cipherBackend.createEncrypter(encryptionMethod, zipParameters.getAesKeyStrength(), password, key);
+    }
+
+    static byte[] createAesExtraField(AesVersion aesVersion, AesKeyStrength aesKeyStrength, int actualMethod)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(11).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putShort((short) AES_EXTRA_FIELD_ID);
+        buffer.putShort((short) 7);
+        buffer.putShort((short) aesVersion.getVersionNumber());
+        buffer.put((byte) 'A');
+        buffer.put((byte) 'E');
+        buffer.put((byte) aesKeyStrength.getRawCode());
+        buffer.putShort((short) actualMethod);
+        return buffer.array();
+    }
+
+    static byte[] createVxarExtraField()
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(6).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putShort((short) VXAR_EXTRA_FIELD_ID);
+        buffer.putShort((short) 2);
+        buffer.putShort((short) VXAR_FORMAT_VERSION);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+import org.apache.commons.io.IOUtils;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+public class EntryInputStream extends FilterInputStream
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileHeader fileHeader;
+    private final Inflater inflater;
+    private final boolean checkCrc;
+
+    private final CRC32 crc32 = new CRC32();
+    private long uncompressedSize;
+
+    private EntryInputStream(InputStream in, FileHeader fileHeader, Inflater inflater, boolean checkCrc)
+    {
+        super(in);
+
+        this.fileHeader = fileHeader;
+        this.inflater = inflater;
+        this.checkCrc = checkCrc;
+    }
+
+    public static EntryInputStream create(InputStream compressed, FileHeader fileHeader, boolean deflated, boolean checkCrc)
+    {
+        if (!deflated)
+        {
+            return new EntryInputStream(compressed, fileHeader, null, checkCrc);
+        }
+
+        Inflater inflater = new Inflater(true);
+        return new EntryInputStream(new RawInflaterInputStream(compressed, inflater), fileHeader, inflater, checkCrc);
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        int read = in.read(b, off, len);
+
+        if (read == -1)
+        {
+            verify();
+            return -1;
+        }
+
+        crc32.update(b, off, read);
+        uncompressedSize += read;
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException
+    {
+        byte[] buffer = new byte[(int) Math.min(n, BUFFER_SIZE)];
+        long skipped = 0;
+
+        while (skipped < n)
+        {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+
+            if (read == -1)
+            {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            if (inflater != null)
+            {
+                inflater.end();
+            }
+        }
+    }
+
+    private void verify() throws IOException
+    {
+        if (inflater != null)
+        {
+            IOUtils.consume(((RawInflaterInputStream) in).source());
+        }
+
+        if (uncompressedSize != fileHeader.getUncompressedSize())
+        {
+            throw new ZipException("Size mismatch for entry " + fileHeader.getFileName(), ZipException.Type.CHECKSUM_MISMATCH);
+        }
+
+        if (checkCrc && crc32.getValue() != fileHeader.getCrc())
+        {
+            throw new ZipException("CRC mismatch for entry " + fileHeader.getFileName(), ZipException.Type.CHECKSUM_MISMATCH);
+        }
+    }
+
+    private static class RawInflaterInputStream extends InflaterInputStream
+    {
+        private boolean eof;
+
+        private RawInflaterInputStream(InputStream in, Inflater inflater)
+        {
+            super(in, inflater, BUFFER_SIZE);
+        }
+
+        private InputStream source()
+        {
+            return in;
+        }
+
+        @Override
+        protected void fill() throws IOException
+        {
+            if (eof)
+            {
+                throw new EOFException("Unexpected end of deflate stream");
+            }
+
+            len = in.read(buf, 0, buf.length);
+
+            if (len == -1)
+            {
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            }
+
+            inf.setInput(buf, 0, len);
+        }
+    }
+}
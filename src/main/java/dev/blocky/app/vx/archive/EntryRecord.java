@@ -0,0 +1,135 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.model.AESExtraDataRecord;
+import net.lingala.zip4j.model.ExtraDataRecord;
+import net.lingala.zip4j.model.FileHeader;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+public class EntryRecord
+{
+    public static final int VERSION_MADE_BY = 51;
+
+    public static final int FLAG_ENCRYPTED = 1;
+    public static final int FLAG_DATA_DESCRIPTOR = 1 << 3;
+    public static final int FLAG_UTF8 = 1 << 11;
+
+    public static final int ATTRIBUTE_DIRECTORY = 0x10;
+    public static final int ATTRIBUTE_ARCHIVE = 0x20;
+
+    byte[] name;
+    byte[] comment = new byte[0];
+    byte[] extra = new byte[0];
+
+    int versionMadeBy = VERSION_MADE_BY;
+    int versionNeeded;
+    int flags = FLAG_UTF8;
+    int method;
+    int dosTime;
+    int externalAttributes;
+    int diskNumberStart;
+
+    long crc;
+    long compressedSize;
+    long uncompressedSize;
+    long localHeaderOffset;
+
+    public EntryRecord(String name, String comment)
+    {
+        this.name = name.getBytes(StandardCharsets.UTF_8);
+
+        if (comment != null)
+        {
+            this.comment = comment.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    static EntryRecord copyOf(FileHeader fileHeader)
+    {
+        EntryRecord record = new EntryRecord(fileHeader.getFileName(), fileHeader.getFileComment());
+        record.versionNeeded = fileHeader.getVersionNeededToExtract();
+        record.flags = FLAG_UTF8 | (fileHeader.getGeneralPurposeFlag()[0] & (FLAG_ENCRYPTED | FLAG_DATA_DESCRIPTOR));
+        record.method = fileHeader.getCompressionMethod().getCode();
+        record.dosTime = (int) fileHeader.getLastModifiedTime();
+        record.externalAttributes = ByteBuffer.wrap(fileHeader.getExternalFileAttributes()).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        record.crc = fileHeader.getCrc();
+        record.compressedSize = fileHeader.getCompressedSize();
+        record.uncompressedSize = fileHeader.getUncompressedSize();
+
+        AESExtraDataRecord aesExtraDataRecord = fileHeader.getAesExtraDataRecord();
+
+        if (aesExtraDataRecord != null)
+        {
+            record.extra = EntryCompressor.createAesExtraField(aesExtraDataRecord.getAesVersion(), aesExtraDataRecord.getAesKeyStrength(), aesExtraDataRecord.getCompressionMethod().getCode());
+        }
+
+        if (getExtraData(fileHeader, EntryCompressor.VXAR_EXTRA_FIELD_ID) != null)
+        {
+            record.extra = EntryCompressor.createVxarExtraField();
+        }
+
+        byte[] referencedName = getExtraData(fileHeader, Deduplicator.REFERENCE_EXTRA_FIELD_ID);
+
+        if (referencedName != null)
+        {
+            record.extra = Deduplicator.createReferenceExtraField(referencedName);
+        }
+        return record;
+    }
+
+    static byte[] getExtraData(FileHeader fileHeader, int headerId)
+    {
+        if (fileHeader.getExtraDataRecords() == null)
+        {
+            return null;
+        }
+
+        for (ExtraDataRecord extraDataRecord : fileHeader.getExtraDataRecords())
+        {
+            if (extraDataRecord.getHeader() == headerId)
+            {
+                return extraDataRecord.getData();
+            }
+        }
+        return null;
+    }
+
+    public String getName()
+    {
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    public long getCompressedSize()
+    {
+        return compressedSize;
+    }
+
+    public long getUncompressedSize()
+    {
+        return uncompressedSize;
+    }
+
+    public boolean isDirectory()
+    {
+        return (externalAttributes & ATTRIBUTE_DIRECTORY) != 0;
+    }
+}
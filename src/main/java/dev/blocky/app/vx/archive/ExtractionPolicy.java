@@ -0,0 +1,94 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.model.FileHeader;
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+public enum ExtractionPolicy
+{
+    SKIP_IF_SAME_SIZE_AND_TIME("Skip if same size and time"),
+    SKIP_IF_SAME_CONTENT("Skip if same content"),
+    ALWAYS_OVERWRITE("Always overwrite");
+
+    private static final long MODIFICATION_TIME_TOLERANCE = 2000;
+
+    private final String displayName;
+
+    ExtractionPolicy(String displayName)
+    {
+        this.displayName = displayName;
+    }
+
+    @Override
+    public String toString()
+    {
+        return displayName;
+    }
+
+    boolean isUpToDate(FileHeader fileHeader, FileHeader contentHeader, Path target) throws IOException
+    {
+        if (this == ALWAYS_OVERWRITE)
+        {
+            return false;
+        }
+
+        BasicFileAttributes attributes;
+
+        try
+        {
+            attributes = Files.readAttributes(target, BasicFileAttributes.class);
+        }
+        catch (NoSuchFileException e)
+        {
+            return false;
+        }
+
+        if (!attributes.isRegularFile() || attributes.size() != contentHeader.getUncompressedSize())
+        {
+            return false;
+        }
+
+        long lastModified = fileHeader.getLastModifiedTimeEpoch();
+
+        if (Math.abs(attributes.lastModifiedTime().toMillis() - lastModified) < MODIFICATION_TIME_TOLERANCE)
+        {
+            return true;
+        }
+
+        if (this == SKIP_IF_SAME_SIZE_AND_TIME || contentHeader.getCrc() == 0 && contentHeader.getUncompressedSize() > 0)
+        {
+            return false;
+        }
+
+        if (FileUtils.checksumCRC32(target.toFile()) != contentHeader.getCrc())
+        {
+            return false;
+        }
+
+        Files.setLastModifiedTime(target, FileTime.fromMillis(lastModified));
+        return true;
+    }
+}
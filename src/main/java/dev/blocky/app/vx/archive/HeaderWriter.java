@@ -0,0 +1,196 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class HeaderWriter
+{
+    public static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+    public static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    public static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+    public static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    public static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    public static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+
+    public static final int LOCAL_FILE_HEADER_LENGTH = 30;
+
+    private static final int ZIP64_EXTRA_FIELD_ID = 0x0001;
+    private static final int ZIP64_VERSION_NEEDED = 45;
+
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_SHORT = 0xFFFF;
+
+    public static byte[] createLocalFileHeader(EntryRecord record)
+    {
+        boolean zip64 = record.compressedSize >= ZIP64_MAGIC || record.uncompressedSize >= ZIP64_MAGIC;
+
+        int extraLength = record.extra.length + (zip64 ? 20 : 0);
+
+        ByteBuffer buffer = allocate(LOCAL_FILE_HEADER_LENGTH + record.name.length + extraLength);
+        buffer.putInt(LOCAL_FILE_HEADER_SIGNATURE);
+        buffer.putShort((short) (zip64 ? Math.max(record.versionNeeded, ZIP64_VERSION_NEEDED) : record.versionNeeded));
+        buffer.putShort((short) record.flags);
+        buffer.putShort((short) record.method);
+        buffer.putInt(record.dosTime);
+        buffer.putInt((int) record.crc);
+        buffer.putInt((int) (zip64 ? ZIP64_MAGIC : record.compressedSize));
+        buffer.putInt((int) (zip64 ? ZIP64_MAGIC : record.uncompressedSize));
+        buffer.putShort((short) record.name.length);
+        buffer.putShort((short) extraLength);
+        buffer.put(record.name);
+
+        if (zip64)
+        {
+            buffer.putShort((short) ZIP64_EXTRA_FIELD_ID);
+            buffer.putShort((short) 16);
+            buffer.putLong(record.uncompressedSize);
+            buffer.putLong(record.compressedSize);
+        }
+
+        buffer.put(record.extra);
+        return buffer.array();
+    }
+
+    public static byte[] createDataDescriptor(EntryRecord record)
+    {
+        boolean zip64 = record.compressedSize >= ZIP64_MAGIC || record.uncompressedSize >= ZIP64_MAGIC;
+
+        ByteBuffer buffer = allocate(zip64 ? 24 : 16);
+        buffer.putInt(DATA_DESCRIPTOR_SIGNATURE);
+        buffer.putInt((int) record.crc);
+
+        if (zip64)
+        {
+            buffer.putLong(record.compressedSize);
+            buffer.putLong(record.uncompressedSize);
+            return buffer.array();
+        }
+
+        buffer.putInt((int) record.compressedSize);
+        buffer.putInt((int) record.uncompressedSize);
+        return buffer.array();
+    }
+
+    public static byte[] createCentralDirectoryHeader(EntryRecord record)
+    {
+        boolean zip64UncompressedSize = record.uncompressedSize >= ZIP64_MAGIC;
+        boolean zip64CompressedSize = record.compressedSize >= ZIP64_MAGIC;
+        boolean zip64Offset = record.localHeaderOffset >= ZIP64_MAGIC;
+
+        int zip64Length = (zip64UncompressedSize ? 8 : 0) + (zip64CompressedSize ? 8 : 0) + (zip64Offset ? 8 : 0);
+        boolean zip64 = zip64Length > 0;
+
+        int extraLength = record.extra.length + (zip64 ? 4 + zip64Length : 0);
+
+        ByteBuffer buffer = allocate(46 + record.name.length + extraLength + record.comment.length);
+        buffer.putInt(CENTRAL_DIRECTORY_SIGNATURE);
+        buffer.putShort((short) record.versionMadeBy);
+        buffer.putShort((short) (zip64 ? Math.max(record.versionNeeded, ZIP64_VERSION_NEEDED) : record.versionNeeded));
+        buffer.putShort((short) record.flags);
+        buffer.putShort((short) record.method);
+        buffer.putInt(record.dosTime);
+        buffer.putInt((int) record.crc);
+        buffer.putInt((int) (zip64CompressedSize ? ZIP64_MAGIC : record.compressedSize));
+        buffer.putInt((int) (zip64UncompressedSize ? ZIP64_MAGIC : record.uncompressedSize));
+        buffer.putShort((short) record.name.length);
+        buffer.putShort((short) extraLength);
+        buffer.putShort((short) record.comment.length);
+        buffer.putShort((short) record.diskNumberStart);
+        buffer.putShort((short) 0);
+        buffer.putInt(record.externalAttributes);
+        buffer.putInt((int) (zip64Offset ? ZIP64_MAGIC : record.localHeaderOffset));
+        buffer.put(record.name);
+
+        if (zip64)
+        {
+            buffer.putShort((short) ZIP64_EXTRA_FIELD_ID);
+            buffer.putShort((short) zip64Length);
+
+            if (zip64UncompressedSize)
+            {
+                buffer.putLong(record.uncompressedSize);
+            }
+
+            if (zip64CompressedSize)
+            {
+                buffer.putLong(record.compressedSize);
+            }
+
+            if (zip64Offset)
+            {
+                buffer.putLong(record.localHeaderOffset);
+            }
+        }
+
+        buffer.put(record.extra);
+        buffer.put(record.comment);
+        return buffer.array();
+    }
+
+    public static byte[] createEndOfCentralDirectory(List<EntryRecord> records, long centralDirectoryOffset, long centralDirectorySize, int diskNumber, String comment)
+    {
+        int entries = records.size();
+
+        byte[] commentBytes = comment == null ? new byte[0] : comment.getBytes(StandardCharsets.UTF_8);
+
+        boolean zip64 = entries >= ZIP64_MAGIC_SHORT || centralDirectoryOffset >= ZIP64_MAGIC || centralDirectorySize >= ZIP64_MAGIC || diskNumber >= ZIP64_MAGIC_SHORT;
+
+        ByteBuffer buffer = allocate((zip64 ? 56 + 20 : 0) + 22 + commentBytes.length);
+
+        if (zip64)
+        {
+            long zip64EndOffset = centralDirectoryOffset + centralDirectorySize;
+
+            buffer.putInt(ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+            buffer.putLong(44);
+            buffer.putShort((short) EntryRecord.VERSION_MADE_BY);
+            buffer.putShort((short) ZIP64_VERSION_NEEDED);
+            buffer.putInt(diskNumber);
+            buffer.putInt(diskNumber);
+            buffer.putLong(entries);
+            buffer.putLong(entries);
+            buffer.putLong(centralDirectorySize);
+            buffer.putLong(centralDirectoryOffset);
+
+            buffer.putInt(ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE);
+            buffer.putInt(diskNumber);
+            buffer.putLong(zip64EndOffset);
+            buffer.putInt(diskNumber + 1);
+        }
+
+        buffer.putInt(END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+        buffer.putShort((short) Math.min(diskNumber, ZIP64_MAGIC_SHORT));
+        buffer.putShort((short) Math.min(diskNumber, ZIP64_MAGIC_SHORT));
+        buffer.putShort((short) Math.min(entries, ZIP64_MAGIC_SHORT));
+        buffer.putShort((short) Math.min(entries, ZIP64_MAGIC_SHORT));
+        buffer.putInt((int) Math.min(centralDirectorySize, ZIP64_MAGIC));
+        buffer.putInt((int) Math.min(centralDirectoryOffset, ZIP64_MAGIC));
+        buffer.putShort((short) commentBytes.length);
+        buffer.put(commentBytes);
+        return buffer.array();
+    }
+
+    private static ByteBuffer allocate(int length)
+    {
+        return ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.archive.crypto.GcmChunkInputStream;
+import dev.blocky.app.vx.archive.crypto.GcmChunkOutputStream;
+import net.lingala.zip4j.model.FileHeader;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+record ReencryptedEntry(EntryRecord record, ArchiveReader archiveReader, FileHeader fileHeader, SecretKey sourceKey, SecretKey targetKey) implements WritableEntry
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException
+    {
+        out.write(HeaderWriter.createLocalFileHeader(record));
+
+        try (InputStream in = new GcmChunkInputStream(archiveReader.openRawEntry(fileHeader), sourceKey, fileHeader.getFileName().getBytes(StandardCharsets.UTF_8));
+             OutputStream encrypted = new GcmChunkOutputStream(CloseShieldOutputStream.wrap(out), targetKey, record.name))
+        {
+            IOUtils.copy(in, encrypted, BUFFER_SIZE);
+        }
+
+        if ((record.flags & EntryRecord.FLAG_DATA_DESCRIPTOR) != 0)
+        {
+            out.write(HeaderWriter.createDataDescriptor(record));
+        }
+    }
+
+    @Override
+    public void discard()
+    {
+    }
+}
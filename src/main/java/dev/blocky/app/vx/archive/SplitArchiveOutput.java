@@ -0,0 +1,338 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SplitArchiveOutput implements ArchiveOutput
+{
+    public static final int SPLIT_SIGNATURE = 0x08074b50;
+    public static final int SINGLE_SEGMENT_SIGNATURE = 0x30304b50;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File archive;
+    private final long volumeSize;
+
+    private final ExecutorService writers;
+    private final Semaphore permits;
+
+    private final ArrayList<Volume> volumes = new ArrayList<>();
+    private final ArrayDeque<PendingWrite> writes = new ArrayDeque<>();
+
+    private Volume current;
+    private long position;
+
+    SplitArchiveOutput(File archive, long volumeSize, int writerThreads) throws IOException
+    {
+        this.archive = archive;
+        this.volumeSize = Math.max(volumeSize, 64 * 1024);
+        this.writers = Executors.newFixedThreadPool(writerThreads);
+        this.permits = new Semaphore(writerThreads * 2);
+
+        nextVolume();
+        write(current, 0, intBytes(SPLIT_SIGNATURE));
+        position = 4;
+    }
+
+    public static File getVolumeFile(File archive, int index)
+    {
+        return new File(FilenameUtils.removeExtension(archive.getPath()) + String.format(".z%02d", index + 1));
+    }
+
+    @Override
+    public void writeEntry(WritableEntry entry) throws IOException
+    {
+        collectFinishedWrites();
+
+        EntryRecord record = entry.record();
+
+        int headerLength = HeaderWriter.createLocalFileHeader(record).length;
+        long length = headerLength + record.compressedSize;
+
+        if ((record.flags & EntryRecord.FLAG_DATA_DESCRIPTOR) != 0)
+        {
+            length += HeaderWriter.createDataDescriptor(record).length;
+        }
+
+        if (volumeSize - position < headerLength)
+        {
+            nextVolume();
+        }
+
+        record.diskNumberStart = current.index;
+        record.localHeaderOffset = position;
+
+        List<Segment> segments = allocate(length);
+
+        try
+        {
+            permits.acquire();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Archiving was interrupted.");
+        }
+
+        writes.add(new PendingWrite(entry, writers.submit(() ->
+        {
+            try (OutputStream out = new BufferedOutputStream(new SegmentOutputStream(segments), BUFFER_SIZE))
+            {
+                entry.writeTo(out);
+            }
+            finally
+            {
+                for (Segment segment : segments)
+                {
+                    segment.volume().release();
+                }
+
+                permits.release();
+            }
+            return null;
+        })));
+    }
+
+    @Override
+    public void finish(List<EntryRecord> records, String comment) throws IOException
+    {
+        while (!writes.isEmpty())
+        {
+            ArchiveWriter.join(writes.poll().task());
+        }
+
+        ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+
+        for (EntryRecord record : records)
+        {
+            centralDirectory.write(HeaderWriter.createCentralDirectoryHeader(record));
+        }
+
+        byte[] endOfCentralDirectory = HeaderWriter.createEndOfCentralDirectory(records, position, centralDirectory.size(), current.index, comment);
+
+        if (volumeSize - position < centralDirectory.size() + endOfCentralDirectory.length && position > 0)
+        {
+            nextVolume();
+
+            endOfCentralDirectory = HeaderWriter.createEndOfCentralDirectory(records, position, centralDirectory.size(), current.index, comment);
+        }
+
+        write(current, position, centralDirectory.toByteArray());
+        write(current, position + centralDirectory.size(), endOfCentralDirectory);
+
+        if (volumes.size() == 1)
+        {
+            write(current, 0, intBytes(SINGLE_SEGMENT_SIGNATURE));
+        }
+
+        current.release();
+        writers.shutdown();
+
+        Files.move(getVolumeFile(archive, current.index).toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void abort()
+    {
+        writers.shutdownNow();
+
+        try
+        {
+            writers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        for (PendingWrite write : writes)
+        {
+            write.entry().discard();
+        }
+
+        for (Volume volume : volumes)
+        {
+            IOUtils.closeQuietly(volume.channel);
+            FileUtils.deleteQuietly(getVolumeFile(archive, volume.index));
+        }
+    }
+
+    private void collectFinishedWrites() throws IOException
+    {
+        while (!writes.isEmpty() && writes.peek().task().isDone())
+        {
+            ArchiveWriter.join(writes.poll().task());
+        }
+    }
+
+    private List<Segment> allocate(long length) throws IOException
+    {
+        ArrayList<Segment> segments = new ArrayList<>();
+
+        while (length > 0)
+        {
+            if (position == volumeSize)
+            {
+                nextVolume();
+            }
+
+            long count = Math.min(volumeSize - position, length);
+
+            current.retain();
+            segments.add(new Segment(current, position, count));
+
+            position += count;
+            length -= count;
+        }
+        return segments;
+    }
+
+    private void nextVolume() throws IOException
+    {
+        int index = current == null ? 0 : current.index + 1;
+
+        if (current != null)
+        {
+            current.release();
+        }
+
+        File volumeFile = getVolumeFile(archive, index);
+
+        current = new Volume(index, FileChannel.open(volumeFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        volumes.add(current);
+        position = 0;
+    }
+
+    private static void write(Volume volume, long position, byte[] bytes) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        while (buffer.hasRemaining())
+        {
+            position += volume.channel.write(buffer, position);
+        }
+    }
+
+    private static byte[] intBytes(int value)
+    {
+        return ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array();
+    }
+
+    private static class Volume
+    {
+        private final int index;
+        private final FileChannel channel;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private Volume(int index, FileChannel channel)
+        {
+            this.index = index;
+            this.channel = channel;
+        }
+
+        private void retain()
+        {
+            references.incrementAndGet();
+        }
+
+        private void release() throws IOException
+        {
+            if (references.decrementAndGet() == 0)
+            {
+                channel.close();
+            }
+        }
+    }
+
+    private record Segment(Volume volume, long position, long length)
+    {
+    }
+
+    private record PendingWrite(WritableEntry entry, Future<?> task)
+    {
+    }
+
+    private static class SegmentOutputStream extends OutputStream
+    {
+        private final List<Segment> segments;
+
+        private int index;
+        private long written;
+
+        private SegmentOutputStream(List<Segment> segments)
+        {
+            this.segments = segments;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            while (len > 0)
+            {
+                if (index == segments.size())
+                {
+                    throw new IOException("Entry exceeds its reserved volume space");
+                }
+
+                Segment segment = segments.get(index);
+
+                int count = (int) Math.min(len, segment.length() - written);
+
+                ByteBuffer buffer = ByteBuffer.wrap(b, off, count);
+                long target = segment.position() + written;
+
+                while (buffer.hasRemaining())
+                {
+                    target += segment.volume().channel.write(buffer, target);
+                }
+
+                written += count;
+                off += count;
+                len -= count;
+
+                if (written == segment.length())
+                {
+                    index++;
+                    written = 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import java.io.*;
+import java.util.List;
+
+class StreamArchiveOutput implements ArchiveOutput
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File target;
+    private final CountingOutputStream out;
+
+    StreamArchiveOutput(File target) throws IOException
+    {
+        this.target = target;
+        this.out = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(target), BUFFER_SIZE));
+    }
+
+    @Override
+    public void writeEntry(WritableEntry entry) throws IOException
+    {
+        entry.record().localHeaderOffset = out.getByteCount();
+        entry.writeTo(out);
+    }
+
+    @Override
+    public void finish(List<EntryRecord> records, String comment) throws IOException
+    {
+        try
+        {
+            long centralDirectoryOffset = out.getByteCount();
+
+            for (EntryRecord record : records)
+            {
+                out.write(HeaderWriter.createCentralDirectoryHeader(record));
+            }
+
+            long centralDirectorySize = out.getByteCount() - centralDirectoryOffset;
+
+            out.write(HeaderWriter.createEndOfCentralDirectory(records, centralDirectoryOffset, centralDirectorySize, 0, comment));
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    @Override
+    public void abort()
+    {
+        IOUtils.closeQuietly(out);
+        FileUtils.deleteQuietly(target);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.crypto;
+
+import net.lingala.zip4j.exception.ZipException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+public class ArchiveKey
+{
+    public static final String MARKER_PREFIX = "VXAR/2;";
+
+    private static final int ITERATIONS = 210_000;
+    private static final int SALT_LENGTH = 16;
+    private static final int KEY_LENGTH = 32;
+    private static final int CHECK_LENGTH = 8;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private final int iterations;
+    private final byte[] salt;
+    private final byte[] check;
+    private final SecretKey key;
+
+    private ArchiveKey(char[] password, int iterations, byte[] salt) throws ZipException
+    {
+        this.iterations = iterations;
+        this.salt = salt;
+
+        try
+        {
+            SecretKeyFactory keyFactory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            PBEKeySpec keySpec = new PBEKeySpec(password, salt, iterations, KEY_LENGTH * 8);
+
+            byte[] masterKey;
+
+            try
+            {
+                masterKey = keyFactory.generateSecret(keySpec).getEncoded();
+            }
+            finally
+            {
+                keySpec.clearPassword();
+            }
+
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(masterKey, "HmacSHA256"));
+
+            this.key = new SecretKeySpec(mac.doFinal("VXAR/2 entry key".getBytes(StandardCharsets.US_ASCII)), "AES");
+            this.check = Arrays.copyOf(mac.doFinal("VXAR/2 key check".getBytes(StandardCharsets.US_ASCII)), CHECK_LENGTH);
+
+            Arrays.fill(masterKey, (byte) 0);
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new ZipException("Unable to derive archive key", e);
+        }
+    }
+
+    public static ArchiveKey generate(char[] password) throws ZipException
+    {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+
+        return new ArchiveKey(password, ITERATIONS, salt);
+    }
+
+    public static ArchiveKey fromMarker(String marker, char[] password) throws ZipException
+    {
+        String[] parts = marker.substring(MARKER_PREFIX.length()).split(";");
+
+        if (parts.length != 3)
+        {
+            throw new ZipException("Invalid VXAR/2 archive marker");
+        }
+
+        try
+        {
+            ArchiveKey archiveKey = new ArchiveKey(password, Integer.parseInt(parts[0]), Base64.getDecoder().decode(parts[1]));
+
+            if (!MessageDigest.isEqual(archiveKey.check, Base64.getDecoder().decode(parts[2])))
+            {
+                throw new ZipException("Wrong password!", ZipException.Type.WRONG_PASSWORD);
+            }
+            return archiveKey;
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ZipException("Invalid VXAR/2 archive marker", e);
+        }
+    }
+
+    public static boolean isMarker(String comment)
+    {
+        return comment != null && comment.startsWith(MARKER_PREFIX);
+    }
+
+    public String toMarker()
+    {
+        Base64.Encoder encoder = Base64.getEncoder();
+        return MARKER_PREFIX + iterations + ";" + encoder.encodeToString(salt) + ";" + encoder.encodeToString(check);
+    }
+
+    public SecretKey getKey()
+    {
+        return key;
+    }
+}
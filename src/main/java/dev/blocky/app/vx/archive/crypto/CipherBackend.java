@@ -0,0 +1,109 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.crypto;
+
+import net.lingala.zip4j.crypto.AESDecrypter;
+import net.lingala.zip4j.crypto.AESEncrypter;
+import net.lingala.zip4j.crypto.StandardDecrypter;
+import net.lingala.zip4j.crypto.StandardEncrypter;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.AESExtraDataRecord;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.enums.AesKeyStrength;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+
+import java.util.Arrays;
+
+public enum CipherBackend
+{
+    JCE,
+    ZIP4J;
+
+    private static final int STANDARD_HEADER_LENGTH = 12;
+
+    public EntryEncrypter createEncrypter(EncryptionMethod encryptionMethod, AesKeyStrength aesKeyStrength, char[] password, long key) throws ZipException
+    {
+        switch (encryptionMethod)
+        {
+            case AES ->
+            {
+                if (this == JCE)
+                {
+                    return new JceAesEncrypter(password, aesKeyStrength);
+                }
+                return new Zip4jEncrypter(new AESEncrypter(password, aesKeyStrength, true));
+            }
+            case ZIP_STANDARD ->
+            {
+                return new Zip4jEncrypter(new StandardEncrypter(password, key, true));
+            }
+            default -> throw new ZipException("Unsupported encryption method: " + encryptionMethod, ZipException.Type.UNSUPPORTED_ENCRYPTION);
+        }
+    }
+
+    public EntryDecrypter createDecrypter(FileHeader fileHeader, char[] password, byte[] header) throws ZipException
+    {
+        switch (fileHeader.getEncryptionMethod())
+        {
+            case AES ->
+            {
+                AESExtraDataRecord aesExtraDataRecord = fileHeader.getAesExtraDataRecord();
+
+                if (this == JCE)
+                {
+                    return new JceAesDecrypter(password, aesExtraDataRecord.getAesKeyStrength(), header);
+                }
+
+                int saltLength = aesExtraDataRecord.getAesKeyStrength().getSaltLength();
+
+                byte[] salt = Arrays.copyOf(header, saltLength);
+                byte[] passwordVerifier = Arrays.copyOfRange(header, saltLength, header.length);
+
+                return new Zip4jDecrypter(new AESDecrypter(aesExtraDataRecord, password, salt, passwordVerifier, true));
+            }
+            case ZIP_STANDARD ->
+            {
+                return new Zip4jDecrypter(new StandardDecrypter(password, fileHeader.getCrc(), fileHeader.getLastModifiedTime(), header, true));
+            }
+            default -> throw new ZipException("Unsupported encryption method: " + fileHeader.getEncryptionMethod(), ZipException.Type.UNSUPPORTED_ENCRYPTION);
+        }
+    }
+
+    public static int getHeaderLength(FileHeader fileHeader)
+    {
+        if (!fileHeader.isEncrypted())
+        {
+            return 0;
+        }
+
+        if (fileHeader.getEncryptionMethod() == EncryptionMethod.AES)
+        {
+            return fileHeader.getAesExtraDataRecord().getAesKeyStrength().getSaltLength() + JceAesCipher.PASSWORD_VERIFIER_LENGTH;
+        }
+        return STANDARD_HEADER_LENGTH;
+    }
+
+    public static int getTrailerLength(FileHeader fileHeader)
+    {
+        if (fileHeader.isEncrypted() && fileHeader.getEncryptionMethod() == EncryptionMethod.AES)
+        {
+            return JceAesCipher.AUTHENTICATION_CODE_LENGTH;
+        }
+        return 0;
+    }
+}
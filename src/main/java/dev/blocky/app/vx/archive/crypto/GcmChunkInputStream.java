@@ -0,0 +1,136 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.crypto;
+
+import net.lingala.zip4j.exception.ZipException;
+import org.apache.commons.io.IOUtils;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.security.GeneralSecurityException;
+
+import static dev.blocky.app.vx.archive.crypto.GcmChunkOutputStream.*;
+
+public class GcmChunkInputStream extends InputStream
+{
+    private final PushbackInputStream in;
+    private final Cipher cipher;
+    private final SecretKey key;
+    private final byte[] aad;
+    private final byte[] noncePrefix;
+
+    private final byte[] sealed = new byte[CHUNK_SIZE + TAG_LENGTH];
+    private final byte[] buffer = new byte[CHUNK_SIZE];
+
+    private int position;
+    private int limit;
+    private int chunk;
+    private boolean last;
+
+    public GcmChunkInputStream(InputStream in, SecretKey key, byte[] aad) throws IOException
+    {
+        this.in = new PushbackInputStream(in, 1);
+        this.key = key;
+        this.aad = aad;
+        this.noncePrefix = IOUtils.readFully(in, NONCE_PREFIX_LENGTH);
+
+        try
+        {
+            this.cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new ZipException("Unable to initialize AES-GCM cipher", e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        while (position == limit)
+        {
+            if (last)
+            {
+                return -1;
+            }
+
+            open();
+        }
+
+        int count = Math.min(len, limit - position);
+
+        System.arraycopy(buffer, position, b, off, count);
+
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+
+    private void open() throws IOException
+    {
+        int length = IOUtils.read(in, sealed);
+
+        if (length < TAG_LENGTH)
+        {
+            throw new ZipException("Truncated entry chunk", ZipException.Type.CHECKSUM_MISMATCH);
+        }
+
+        int next = in.read();
+
+        if (next != -1)
+        {
+            in.unread(next);
+        }
+
+        last = next == -1;
+
+        try
+        {
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, createNonce(noncePrefix, chunk++, last)));
+            cipher.updateAAD(aad);
+
+            limit = cipher.doFinal(sealed, 0, length, buffer, 0);
+            position = 0;
+        }
+        catch (AEADBadTagException e)
+        {
+            throw new ZipException("Entry authentication failed", ZipException.Type.CHECKSUM_MISMATCH);
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new ZipException("Unable to decrypt entry chunk", e);
+        }
+    }
+}
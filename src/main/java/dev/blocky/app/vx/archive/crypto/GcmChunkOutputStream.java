@@ -0,0 +1,134 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.crypto;
+
+import net.lingala.zip4j.exception.ZipException;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+public class GcmChunkOutputStream extends FilterOutputStream
+{
+    public static final int CHUNK_SIZE = 64 * 1024;
+    public static final int NONCE_PREFIX_LENGTH = 8;
+    public static final int TAG_LENGTH = 16;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private final Cipher cipher;
+    private final SecretKey key;
+    private final byte[] aad;
+    private final byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+
+    private final byte[] buffer = new byte[CHUNK_SIZE];
+    private final byte[] sealed = new byte[CHUNK_SIZE + TAG_LENGTH];
+
+    private int position;
+    private int chunk;
+
+    public GcmChunkOutputStream(OutputStream out, SecretKey key, byte[] aad) throws IOException
+    {
+        super(out);
+
+        this.key = key;
+        this.aad = aad;
+
+        try
+        {
+            this.cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new ZipException("Unable to initialize AES-GCM cipher", e);
+        }
+
+        random.nextBytes(noncePrefix);
+        out.write(noncePrefix);
+    }
+
+    @Override
+    public void write(int b) throws IOException
+    {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException
+    {
+        while (len > 0)
+        {
+            if (position == CHUNK_SIZE)
+            {
+                seal(false);
+            }
+
+            int count = Math.min(len, CHUNK_SIZE - position);
+
+            System.arraycopy(b, off, buffer, position, count);
+
+            position += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        seal(true);
+        out.close();
+    }
+
+    private void seal(boolean last) throws IOException
+    {
+        try
+        {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, createNonce(noncePrefix, chunk++, last)));
+            cipher.updateAAD(aad);
+
+            int length = cipher.doFinal(buffer, 0, position, sealed, 0);
+
+            out.write(sealed, 0, length);
+            position = 0;
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new ZipException("Unable to encrypt entry chunk", e);
+        }
+    }
+
+    static byte[] createNonce(byte[] noncePrefix, int chunk, boolean last)
+    {
+        byte[] nonce = new byte[NONCE_PREFIX_LENGTH + 4];
+        System.arraycopy(noncePrefix, 0, nonce, 0, NONCE_PREFIX_LENGTH);
+
+        int counter = last ? chunk | 0x80000000 : chunk;
+
+        nonce[8] = (byte) (counter >>> 24);
+        nonce[9] = (byte) (counter >>> 16);
+        nonce[10] = (byte) (counter >>> 8);
+        nonce[11] = (byte) counter;
+        return nonce;
+    }
+}
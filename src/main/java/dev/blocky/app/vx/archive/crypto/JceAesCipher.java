@@ -0,0 +1,123 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.crypto;
+
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.enums.AesKeyStrength;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+public abstract class JceAesCipher
+{
+    public static final int PASSWORD_VERIFIER_LENGTH = 2;
+    public static final int AUTHENTICATION_CODE_LENGTH = 10;
+
+    private static final int ITERATIONS = 1000;
+    private static final int BLOCK_SIZE = 16;
+    private static final int KEYSTREAM_SIZE = 64 * BLOCK_SIZE;
+
+    protected final Mac mac;
+    protected final byte[] passwordVerifier;
+
+    private final Cipher cipher;
+
+    private final byte[] counterBlocks = new byte[KEYSTREAM_SIZE];
+    private final byte[] keystream = new byte[KEYSTREAM_SIZE];
+
+    private long counter = 1;
+
+    protected JceAesCipher(char[] password, byte[] salt, AesKeyStrength aesKeyStrength) throws ZipException
+    {
+        int keyLength = aesKeyStrength.getKeyLength();
+
+        try
+        {
+            byte[] derivedKey = deriveKey(password, salt, 2 * keyLength + PASSWORD_VERIFIER_LENGTH);
+
+            cipher = Cipher.getInstance("AES/ECB/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(derivedKey, 0, keyLength, "AES"));
+
+            mac = Mac.getInstance("HmacSHA1");
+            mac.init(new SecretKeySpec(derivedKey, keyLength, keyLength, "HmacSHA1"));
+
+            passwordVerifier = Arrays.copyOfRange(derivedKey, 2 * keyLength, 2 * keyLength + PASSWORD_VERIFIER_LENGTH);
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new ZipException("Unable to initialize AES cipher", e);
+        }
+    }
+
+    public static byte[] deriveKey(char[] password, byte[] salt, int length) throws GeneralSecurityException
+    {
+        SecretKeyFactory keyFactory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1");
+        PBEKeySpec keySpec = new PBEKeySpec(password, salt, ITERATIONS, length * 8);
+
+        try
+        {
+            return keyFactory.generateSecret(keySpec).getEncoded();
+        }
+        finally
+        {
+            keySpec.clearPassword();
+        }
+    }
+
+    protected void applyKeystream(byte[] buffer, int offset, int length) throws ZipException
+    {
+        while (length > 0)
+        {
+            int count = Math.min(length, KEYSTREAM_SIZE);
+            int blocks = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+            for (int i = 0; i < blocks; i++, counter++)
+            {
+                int position = i * BLOCK_SIZE;
+
+                for (int j = 0; j < 8; j++)
+                {
+                    counterBlocks[position + j] = (byte) (counter >>> (8 * j));
+                }
+            }
+
+            try
+            {
+                cipher.update(counterBlocks, 0, blocks * BLOCK_SIZE, keystream, 0);
+            }
+            catch (ShortBufferException e)
+            {
+                throw new ZipException("Unable to create AES keystream", e);
+            }
+
+            for (int i = 0; i < count; i++)
+            {
+                buffer[offset + i] ^= keystream[i];
+            }
+
+            offset += count;
+            length -= count;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.crypto;
+
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.enums.AesKeyStrength;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+public class JceAesDecrypter extends JceAesCipher implements EntryDecrypter
+{
+    public JceAesDecrypter(char[] password, AesKeyStrength aesKeyStrength, byte[] header) throws ZipException
+    {
+        super(password, Arrays.copyOf(header, aesKeyStrength.getSaltLength()), aesKeyStrength);
+
+        byte[] storedVerifier = Arrays.copyOfRange(header, aesKeyStrength.getSaltLength(), header.length);
+
+        if (!MessageDigest.isEqual(passwordVerifier, storedVerifier))
+        {
+            throw new ZipException("Wrong password!", ZipException.Type.WRONG_PASSWORD);
+        }
+    }
+
+    @Override
+    public void decrypt(byte[] buffer, int offset, int length) throws ZipException
+    {
+        mac.update(buffer, offset, length);
+        applyKeystream(buffer, offset, length);
+    }
+
+    @Override
+    public void verifyTrailer(byte[] trailer) throws ZipException
+    {
+        byte[] authenticationCode = Arrays.copyOf(mac.doFinal(), AUTHENTICATION_CODE_LENGTH);
+
+        if (!MessageDigest.isEqual(authenticationCode, trailer))
+        {
+            throw new ZipException("AES authentication code mismatch", ZipException.Type.CHECKSUM_MISMATCH);
+        }
+    }
+}
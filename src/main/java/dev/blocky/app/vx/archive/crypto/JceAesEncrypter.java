@@ -0,0 +1,71 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.crypto;
+
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.enums.AesKeyStrength;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+public class JceAesEncrypter extends JceAesCipher implements EntryEncrypter
+{
+    private static final SecureRandom random = new SecureRandom();
+
+    private final byte[] salt;
+
+    public JceAesEncrypter(char[] password, AesKeyStrength aesKeyStrength) throws ZipException
+    {
+        this(password, generateSalt(aesKeyStrength), aesKeyStrength);
+    }
+
+    private JceAesEncrypter(char[] password, byte[] salt, AesKeyStrength aesKeyStrength) throws ZipException
+    {
+        super(password, salt, aesKeyStrength);
+
+        this.salt = salt;
+    }
+
+    @Override
+    public byte[] getHeader()
+    {
+        byte[] header = Arrays.copyOf(salt, salt.length + PASSWORD_VERIFIER_LENGTH);
+        System.arraycopy(passwordVerifier, 0, header, salt.length, PASSWORD_VERIFIER_LENGTH);
+        return header;
+    }
+
+    @Override
+    public void encrypt(byte[] buffer, int offset, int length) throws ZipException
+    {
+        applyKeystream(buffer, offset, length);
+        mac.update(buffer, offset, length);
+    }
+
+    @Override
+    public byte[] getTrailer()
+    {
+        return Arrays.copyOf(mac.doFinal(), AUTHENTICATION_CODE_LENGTH);
+    }
+
+    private static byte[] generateSalt(AesKeyStrength aesKeyStrength)
+    {
+        byte[] salt = new byte[aesKeyStrength.getSaltLength()];
+        random.nextBytes(salt);
+        return salt;
+    }
+}
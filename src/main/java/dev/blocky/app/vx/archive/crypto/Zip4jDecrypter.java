@@ -0,0 +1,57 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.crypto;
+
+import net.lingala.zip4j.crypto.AESDecrypter;
+import net.lingala.zip4j.crypto.Decrypter;
+import net.lingala.zip4j.exception.ZipException;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+public class Zip4jDecrypter implements EntryDecrypter
+{
+    private final Decrypter decrypter;
+
+    public Zip4jDecrypter(Decrypter decrypter)
+    {
+        this.decrypter = decrypter;
+    }
+
+    @Override
+    public void decrypt(byte[] buffer, int offset, int length) throws ZipException
+    {
+        decrypter.decryptData(buffer, offset, length);
+    }
+
+    @Override
+    public void verifyTrailer(byte[] trailer) throws ZipException
+    {
+        if (!(decrypter instanceof AESDecrypter aesDecrypter))
+        {
+            return;
+        }
+
+        byte[] authenticationCode = Arrays.copyOf(aesDecrypter.getCalculatedAuthenticationBytes(0), JceAesCipher.AUTHENTICATION_CODE_LENGTH);
+
+        if (!MessageDigest.isEqual(authenticationCode, trailer))
+        {
+            throw new ZipException("AES authentication code mismatch", ZipException.Type.CHECKSUM_MISMATCH);
+        }
+    }
+}
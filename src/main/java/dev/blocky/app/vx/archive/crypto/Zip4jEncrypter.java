@@ -0,0 +1,71 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.crypto;
+
+import net.lingala.zip4j.crypto.AESEncrypter;
+import net.lingala.zip4j.crypto.Encrypter;
+import net.lingala.zip4j.crypto.StandardEncrypter;
+import net.lingala.zip4j.exception.ZipException;
+
+import java.util.Arrays;
+
+public class Zip4jEncrypter implements EntryEncrypter
+{
+    private final Encrypter encrypter;
+
+    public Zip4jEncrypter(Encrypter encrypter)
+    {
+        this.encrypter = encrypter;
+    }
+
+    @Override
+    public byte[] getHeader()
+    {
+        if (encrypter instanceof AESEncrypter aesEncrypter)
+        {
+            byte[] salt = aesEncrypter.getSaltBytes();
+            byte[] passwordVerifier = aesEncrypter.getDerivedPasswordVerifier();
+
+            byte[] header = Arrays.copyOf(salt, salt.length + passwordVerifier.length);
+            System.arraycopy(passwordVerifier, 0, header, salt.length, passwordVerifier.length);
+            return header;
+        }
+
+        if (encrypter instanceof StandardEncrypter standardEncrypter)
+        {
+            return standardEncrypter.getHeaderBytes();
+        }
+        return new byte[0];
+    }
+
+    @Override
+    public void encrypt(byte[] buffer, int offset, int length) throws ZipException
+    {
+        encrypter.encryptData(buffer, offset, length);
+    }
+
+    @Override
+    public byte[] getTrailer()
+    {
+        if (encrypter instanceof AESEncrypter aesEncrypter)
+        {
+            return aesEncrypter.getFinalMac();
+        }
+        return new byte[0];
+    }
+}
@@ -0,0 +1,274 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.fs;
+
+import dev.blocky.app.vx.archive.ArchiveReader;
+import dev.blocky.app.vx.archive.EntryCache;
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import dev.blocky.app.vx.codec.PathFilter;
+import dev.blocky.app.vx.codec.PathTrie;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+class ArchiveFileSystem extends FileSystem
+{
+    private final ArchiveFileSystemProvider provider;
+    private final Path archive;
+    private final ArchiveReader archiveReader;
+    private final PathTrie pathTrie;
+    private final EntryCache entryCache;
+    private final long maxCachedEntrySize;
+    private final FileTime archiveModifiedTime;
+
+    private volatile boolean open = true;
+
+    ArchiveFileSystem(ArchiveFileSystemProvider provider, Path archive, char[] password, long cacheSize) throws IOException
+    {
+        this.provider = provider;
+        this.archive = archive;
+        this.entryCache = new EntryCache(cacheSize);
+        this.maxCachedEntrySize = cacheSize / 8;
+        this.archiveModifiedTime = Files.getLastModifiedTime(archive);
+
+        List<FileHeader> fileHeaders;
+
+        try (ZipFile zipFile = new ZipFile(archive.toFile()))
+        {
+            fileHeaders = zipFile.getFileHeaders();
+        }
+
+        DecodedPathIndex pathIndex = new DecodedPathIndex(fileHeaders);
+
+        this.pathTrie = new PathTrie(pathIndex);
+        this.archiveReader = new ArchiveReader(archive.toFile(), password);
+
+        try
+        {
+            archiveReader.setFileHeaders(fileHeaders);
+
+            if (!archiveReader.checkPassword(fileHeaders))
+            {
+                throw new ZipException("Wrong password!", ZipException.Type.WRONG_PASSWORD);
+            }
+        }
+        catch (IOException e)
+        {
+            archiveReader.close();
+            throw e;
+        }
+    }
+
+    Path getArchive()
+    {
+        return archive;
+    }
+
+    PathTrie.Node getNode(Path path) throws IOException
+    {
+        ensureOpen();
+
+        PathTrie.Node node = pathTrie.getRoot();
+
+        for (String name : ((ArchivePath) path.toAbsolutePath().normalize()).getNames())
+        {
+            node = node.getChild(name);
+
+            if (node == null)
+            {
+                throw new NoSuchFileException(path.toString());
+            }
+        }
+        return node;
+    }
+
+    EntryAttributes getAttributes(PathTrie.Node node) throws IOException
+    {
+        FileHeader fileHeader = node.getFileHeader();
+
+        if (fileHeader == null)
+        {
+            return new EntryAttributes(true, 0, archiveModifiedTime);
+        }
+
+        FileTime lastModifiedTime = FileTime.fromMillis(fileHeader.getLastModifiedTimeEpoch());
+
+        if (isDirectory(node))
+        {
+            return new EntryAttributes(true, 0, lastModifiedTime);
+        }
+        return new EntryAttributes(false, archiveReader.resolve(fileHeader).getUncompressedSize(), lastModifiedTime);
+    }
+
+    InputStream openEntry(FileHeader fileHeader) throws IOException
+    {
+        ensureOpen();
+
+        byte[] data = entryCache.get(fileHeader);
+
+        if (data != null)
+        {
+            return new ByteArrayInputStream(data);
+        }
+
+        if (archiveReader.resolve(fileHeader).getUncompressedSize() > maxCachedEntrySize)
+        {
+            return archiveReader.openEntry(fileHeader);
+        }
+
+        try (InputStream in = archiveReader.openEntry(fileHeader))
+        {
+            data = IOUtils.toByteArray(in);
+        }
+
+        entryCache.put(fileHeader, data);
+        return new ByteArrayInputStream(data);
+    }
+
+    static boolean isDirectory(PathTrie.Node node)
+    {
+        return node.getFileHeader() == null || node.getFileHeader().isDirectory() || !node.getChildren().isEmpty();
+    }
+
+    private void ensureOpen()
+    {
+        if (!open)
+        {
+            throw new ClosedFileSystemException();
+        }
+    }
+
+    @Override
+    public FileSystemProvider provider()
+    {
+        return provider;
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (!open)
+        {
+            return;
+        }
+
+        open = false;
+
+        provider.removeFileSystem(archive);
+        entryCache.clear();
+        archiveReader.close();
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return open;
+    }
+
+    @Override
+    public boolean isReadOnly()
+    {
+        return true;
+    }
+
+    @Override
+    public String getSeparator()
+    {
+        return "/";
+    }
+
+    @Override
+    public Iterable<Path> getRootDirectories()
+    {
+        return List.of(new ArchivePath(this, "/"));
+    }
+
+    @Override
+    public Iterable<FileStore> getFileStores()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Set<String> supportedFileAttributeViews()
+    {
+        return Set.of("basic");
+    }
+
+    @Override
+    public Path getPath(String first, String... more)
+    {
+        if (more.length == 0)
+        {
+            return new ArchivePath(this, first);
+        }
+        return new ArchivePath(this, first + "/" + String.join("/", more));
+    }
+
+    @Override
+    public PathMatcher getPathMatcher(String syntaxAndPattern)
+    {
+        int separator = syntaxAndPattern.indexOf(':');
+
+        if (separator <= 0)
+        {
+            throw new IllegalArgumentException("Pattern must have the form syntax:pattern");
+        }
+
+        String syntax = syntaxAndPattern.substring(0, separator);
+
+        if (!syntax.equals("glob") && !syntax.equals("regex"))
+        {
+            throw new UnsupportedOperationException("Syntax '" + syntax + "' is not supported");
+        }
+
+        PathFilter pathFilter = new PathFilter(List.of(syntaxAndPattern), Collections.emptyList());
+
+        return path ->
+        {
+            synchronized (pathFilter)
+            {
+                return pathFilter.matches(path.toString());
+            }
+        };
+    }
+
+    @Override
+    public UserPrincipalLookupService getUserPrincipalLookupService()
+    {
+        throw new UnsupportedOperationException("Archive file systems have no user principals");
+    }
+
+    @Override
+    public WatchService newWatchService()
+    {
+        throw new UnsupportedOperationException("Archive file systems cannot be watched");
+    }
+}
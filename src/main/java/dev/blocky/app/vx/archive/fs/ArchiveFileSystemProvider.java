@@ -0,0 +1,384 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.fs;
+
+import dev.blocky.app.vx.codec.PathTrie;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.*;
+
+public class ArchiveFileSystemProvider extends FileSystemProvider
+{
+    public static final String SCHEME = "vxar";
+    public static final String PASSWORD = "password";
+    public static final String CACHE_SIZE = "cacheSize";
+
+    private static final long DEFAULT_CACHE_SIZE = 64L * 1024 * 1024;
+
+    private final HashMap<Path, ArchiveFileSystem> fileSystems = new HashMap<>();
+
+    @Override
+    public String getScheme()
+    {
+        return SCHEME;
+    }
+
+    @Override
+    public FileSystem newFileSystem(URI uri, Map<String, ?> env) throws IOException
+    {
+        return newFileSystem(getArchive(uri), env);
+    }
+
+    @Override
+    public FileSystem newFileSystem(Path path, Map<String, ?> env) throws IOException
+    {
+        if (path.getFileSystem() != FileSystems.getDefault() || !FilenameUtils.getExtension(path.toString()).equalsIgnoreCase(SCHEME))
+        {
+            throw new UnsupportedOperationException("Only .vxar files on the default file system are supported");
+        }
+
+        Path archive = path.toRealPath();
+
+        synchronized (fileSystems)
+        {
+            if (fileSystems.containsKey(archive))
+            {
+                throw new FileSystemAlreadyExistsException(archive.toString());
+            }
+
+            ArchiveFileSystem fileSystem = new ArchiveFileSystem(this, archive, getPassword(env), getCacheSize(env));
+            fileSystems.put(archive, fileSystem);
+            return fileSystem;
+        }
+    }
+
+    @Override
+    public FileSystem getFileSystem(URI uri)
+    {
+        Path archive;
+
+        try
+        {
+            archive = getArchive(uri).toRealPath();
+        }
+        catch (IOException e)
+        {
+            throw new FileSystemNotFoundException(uri.toString());
+        }
+
+        synchronized (fileSystems)
+        {
+            ArchiveFileSystem fileSystem = fileSystems.get(archive);
+
+            if (fileSystem == null)
+            {
+                throw new FileSystemNotFoundException(uri.toString());
+            }
+            return fileSystem;
+        }
+    }
+
+    @Override
+    public Path getPath(URI uri)
+    {
+        String schemeSpecificPart = uri.getSchemeSpecificPart();
+        int separator = schemeSpecificPart.indexOf("!/");
+
+        if (separator < 0)
+        {
+            throw new IllegalArgumentException("URI " + uri + " does not contain an entry path");
+        }
+        return getFileSystem(uri).getPath(schemeSpecificPart.substring(separator + 1));
+    }
+
+    void removeFileSystem(Path archive)
+    {
+        synchronized (fileSystems)
+        {
+            fileSystems.remove(archive);
+        }
+    }
+
+    @Override
+    public SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options, FileAttribute<?>... attrs) throws IOException
+    {
+        checkReadOnly(options);
+
+        ArchiveFileSystem fileSystem = checkPath(path).getFileSystem();
+        PathTrie.Node node = getFileNode(path);
+
+        return new EntryChannel(fileSystem, node.getFileHeader(), fileSystem.getAttributes(node).size());
+    }
+
+    @Override
+    public InputStream newInputStream(Path path, OpenOption... options) throws IOException
+    {
+        checkReadOnly(Set.of(options));
+        return checkPath(path).getFileSystem().openEntry(getFileNode(path).getFileHeader());
+    }
+
+    @Override
+    public DirectoryStream<Path> newDirectoryStream(Path dir, DirectoryStream.Filter<? super Path> filter) throws IOException
+    {
+        PathTrie.Node node = checkPath(dir).getFileSystem().getNode(dir);
+
+        if (!ArchiveFileSystem.isDirectory(node))
+        {
+            throw new NotDirectoryException(dir.toString());
+        }
+
+        ArrayList<Path> entries = new ArrayList<>(node.getChildren().size());
+
+        for (PathTrie.Node child : node.getChildren())
+        {
+            Path entry = dir.resolve(child.getName());
+
+            if (filter == null || filter.accept(entry))
+            {
+                entries.add(entry);
+            }
+        }
+
+        return new DirectoryStream<>()
+        {
+            private boolean iterated;
+
+            @Override
+            public Iterator<Path> iterator()
+            {
+                if (iterated)
+                {
+                    throw new IllegalStateException("Directory stream can only be iterated once");
+                }
+
+                iterated = true;
+                return entries.iterator();
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+    }
+
+    @Override
+    public void createDirectory(Path dir, FileAttribute<?>... attrs)
+    {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    @Override
+    public void delete(Path path)
+    {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    @Override
+    public void copy(Path source, Path target, CopyOption... options)
+    {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    @Override
+    public void move(Path source, Path target, CopyOption... options)
+    {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    @Override
+    public boolean isSameFile(Path path, Path path2) throws IOException
+    {
+        if (path.equals(path2))
+        {
+            return true;
+        }
+
+        if (!(path2 instanceof ArchivePath) || path.getFileSystem() != path2.getFileSystem())
+        {
+            return false;
+        }
+        return path.toRealPath().equals(path2.toRealPath());
+    }
+
+    @Override
+    public boolean isHidden(Path path)
+    {
+        return false;
+    }
+
+    @Override
+    public FileStore getFileStore(Path path)
+    {
+        throw new UnsupportedOperationException("Archive file systems have no file stores");
+    }
+
+    @Override
+    public void checkAccess(Path path, AccessMode... modes) throws IOException
+    {
+        checkPath(path).getFileSystem().getNode(path);
+
+        for (AccessMode mode : modes)
+        {
+            if (mode != AccessMode.READ)
+            {
+                throw new AccessDeniedException(path.toString(), null, "Archive file systems are read-only");
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V extends FileAttributeView> V getFileAttributeView(Path path, Class<V> type, LinkOption... options)
+    {
+        if (type != BasicFileAttributeView.class)
+        {
+            return null;
+        }
+
+        ArchivePath archivePath = checkPath(path);
+
+        return (V) new BasicFileAttributeView()
+        {
+            @Override
+            public String name()
+            {
+                return "basic";
+            }
+
+            @Override
+            public BasicFileAttributes readAttributes() throws IOException
+            {
+                ArchiveFileSystem fileSystem = archivePath.getFileSystem();
+                return fileSystem.getAttributes(fileSystem.getNode(archivePath));
+            }
+
+            @Override
+            public void setTimes(FileTime lastModifiedTime, FileTime lastAccessTime, FileTime createTime)
+            {
+                throw new ReadOnlyFileSystemException();
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A extends BasicFileAttributes> A readAttributes(Path path, Class<A> type, LinkOption... options) throws IOException
+    {
+        if (type != BasicFileAttributes.class)
+        {
+            throw new UnsupportedOperationException("Attributes of type " + type.getName() + " are not supported");
+        }
+
+        ArchiveFileSystem fileSystem = checkPath(path).getFileSystem();
+        return (A) fileSystem.getAttributes(fileSystem.getNode(path));
+    }
+
+    @Override
+    public Map<String, Object> readAttributes(Path path, String attributes, LinkOption... options) throws IOException
+    {
+        int separator = attributes.indexOf(':');
+
+        if (separator >= 0 && !attributes.substring(0, separator).equals("basic"))
+        {
+            throw new UnsupportedOperationException("View '" + attributes.substring(0, separator) + "' is not supported");
+        }
+
+        ArchiveFileSystem fileSystem = checkPath(path).getFileSystem();
+        return fileSystem.getAttributes(fileSystem.getNode(path)).toMap(attributes.substring(separator + 1));
+    }
+
+    @Override
+    public void setAttribute(Path path, String attribute, Object value, LinkOption... options)
+    {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    private PathTrie.Node getFileNode(Path path) throws IOException
+    {
+        PathTrie.Node node = checkPath(path).getFileSystem().getNode(path);
+
+        if (ArchiveFileSystem.isDirectory(node))
+        {
+            throw new FileSystemException(path.toString(), null, "Is a directory");
+        }
+        return node;
+    }
+
+    private static ArchivePath checkPath(Path path)
+    {
+        if (!(path instanceof ArchivePath archivePath))
+        {
+            throw new ProviderMismatchException();
+        }
+        return archivePath;
+    }
+
+    private static void checkReadOnly(Set<? extends OpenOption> options)
+    {
+        for (OpenOption option : options)
+        {
+            if (option == StandardOpenOption.WRITE || option == StandardOpenOption.APPEND || option == StandardOpenOption.CREATE
+                    || option == StandardOpenOption.CREATE_NEW || option == StandardOpenOption.DELETE_ON_CLOSE || option == StandardOpenOption.TRUNCATE_EXISTING)
+            {
+                throw new ReadOnlyFileSystemException();
+            }
+        }
+    }
+
+    private static Path getArchive(URI uri)
+    {
+        if (!SCHEME.equalsIgnoreCase(uri.getScheme()))
+        {
+            throw new IllegalArgumentException("URI scheme is not '" + SCHEME + "'");
+        }
+
+        String schemeSpecificPart = uri.getRawSchemeSpecificPart();
+        int separator = schemeSpecificPart.indexOf("!/");
+
+        return Path.of(URI.create(separator < 0 ? schemeSpecificPart : schemeSpecificPart.substring(0, separator)));
+    }
+
+    private static char[] getPassword(Map<String, ?> env)
+    {
+        Object password = env.get(PASSWORD);
+
+        if (password instanceof char[] chars)
+        {
+            return chars;
+        }
+        return password == null ? new char[0] : password.toString().toCharArray();
+    }
+
+    private static long getCacheSize(Map<String, ?> env)
+    {
+        Object cacheSize = env.get(CACHE_SIZE);
+        return cacheSize == null ? DEFAULT_CACHE_SIZE : Long.parseLong(cacheSize.toString());
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.fs;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class ArchivePath implements Path
+{
+    private final ArchiveFileSystem fileSystem;
+    private final String path;
+    private final String[] names;
+
+    ArchivePath(ArchiveFileSystem fileSystem, String path)
+    {
+        this.fileSystem = fileSystem;
+        this.path = normalizeSeparators(path);
+        this.names = this.path.isEmpty() || this.path.equals("/") ? new String[0] : (isAbsolute() ? this.path.substring(1) : this.path).split("/");
+    }
+
+    String[] getNames()
+    {
+        return names;
+    }
+
+    @Override
+    public ArchiveFileSystem getFileSystem()
+    {
+        return fileSystem;
+    }
+
+    @Override
+    public boolean isAbsolute()
+    {
+        return path.startsWith("/");
+    }
+
+    @Override
+    public Path getRoot()
+    {
+        return isAbsolute() ? new ArchivePath(fileSystem, "/") : null;
+    }
+
+    @Override
+    public Path getFileName()
+    {
+        if (names.length == 0)
+        {
+            return path.isEmpty() ? this : null;
+        }
+        return new ArchivePath(fileSystem, names[names.length - 1]);
+    }
+
+    @Override
+    public Path getParent()
+    {
+        if (names.length == 0 || names.length == 1 && !isAbsolute())
+        {
+            return null;
+        }
+        return new ArchivePath(fileSystem, join(isAbsolute(), names, 0, names.length - 1));
+    }
+
+    @Override
+    public int getNameCount()
+    {
+        return names.length;
+    }
+
+    @Override
+    public Path getName(int index)
+    {
+        return subpath(index, index + 1);
+    }
+
+    @Override
+    public Path subpath(int beginIndex, int endIndex)
+    {
+        if (beginIndex < 0 || endIndex > names.length || beginIndex >= endIndex)
+        {
+            throw new IllegalArgumentException("Invalid subpath range " + beginIndex + ".." + endIndex + " for " + path);
+        }
+        return new ArchivePath(fileSystem, join(false, names, beginIndex, endIndex));
+    }
+
+    @Override
+    public boolean startsWith(Path other)
+    {
+        if (!(other instanceof ArchivePath otherPath) || otherPath.fileSystem != fileSystem || otherPath.isAbsolute() != isAbsolute() || otherPath.names.length > names.length)
+        {
+            return false;
+        }
+        return Arrays.equals(names, 0, otherPath.names.length, otherPath.names, 0, otherPath.names.length);
+    }
+
+    @Override
+    public boolean endsWith(Path other)
+    {
+        if (!(other instanceof ArchivePath otherPath) || otherPath.fileSystem != fileSystem || otherPath.names.length > names.length)
+        {
+            return false;
+        }
+
+        if (otherPath.isAbsolute())
+        {
+            return equals(otherPath);
+        }
+        return Arrays.equals(names, names.length - otherPath.names.length, names.length, otherPath.names, 0, otherPath.names.length);
+    }
+
+    @Override
+    public Path normalize()
+    {
+        ArrayList<String> normalized = new ArrayList<>(names.length);
+
+        for (String name : names)
+        {
+            if (name.equals("."))
+            {
+                continue;
+            }
+
+            if (name.equals("..") && !normalized.isEmpty() && !normalized.get(normalized.size() - 1).equals(".."))
+            {
+                normalized.remove(normalized.size() - 1);
+                continue;
+            }
+
+            if (name.equals("..") && isAbsolute())
+            {
+                continue;
+            }
+
+            normalized.add(name);
+        }
+        return new ArchivePath(fileSystem, join(isAbsolute(), normalized.toArray(new String[0]), 0, normalized.size()));
+    }
+
+    @Override
+    public Path resolve(Path other)
+    {
+        ArchivePath otherPath = checkPath(other);
+
+        if (otherPath.isAbsolute())
+        {
+            return otherPath;
+        }
+
+        if (otherPath.path.isEmpty())
+        {
+            return this;
+        }
+        return new ArchivePath(fileSystem, path.isEmpty() ? otherPath.path : path + "/" + otherPath.path);
+    }
+
+    @Override
+    public Path relativize(Path other)
+    {
+        ArchivePath otherPath = checkPath(other);
+
+        if (otherPath.isAbsolute() != isAbsolute())
+        {
+            throw new IllegalArgumentException("Cannot relativize paths of different types");
+        }
+
+        String[] from = ((ArchivePath) normalize()).names;
+        String[] to = ((ArchivePath) otherPath.normalize()).names;
+
+        int common = 0;
+
+        while (common < from.length && common < to.length && from[common].equals(to[common]))
+        {
+            common++;
+        }
+
+        ArrayList<String> relative = new ArrayList<>();
+
+        for (int i = common; i < from.length; i++)
+        {
+            relative.add("..");
+        }
+
+        relative.addAll(Arrays.asList(to).subList(common, to.length));
+        return new ArchivePath(fileSystem, String.join("/", relative));
+    }
+
+    @Override
+    public URI toUri()
+    {
+        try
+        {
+            String entryPath = new URI(null, null, ((ArchivePath) toAbsolutePath()).path, null).getRawPath();
+            return URI.create(ArchiveFileSystemProvider.SCHEME + ":" + fileSystem.getArchive().toUri() + "!" + entryPath);
+        }
+        catch (URISyntaxException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Path toAbsolutePath()
+    {
+        return isAbsolute() ? this : new ArchivePath(fileSystem, "/" + path);
+    }
+
+    @Override
+    public Path toRealPath(LinkOption... options) throws IOException
+    {
+        Path realPath = toAbsolutePath().normalize();
+        fileSystem.provider().checkAccess(realPath);
+        return realPath;
+    }
+
+    @Override
+    public WatchKey register(WatchService watcher, WatchEvent.Kind<?>[] events, WatchEvent.Modifier... modifiers)
+    {
+        throw new UnsupportedOperationException("Archive file systems cannot be watched");
+    }
+
+    @Override
+    public int compareTo(Path other)
+    {
+        return path.compareTo(checkPath(other).path);
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        return other instanceof ArchivePath otherPath && otherPath.fileSystem == fileSystem && otherPath.path.equals(path);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return path;
+    }
+
+    private ArchivePath checkPath(Path other)
+    {
+        if (!(other instanceof ArchivePath otherPath) || otherPath.fileSystem != fileSystem)
+        {
+            throw new ProviderMismatchException();
+        }
+        return otherPath;
+    }
+
+    private static String join(boolean absolute, String[] names, int from, int to)
+    {
+        String joined = String.join("/", List.of(names).subList(from, to));
+        return absolute ? "/" + joined : joined;
+    }
+
+    private static String normalizeSeparators(String path)
+    {
+        StringBuilder normalized = new StringBuilder(path.length());
+
+        for (int i = 0; i < path.length(); i++)
+        {
+            char c = path.charAt(i);
+
+            if (c == '/' && (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) == '/'))
+            {
+                continue;
+            }
+            normalized.append(c);
+        }
+
+        if (normalized.length() > 1 && normalized.charAt(normalized.length() - 1) == '/')
+        {
+            normalized.setLength(normalized.length() - 1);
+        }
+        return normalized.toString();
+    }
+}
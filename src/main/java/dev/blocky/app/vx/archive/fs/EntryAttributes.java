@@ -0,0 +1,122 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.fs;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+record EntryAttributes(boolean directory, long size, FileTime lastModifiedTime) implements BasicFileAttributes
+{
+    Map<String, Object> toMap(String attributes)
+    {
+        HashMap<String, Object> values = new HashMap<>();
+
+        for (String attribute : attributes.split(","))
+        {
+            if (attribute.equals("*") || attribute.equals("size"))
+            {
+                values.put("size", size);
+            }
+
+            if (attribute.equals("*") || attribute.equals("lastModifiedTime"))
+            {
+                values.put("lastModifiedTime", lastModifiedTime);
+            }
+
+            if (attribute.equals("*") || attribute.equals("lastAccessTime"))
+            {
+                values.put("lastAccessTime", lastModifiedTime);
+            }
+
+            if (attribute.equals("*") || attribute.equals("creationTime"))
+            {
+                values.put("creationTime", lastModifiedTime);
+            }
+
+            if (attribute.equals("*") || attribute.equals("isRegularFile"))
+            {
+                values.put("isRegularFile", !directory);
+            }
+
+            if (attribute.equals("*") || attribute.equals("isDirectory"))
+            {
+                values.put("isDirectory", directory);
+            }
+
+            if (attribute.equals("*") || attribute.equals("isSymbolicLink"))
+            {
+                values.put("isSymbolicLink", false);
+            }
+
+            if (attribute.equals("*") || attribute.equals("isOther"))
+            {
+                values.put("isOther", false);
+            }
+
+            if (attribute.equals("*") || attribute.equals("fileKey"))
+            {
+                values.put("fileKey", null);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public FileTime lastAccessTime()
+    {
+        return lastModifiedTime;
+    }
+
+    @Override
+    public FileTime creationTime()
+    {
+        return lastModifiedTime;
+    }
+
+    @Override
+    public boolean isRegularFile()
+    {
+        return !directory;
+    }
+
+    @Override
+    public boolean isDirectory()
+    {
+        return directory;
+    }
+
+    @Override
+    public boolean isSymbolicLink()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean isOther()
+    {
+        return false;
+    }
+
+    @Override
+    public Object fileKey()
+    {
+        return null;
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.fs;
+
+import net.lingala.zip4j.model.FileHeader;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+class EntryChannel implements SeekableByteChannel
+{
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ArchiveFileSystem fileSystem;
+    private final FileHeader fileHeader;
+    private final long size;
+
+    private InputStream in;
+    private long position;
+    private long streamPosition;
+    private boolean open = true;
+
+    EntryChannel(ArchiveFileSystem fileSystem, FileHeader fileHeader, long size)
+    {
+        this.fileSystem = fileSystem;
+        this.fileHeader = fileHeader;
+        this.size = size;
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer dst) throws IOException
+    {
+        ensureOpen();
+
+        if (position >= size)
+        {
+            return -1;
+        }
+
+        if (in == null || streamPosition > position)
+        {
+            IOUtils.close(in);
+
+            in = fileSystem.openEntry(fileHeader);
+            streamPosition = 0;
+        }
+
+        IOUtils.skipFully(in, position - streamPosition);
+        streamPosition = position;
+
+        int read;
+
+        if (dst.hasArray())
+        {
+            read = in.read(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+
+            if (read > 0)
+            {
+                dst.position(dst.position() + read);
+            }
+        }
+        else
+        {
+            byte[] buffer = new byte[Math.min(dst.remaining(), BUFFER_SIZE)];
+            read = in.read(buffer);
+
+            if (read > 0)
+            {
+                dst.put(buffer, 0, read);
+            }
+        }
+
+        if (read > 0)
+        {
+            position += read;
+            streamPosition += read;
+        }
+        return read;
+    }
+
+    @Override
+    public int write(ByteBuffer src)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized long position() throws IOException
+    {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public synchronized SeekableByteChannel position(long newPosition) throws IOException
+    {
+        ensureOpen();
+
+        if (newPosition < 0)
+        {
+            throw new IllegalArgumentException("Negative position " + newPosition);
+        }
+
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public synchronized long size() throws IOException
+    {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized boolean isOpen()
+    {
+        return open;
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        open = false;
+        IOUtils.close(in);
+    }
+
+    private void ensureOpen() throws ClosedChannelException
+    {
+        if (!open)
+        {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.index;
+
+import dev.blocky.app.vx.archive.crypto.ArchiveKey;
+import dev.blocky.app.vx.archive.crypto.GcmChunkInputStream;
+import dev.blocky.app.vx.archive.crypto.GcmChunkOutputStream;
+import net.lingala.zip4j.exception.ZipException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+public class ContentIndex
+{
+    public static final String EXTENSION = ".vxidx";
+
+    private static final String MAGIC = "VXIDX/1";
+    private static final byte[] AAD = MAGIC.getBytes(StandardCharsets.UTF_8);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int[] ordinals;
+    private final String[] paths;
+    private final HashMap<String, byte[]> postings;
+
+    private ContentIndex(int[] ordinals, String[] paths, HashMap<String, byte[]> postings)
+    {
+        this.ordinals = ordinals;
+        this.paths = paths;
+        this.postings = postings;
+    }
+
+    public static File getIndexFile(File archive)
+    {
+        return new File(archive.getParentFile(), archive.getName() + EXTENSION);
+    }
+
+    public static ContentIndex load(File archive, char[] password) throws IOException
+    {
+        File indexFile = getIndexFile(archive);
+
+        if (!indexFile.isFile())
+        {
+            throw new ZipException("'" + archive.getName() + "' has not been indexed yet");
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile), BUFFER_SIZE)))
+        {
+            if (!MAGIC.equals(in.readUTF()))
+            {
+                throw new ZipException("'" + indexFile.getName() + "' is not a valid content index");
+            }
+
+            String marker = in.readUTF();
+
+            if (!ArchiveKey.isMarker(marker))
+            {
+                throw new ZipException("'" + indexFile.getName() + "' is not a valid content index");
+            }
+
+            ArchiveKey archiveKey = ArchiveKey.fromMarker(marker, password);
+
+            DataInputStream data = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new GcmChunkInputStream(in, archiveKey.getKey(), AAD)), BUFFER_SIZE));
+
+            if (data.readLong() != archive.length() || data.readLong() != archive.lastModified())
+            {
+                throw new ZipException("The content index of '" + archive.getName() + "' is out of date");
+            }
+
+            int entryCount = data.readInt();
+
+            int[] ordinals = new int[entryCount];
+            String[] paths = new String[entryCount];
+
+            for (int i = 0; i < entryCount; i++)
+            {
+                ordinals[i] = data.readInt();
+                paths[i] = data.readUTF();
+            }
+
+            int termCount = data.readInt();
+
+            HashMap<String, byte[]> postings = new HashMap<>(termCount * 4 / 3 + 1);
+
+            for (int i = 0; i < termCount; i++)
+            {
+                String term = data.readUTF();
+                byte[] posting = new byte[data.readInt()];
+
+                data.readFully(posting);
+                postings.put(term, posting);
+            }
+            return new ContentIndex(ordinals, paths, postings);
+        }
+    }
+
+    static void write(File archive, char[] password, long archiveSize, long archiveModified, List<Integer> ordinals, List<String> paths, Map<String, List<ContentIndexer.Posting>> postings) throws IOException
+    {
+        File indexFile = getIndexFile(archive);
+        File tempFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+
+        ArchiveKey archiveKey = ArchiveKey.generate(password);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE)))
+        {
+            out.writeUTF(MAGIC);
+            out.writeUTF(archiveKey.toMarker());
+
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(new GcmChunkOutputStream(out, archiveKey.getKey(), AAD)), BUFFER_SIZE));
+
+            data.writeLong(archiveSize);
+            data.writeLong(archiveModified);
+            data.writeInt(ordinals.size());
+
+            for (int i = 0; i < ordinals.size(); i++)
+            {
+                data.writeInt(ordinals.get(i));
+                data.writeUTF(paths.get(i));
+            }
+
+            ArrayList<String> terms = new ArrayList<>(postings.keySet());
+            Collections.sort(terms);
+
+            data.writeInt(terms.size());
+
+            ByteArrayOutputStream posting = new ByteArrayOutputStream();
+
+            for (String term : terms)
+            {
+                List<ContentIndexer.Posting> entries = postings.get(term);
+                entries.sort(Comparator.comparingInt(ContentIndexer.Posting::entry));
+
+                posting.reset();
+                writeVarLong(posting, entries.size());
+
+                int previousEntry = 0;
+
+                for (ContentIndexer.Posting entry : entries)
+                {
+                    writeVarLong(posting, entry.entry() - previousEntry);
+                    writeVarLong(posting, entry.offsets().length);
+
+                    long previousOffset = 0;
+
+                    for (long offset : entry.offsets())
+                    {
+                        writeVarLong(posting, offset - previousOffset);
+                        previousOffset = offset;
+                    }
+                    previousEntry = entry.entry();
+                }
+
+                data.writeUTF(term);
+                data.writeInt(posting.size());
+                posting.writeTo(data);
+            }
+
+            data.close();
+        }
+        catch (IOException e)
+        {
+            Files.deleteIfExists(tempFile.toPath());
+            throw e;
+        }
+
+        Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public int getEntryCount()
+    {
+        return paths.length;
+    }
+
+    public int getTermCount()
+    {
+        return postings.size();
+    }
+
+    public List<Match> search(String query)
+    {
+        LinkedHashSet<String> terms = new LinkedHashSet<>();
+
+        byte[] bytes = query.getBytes(StandardCharsets.UTF_8);
+
+        Tokenizer tokenizer = new Tokenizer((token, offset) -> terms.add(token), false);
+        tokenizer.update(bytes, 0, bytes.length);
+        tokenizer.finish();
+
+        if (terms.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        Map<Integer, Map<String, long[]>> matches = null;
+
+        for (String term : terms)
+        {
+            byte[] posting = postings.get(term);
+
+            if (posting == null)
+            {
+                return Collections.emptyList();
+            }
+
+            Map<Integer, long[]> entries = decode(posting);
+
+            if (matches == null)
+            {
+                matches = new LinkedHashMap<>(entries.size() * 4 / 3 + 1);
+
+                for (Map.Entry<Integer, long[]> entry : entries.entrySet())
+                {
+                    LinkedHashMap<String, long[]> offsets = new LinkedHashMap<>();
+                    offsets.put(term, entry.getValue());
+
+                    matches.put(entry.getKey(), offsets);
+                }
+                continue;
+            }
+
+            matches.keySet().retainAll(entries.keySet());
+
+            if (matches.isEmpty())
+            {
+                return Collections.emptyList();
+            }
+
+            for (Map.Entry<Integer, Map<String, long[]>> match : matches.entrySet())
+            {
+                match.getValue().put(term, entries.get(match.getKey()));
+            }
+        }
+
+        ArrayList<Match> result = new ArrayList<>(matches.size());
+
+        for (Map.Entry<Integer, Map<String, long[]>> match : matches.entrySet())
+        {
+            int entry = match.getKey();
+            result.add(new Match(paths[Arrays.binarySearch(ordinals, entry)], entry, match.getValue()));
+        }
+        return result;
+    }
+
+    private static Map<Integer, long[]> decode(byte[] posting)
+    {
+        int[] position = {0};
+
+        int count = (int) readVarLong(posting, position);
+
+        LinkedHashMap<Integer, long[]> entries = new LinkedHashMap<>(count * 4 / 3 + 1);
+
+        int entry = 0;
+
+        for (int i = 0; i < count; i++)
+        {
+            entry += (int) readVarLong(posting, position);
+
+            long[] offsets = new long[(int) readVarLong(posting, position)];
+            long offset = 0;
+
+            for (int j = 0; j < offsets.length; j++)
+            {
+                offset += readVarLong(posting, position);
+                offsets[j] = offset;
+            }
+            entries.put(entry, offsets);
+        }
+        return entries;
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] data, int[] position)
+    {
+        long value = 0;
+
+        for (int shift = 0; ; shift += 7)
+        {
+            byte b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+
+            if (b >= 0)
+            {
+                return value;
+            }
+        }
+    }
+
+    public record Match(String path, int entry, Map<String, long[]> offsets)
+    {
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.index;
+
+import dev.blocky.app.vx.archive.ArchiveExtractor;
+import dev.blocky.app.vx.archive.ArchiveReader;
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import net.lingala.zip4j.model.FileHeader;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+public class ContentIndexer
+{
+    public static final Set<String> TEXT_EXTENSIONS = Set.of
+            (
+                    "txt", "md", "log", "csv", "tsv", "json", "xml", "yml", "yaml", "toml", "ini", "cfg", "conf", "properties",
+                    "html", "htm", "css", "js", "ts", "java", "kt", "gradle", "c", "h", "cpp", "hpp", "cs", "py", "rb", "go", "rs",
+                    "sql", "sh", "bat", "cmd", "ps1"
+            );
+
+    private static final int MAX_OFFSETS = 16;
+
+    private final ArchiveReader archiveReader;
+    private final DecodedPathIndex pathIndex;
+
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    public ContentIndexer(ArchiveReader archiveReader, DecodedPathIndex pathIndex)
+    {
+        this.archiveReader = archiveReader;
+        this.pathIndex = pathIndex;
+    }
+
+    public void setWorkers(int workers)
+    {
+        this.workers = Math.max(1, workers);
+    }
+
+    public static boolean isTextLike(String name)
+    {
+        String extension = FilenameUtils.getExtension(name).toLowerCase(Locale.ROOT);
+        return extension.isEmpty() || TEXT_EXTENSIONS.contains(extension) || extension.chars().allMatch(Character::isDigit);
+    }
+
+    public int writeIndex(File archive, char[] password) throws IOException
+    {
+        long archiveSize = archive.length();
+        long archiveModified = archive.lastModified();
+
+        List<FileHeader> fileHeaders = pathIndex.getFileHeaders();
+
+        IdentityHashMap<FileHeader, Integer> entries = new IdentityHashMap<>();
+
+        for (int i = 0; i < fileHeaders.size(); i++)
+        {
+            FileHeader fileHeader = fileHeaders.get(i);
+
+            if (!fileHeader.isDirectory() && isTextLike(pathIndex.getName(fileHeader)))
+            {
+                entries.put(fileHeader, i);
+            }
+        }
+
+        boolean[] indexed = new boolean[fileHeaders.size()];
+        HashMap<String, List<Posting>> postings = new HashMap<>();
+
+        new ArchiveExtractor(archiveReader, workers).read(entries.keySet(), (fileHeader, in) ->
+        {
+            HashMap<String, Occurrences> terms = new HashMap<>();
+
+            if (!Tokenizer.tokenize(in, (token, offset) -> terms.computeIfAbsent(token, key -> new Occurrences()).add(offset)))
+            {
+                return;
+            }
+
+            int entry = entries.get(fileHeader);
+            indexed[entry] = true;
+
+            synchronized (postings)
+            {
+                for (Map.Entry<String, Occurrences> term : terms.entrySet())
+                {
+                    postings.computeIfAbsent(term.getKey(), key -> new ArrayList<>()).add(new Posting(entry, term.getValue().toArray()));
+                }
+            }
+        });
+
+        ArrayList<Integer> ordinals = new ArrayList<>();
+        ArrayList<String> paths = new ArrayList<>();
+
+        for (int i = 0; i < indexed.length; i++)
+        {
+            if (indexed[i])
+            {
+                ordinals.add(i);
+                paths.add(pathIndex.getPath(fileHeaders.get(i)));
+            }
+        }
+
+        ContentIndex.write(archive, password, archiveSize, archiveModified, ordinals, paths, postings);
+        return ordinals.size();
+    }
+
+    record Posting(int entry, long[] offsets)
+    {
+    }
+
+    private static class Occurrences
+    {
+        private long[] offsets = new long[2];
+        private int count;
+
+        private void add(long offset)
+        {
+            if (count == MAX_OFFSETS)
+            {
+                return;
+            }
+
+            if (count == offsets.length)
+            {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[count++] = offset;
+        }
+
+        private long[] toArray()
+        {
+            return Arrays.copyOf(offsets, count);
+        }
+    }
+}
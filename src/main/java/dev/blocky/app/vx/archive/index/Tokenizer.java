@@ -0,0 +1,114 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+class Tokenizer
+{
+    static final int MIN_TOKEN_LENGTH = 2;
+    static final int MAX_TOKEN_LENGTH = 64;
+
+    private static final int SNIFF_LENGTH = 8192;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TokenSink sink;
+    private final boolean sniff;
+    private final byte[] token = new byte[MAX_TOKEN_LENGTH];
+
+    private int length;
+    private boolean overlong;
+    private long position;
+
+    Tokenizer(TokenSink sink, boolean sniff)
+    {
+        this.sink = sink;
+        this.sniff = sniff;
+    }
+
+    static boolean tokenize(InputStream in, TokenSink sink) throws IOException
+    {
+        Tokenizer tokenizer = new Tokenizer(sink, true);
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        int read;
+
+        while ((read = in.read(buffer)) > 0)
+        {
+            if (!tokenizer.update(buffer, 0, read))
+            {
+                return false;
+            }
+        }
+
+        tokenizer.finish();
+        return true;
+    }
+
+    boolean update(byte[] buffer, int offset, int count)
+    {
+        for (int i = offset; i < offset + count; i++, position++)
+        {
+            int b = buffer[i];
+
+            if (sniff && b == 0 && position < SNIFF_LENGTH)
+            {
+                return false;
+            }
+
+            if (isTokenByte(b))
+            {
+                if (length == MAX_TOKEN_LENGTH)
+                {
+                    overlong = true;
+                    continue;
+                }
+
+                token[length++] = (byte) (b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b);
+                continue;
+            }
+
+            finish();
+        }
+        return true;
+    }
+
+    void finish()
+    {
+        if (!overlong && length >= MIN_TOKEN_LENGTH)
+        {
+            sink.accept(new String(token, 0, length, StandardCharsets.UTF_8), position - length);
+        }
+
+        length = 0;
+        overlong = false;
+    }
+
+    private static boolean isTokenByte(int b)
+    {
+        return b < 0 || (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || b == '_';
+    }
+
+    interface TokenSink
+    {
+        void accept(String token, long offset);
+    }
+}
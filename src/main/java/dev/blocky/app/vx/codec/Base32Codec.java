@@ -17,106 +17,93 @@
  */
 package dev.blocky.app.vx.codec;
 
-import net.lingala.zip4j.ZipFile;
-import net.lingala.zip4j.exception.ZipException;
+import dev.blocky.app.vx.archive.ArchiveExtractor;
+import dev.blocky.app.vx.archive.ArchiveReader;
+import dev.blocky.app.vx.archive.Deduplicator;
+import dev.blocky.app.vx.archive.ExtractionPolicy;
 import net.lingala.zip4j.model.FileHeader;
 import org.apache.commons.codec.binary.Base32;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
-import java.nio.file.Files;
-import java.util.HashSet;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 
 public class Base32Codec
 {
-    public static void encodeAndRenameFile(ZipFile zipFile) throws ZipException
+    private static final Base32 base32 = new Base32();
+
+    public static String encodePath(String path)
     {
-        for (FileHeader fileHeader : zipFile.getFileHeaders())
-        {
-            String fileName = fileHeader.getFileName();
-            String[] split = fileName.split("/");
+        boolean directory = path.endsWith("/");
 
-            Base32 base32 = new Base32();
+        String[] split = path.split("/");
 
-            String lastPart = split[split.length - 1];
+        StringBuilder encodedPath = new StringBuilder();
 
-            String ecLp = base32.encodeAsString(lastPart.getBytes());
+        for (int i = 0; i < split.length; i++)
+        {
+            boolean lastPart = i == split.length - 1;
 
-            if (!fileName.endsWith("/"))
-            {
-                String extension = FilenameUtils.getExtension(lastPart);
-                String lpRaw = StringUtils.remove(lastPart, "." + extension);
+            encodedPath.append(encodeDecodedPart(split[i], !lastPart || directory));
 
-                ecLp = base32.encodeAsString(lpRaw.getBytes()) + "." + extension;
+            if (!lastPart || directory)
+            {
+                encodedPath.append("/");
             }
-
-            String fStr = fileName.replace(lastPart, ecLp);
-
-            zipFile.renameFile(fileHeader, fStr);
         }
+        return encodedPath.toString();
     }
 
-    public static void decodeAndExtractFile(ZipFile zipFile, HashSet<FileHeader> fileHeaders, String destinationPath) throws ZipException
+    public static int decodeAndExtractFile(ArchiveReader archiveReader, DecodedPathIndex pathIndex, Collection<FileHeader> fileHeaders, String destinationPath, int workers, ExtractionPolicy policy) throws IOException
     {
-        for (FileHeader fileHeader : fileHeaders)
-        {
-            String fileName = fileHeader.getFileName();
-            String[] split = fileName.split("/");
-
-            Base32 base32 = new Base32();
+        File destination = new File(destinationPath);
 
-            StringBuilder decodedPath = new StringBuilder();
+        LinkedHashMap<FileHeader, File> targets = new LinkedHashMap<>();
 
-            for (String part : split)
+        for (FileHeader fileHeader : fileHeaders)
+        {
+            if (Deduplicator.getReferencedName(fileHeader) != null)
             {
-                File file;
-
-                if (FilenameUtils.getExtension(part).isBlank())
-                {
-                    String decodedFilename = new String(base32.decode(part.getBytes()));
-
-                    decodedPath.append(decodedFilename).append("/");
-
-                    String realPath = decodedPath.toString().replace("/", "\\");
-                    file = new File(destinationPath + "\\" + realPath);
+                FileHeader contentHeader = archiveReader.resolve(fileHeader);
+                ArchiveExtractor.resolveTarget(destination, contentHeader, pathIndex.getPath(contentHeader));
+            }
 
-                    if (!file.exists() && Files.isWritable(file.getParentFile().toPath()))
-                    {
-                        file.mkdirs();
-                    }
-                    continue;
-                }
+            targets.put(fileHeader, ArchiveExtractor.resolveTarget(destination, fileHeader, pathIndex.getPath(fileHeader)));
+        }
 
-                String extension = FilenameUtils.getExtension(part);
-                String lpRaw = StringUtils.remove(part, "." + extension);
+        return archiveReader.extractFiles(destination, targets, workers, policy);
+    }
 
-                decodedPath.append(new String(base32.decode(lpRaw.getBytes()))).append(".").append(extension);
-            }
+    public static String decodeEncodedPart(String part, boolean directory)
+    {
+        int extensionIndex = part.lastIndexOf('.');
 
-            String realPath = decodedPath.toString().replace("/", "\\");
+        if (directory || extensionIndex < 0)
+        {
+            return new String(base32.decode(part));
+        }
 
-            File file = new File(destinationPath + "\\" + realPath);
+        String decodedPart = new String(base32.decode(part.substring(0, extensionIndex)));
 
-            if (!file.exists() && Files.isWritable(file.toPath()))
-            {
-                zipFile.extractFile(fileHeader, destinationPath, decodedPath.toString());
-            }
+        if (extensionIndex == part.length() - 1)
+        {
+            return decodedPart;
         }
+        return decodedPart + part.substring(extensionIndex);
     }
 
-    public static String decodeEncodedPart(String part)
+    public static String encodeDecodedPart(String part, boolean directory)
     {
-        Base32 base32 = new Base32();
-
-        if (FilenameUtils.getExtension(part).isBlank())
+        if (directory)
         {
-            return new String(base32.decode(part.getBytes()));
+            return base32.encodeAsString(part.getBytes());
         }
 
         String extension = FilenameUtils.getExtension(part);
-        String fhRaw = StringUtils.remove(part, "." + extension);
+        String lpRaw = FilenameUtils.removeExtension(part);
 
-        return new String(base32.decode(fhRaw.getBytes())) + "." + extension;
+        return base32.encodeAsString(lpRaw.getBytes()) + "." + extension;
     }
 }
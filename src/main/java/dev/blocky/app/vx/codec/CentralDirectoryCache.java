@@ -0,0 +1,371 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.codec;
+
+import dev.blocky.app.vx.archive.ArchiveReader;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.headers.HeaderSignature;
+import net.lingala.zip4j.model.AESExtraDataRecord;
+import net.lingala.zip4j.model.ExtraDataRecord;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.enums.AesKeyStrength;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.CompressionMethod;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+public class CentralDirectoryCache
+{
+    private static final int MAGIC = 0x56584344;
+    private static final int FORMAT_VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File directory;
+    private final long maxSize;
+
+    public CentralDirectoryCache(File directory, long maxSize)
+    {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    public DecodedPathIndex load(File archive) throws IOException
+    {
+        String path = archive.getCanonicalPath();
+        long size = archive.length();
+        long lastModified = archive.lastModified();
+        long checksum;
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, null))
+        {
+            checksum = archiveReader.getCentralDirectoryChecksum();
+        }
+
+        File cacheFile = new File(directory, DigestUtils.sha256Hex(path) + ".idx");
+
+        if (cacheFile.isFile())
+        {
+            try
+            {
+                DecodedPathIndex pathIndex = read(cacheFile, path, size, lastModified, checksum);
+
+                if (pathIndex != null)
+                {
+                    cacheFile.setLastModified(System.currentTimeMillis());
+                    evict(cacheFile);
+                    return pathIndex;
+                }
+            }
+            catch (IOException | RuntimeException e)
+            {
+                FileUtils.deleteQuietly(cacheFile);
+            }
+        }
+
+        DecodedPathIndex pathIndex;
+
+        try (ZipFile zipFile = new ZipFile(archive))
+        {
+            pathIndex = new DecodedPathIndex(zipFile.getFileHeaders());
+        }
+
+        try
+        {
+            write(cacheFile, pathIndex, path, size, lastModified, checksum);
+            evict(cacheFile);
+        }
+        catch (IOException e)
+        {
+            FileUtils.deleteQuietly(cacheFile);
+        }
+        return pathIndex;
+    }
+
+    private DecodedPathIndex read(File cacheFile, String path, long size, long lastModified, long checksum) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile), BUFFER_SIZE)))
+        {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION)
+            {
+                return null;
+            }
+
+            if (!in.readUTF().equals(path) || in.readLong() != size || in.readLong() != lastModified || in.readLong() != checksum)
+            {
+                return null;
+            }
+
+            int segmentCount = in.readInt();
+
+            if (segmentCount < 0 || segmentCount > cacheFile.length())
+            {
+                return null;
+            }
+
+            String[] segments = new String[segmentCount];
+
+            for (int i = 0; i < segments.length; i++)
+            {
+                segments[i] = in.readUTF();
+            }
+
+            int count = in.readInt();
+
+            if (count < 0 || count > cacheFile.length())
+            {
+                return null;
+            }
+
+            ArrayList<FileHeader> fileHeaders = new ArrayList<>(count);
+            ArrayList<String[]> decodedPaths = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++)
+            {
+                fileHeaders.add(readFileHeader(in));
+
+                String[] decodedPath = new String[in.readUnsignedShort()];
+
+                for (int j = 0; j < decodedPath.length; j++)
+                {
+                    decodedPath[j] = segments[in.readInt()];
+                }
+
+                decodedPaths.add(decodedPath);
+            }
+            return new DecodedPathIndex(fileHeaders, decodedPaths);
+        }
+    }
+
+    private void write(File cacheFile, DecodedPathIndex pathIndex, String path, long size, long lastModified, long checksum) throws IOException
+    {
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Unable to create cache directory " + directory);
+        }
+
+        HashMap<String, Integer> segmentIds = new HashMap<>();
+        ArrayList<String> segments = new ArrayList<>();
+
+        for (FileHeader fileHeader : pathIndex.getFileHeaders())
+        {
+            for (String segment : pathIndex.getSegments(fileHeader))
+            {
+                segmentIds.computeIfAbsent(segment, key ->
+                {
+                    segments.add(key);
+                    return segments.size() - 1;
+                });
+            }
+        }
+
+        File temporaryFile = new File(directory, cacheFile.getName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile), BUFFER_SIZE)))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(path);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            out.writeLong(checksum);
+
+            out.writeInt(segments.size());
+
+            for (String segment : segments)
+            {
+                out.writeUTF(segment);
+            }
+
+            out.writeInt(pathIndex.getFileHeaders().size());
+
+            for (FileHeader fileHeader : pathIndex.getFileHeaders())
+            {
+                writeFileHeader(out, fileHeader);
+
+                String[] decodedPath = pathIndex.getSegments(fileHeader);
+
+                out.writeShort(decodedPath.length);
+
+                for (String segment : decodedPath)
+                {
+                    out.writeInt(segmentIds.get(segment));
+                }
+            }
+        }
+
+        Files.move(temporaryFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void evict(File keep)
+    {
+        File[] cacheFiles = directory.listFiles((dir, name) -> name.endsWith(".idx"));
+
+        if (cacheFiles == null)
+        {
+            return;
+        }
+
+        Arrays.sort(cacheFiles, Comparator.comparingLong(File::lastModified));
+
+        long totalSize = 0;
+
+        for (File cacheFile : cacheFiles)
+        {
+            totalSize += cacheFile.length();
+        }
+
+        for (File cacheFile : cacheFiles)
+        {
+            if (totalSize <= maxSize)
+            {
+                break;
+            }
+
+            if (!cacheFile.equals(keep))
+            {
+                totalSize -= cacheFile.length();
+                FileUtils.deleteQuietly(cacheFile);
+            }
+        }
+    }
+
+    private static void writeFileHeader(DataOutputStream out, FileHeader fileHeader) throws IOException
+    {
+        out.writeUTF(fileHeader.getFileName());
+        out.writeUTF(fileHeader.getFileComment() == null ? "" : fileHeader.getFileComment());
+        out.writeShort(fileHeader.getVersionMadeBy());
+        out.writeShort(fileHeader.getVersionNeededToExtract());
+        out.write(fileHeader.getGeneralPurposeFlag());
+        out.writeShort(fileHeader.getCompressionMethod().getCode());
+        out.writeLong(fileHeader.getLastModifiedTime());
+        out.writeLong(fileHeader.getCrc());
+        out.writeLong(fileHeader.getCompressedSize());
+        out.writeLong(fileHeader.getUncompressedSize());
+        out.writeInt(fileHeader.getDiskNumberStart());
+        out.writeLong(fileHeader.getOffsetLocalHeader());
+        out.write(fileHeader.getInternalFileAttributes());
+        out.write(fileHeader.getExternalFileAttributes());
+        out.writeBoolean(fileHeader.isDirectory());
+        out.writeBoolean(fileHeader.isEncrypted());
+        out.writeUTF(fileHeader.getEncryptionMethod() == null ? "" : fileHeader.getEncryptionMethod().name());
+        out.writeBoolean(fileHeader.isDataDescriptorExists());
+        out.writeBoolean(fileHeader.isFileNameUTF8Encoded());
+
+        AESExtraDataRecord aesExtraDataRecord = fileHeader.getAesExtraDataRecord();
+
+        out.writeBoolean(aesExtraDataRecord != null);
+
+        if (aesExtraDataRecord != null)
+        {
+            out.writeShort(aesExtraDataRecord.getAesVersion().getVersionNumber());
+            out.writeByte(aesExtraDataRecord.getAesKeyStrength().getRawCode());
+            out.writeShort(aesExtraDataRecord.getCompressionMethod().getCode());
+        }
+
+        List<ExtraDataRecord> extraDataRecords = fileHeader.getExtraDataRecords() == null ? Collections.emptyList() : fileHeader.getExtraDataRecords();
+
+        out.writeShort(extraDataRecords.size());
+
+        for (ExtraDataRecord extraDataRecord : extraDataRecords)
+        {
+            byte[] data = extraDataRecord.getData() == null ? new byte[0] : extraDataRecord.getData();
+
+            out.writeShort((int) extraDataRecord.getHeader());
+            out.writeShort(data.length);
+            out.write(data);
+        }
+    }
+
+    private static FileHeader readFileHeader(DataInputStream in) throws IOException
+    {
+        FileHeader fileHeader = new FileHeader();
+        fileHeader.setSignature(HeaderSignature.CENTRAL_DIRECTORY);
+        fileHeader.setFileName(in.readUTF());
+
+        String fileComment = in.readUTF();
+
+        if (!fileComment.isEmpty())
+        {
+            fileHeader.setFileComment(fileComment);
+        }
+
+        fileHeader.setVersionMadeBy(in.readUnsignedShort());
+        fileHeader.setVersionNeededToExtract(in.readUnsignedShort());
+        fileHeader.setGeneralPurposeFlag(in.readNBytes(2));
+        fileHeader.setCompressionMethod(CompressionMethod.getCompressionMethodFromCode(in.readUnsignedShort()));
+        fileHeader.setLastModifiedTime(in.readLong());
+        fileHeader.setCrc(in.readLong());
+        fileHeader.setCompressedSize(in.readLong());
+        fileHeader.setUncompressedSize(in.readLong());
+        fileHeader.setDiskNumberStart(in.readInt());
+        fileHeader.setOffsetLocalHeader(in.readLong());
+        fileHeader.setInternalFileAttributes(in.readNBytes(2));
+        fileHeader.setExternalFileAttributes(in.readNBytes(4));
+        fileHeader.setDirectory(in.readBoolean());
+        fileHeader.setEncrypted(in.readBoolean());
+
+        String encryptionMethod = in.readUTF();
+
+        if (!encryptionMethod.isEmpty())
+        {
+            fileHeader.setEncryptionMethod(EncryptionMethod.valueOf(encryptionMethod));
+        }
+
+        fileHeader.setDataDescriptorExists(in.readBoolean());
+        fileHeader.setFileNameUTF8Encoded(in.readBoolean());
+
+        if (in.readBoolean())
+        {
+            AESExtraDataRecord aesExtraDataRecord = new AESExtraDataRecord();
+            aesExtraDataRecord.setSignature(HeaderSignature.AES_EXTRA_DATA_RECORD);
+            aesExtraDataRecord.setDataSize(7);
+            aesExtraDataRecord.setVendorID("AE");
+            aesExtraDataRecord.setAesVersion(AesVersion.getFromVersionNumber(in.readUnsignedShort()));
+            aesExtraDataRecord.setAesKeyStrength(AesKeyStrength.getAesKeyStrengthFromRawCode(in.readUnsignedByte()));
+            aesExtraDataRecord.setCompressionMethod(CompressionMethod.getCompressionMethodFromCode(in.readUnsignedShort()));
+
+            fileHeader.setAesExtraDataRecord(aesExtraDataRecord);
+        }
+
+        int extraDataRecordCount = in.readUnsignedShort();
+
+        if (extraDataRecordCount > 0)
+        {
+            ArrayList<ExtraDataRecord> extraDataRecords = new ArrayList<>(extraDataRecordCount);
+
+            for (int i = 0; i < extraDataRecordCount; i++)
+            {
+                ExtraDataRecord extraDataRecord = new ExtraDataRecord();
+                extraDataRecord.setHeader(in.readUnsignedShort());
+                extraDataRecord.setSizeOfData(in.readUnsignedShort());
+                extraDataRecord.setData(in.readNBytes(extraDataRecord.getSizeOfData()));
+
+                extraDataRecords.add(extraDataRecord);
+            }
+
+            fileHeader.setExtraDataRecords(extraDataRecords);
+        }
+        return fileHeader;
+    }
+}
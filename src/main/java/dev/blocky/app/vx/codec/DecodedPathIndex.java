@@ -0,0 +1,141 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.codec;
+
+import net.lingala.zip4j.model.FileHeader;
+
+import java.util.HashMap;
+import java.util.List;
+
+public class DecodedPathIndex
+{
+    private final List<FileHeader> fileHeaders;
+    private final HashMap<FileHeader, String[]> decodedPaths;
+
+    private final HashMap<String, String> directorySegments = new HashMap<>();
+    private final HashMap<String, String> fileSegments = new HashMap<>();
+
+    private long fileCount;
+    private long directoryCount;
+
+    public DecodedPathIndex(List<FileHeader> fileHeaders)
+    {
+        this.fileHeaders = fileHeaders;
+        this.decodedPaths = new HashMap<>(fileHeaders.size() * 4 / 3 + 1);
+
+        HashMap<String, String[]> parents = new HashMap<>();
+
+        for (FileHeader fileHeader : fileHeaders)
+        {
+            String fileName = fileHeader.getFileName();
+            boolean directory = fileHeader.isDirectory();
+
+            if (directory)
+            {
+                directoryCount++;
+                fileName = fileName.substring(0, fileName.length() - 1);
+            }
+            else
+            {
+                fileCount++;
+            }
+
+            int separator = fileName.lastIndexOf('/');
+
+            String[] parent = separator < 0 ? new String[0] : parents.computeIfAbsent(fileName.substring(0, separator), this::decodeDirectory);
+            String[] decodedPath = new String[parent.length + 1];
+
+            System.arraycopy(parent, 0, decodedPath, 0, parent.length);
+
+            String part = fileName.substring(separator + 1);
+
+            decodedPath[parent.length] = directory ? decodeSegment(directorySegments, part, true) : decodeSegment(fileSegments, part, false);
+            decodedPaths.put(fileHeader, decodedPath);
+        }
+    }
+
+    DecodedPathIndex(List<FileHeader> fileHeaders, List<String[]> paths)
+    {
+        this.fileHeaders = fileHeaders;
+        this.decodedPaths = new HashMap<>(fileHeaders.size() * 4 / 3 + 1);
+
+        for (int i = 0; i < fileHeaders.size(); i++)
+        {
+            FileHeader fileHeader = fileHeaders.get(i);
+
+            if (fileHeader.isDirectory())
+            {
+                directoryCount++;
+            }
+            else
+            {
+                fileCount++;
+            }
+
+            decodedPaths.put(fileHeader, paths.get(i));
+        }
+    }
+
+    public List<FileHeader> getFileHeaders()
+    {
+        return fileHeaders;
+    }
+
+    public String[] getSegments(FileHeader fileHeader)
+    {
+        return decodedPaths.get(fileHeader);
+    }
+
+    public String getPath(FileHeader fileHeader)
+    {
+        return String.join("/", decodedPaths.get(fileHeader));
+    }
+
+    public String getName(FileHeader fileHeader)
+    {
+        String[] segments = decodedPaths.get(fileHeader);
+        return segments[segments.length - 1];
+    }
+
+    public long getFileCount()
+    {
+        return fileCount;
+    }
+
+    public long getDirectoryCount()
+    {
+        return directoryCount;
+    }
+
+    private String[] decodeDirectory(String encodedPath)
+    {
+        String[] parts = encodedPath.split("/");
+        String[] decodedPath = new String[parts.length];
+
+        for (int i = 0; i < parts.length; i++)
+        {
+            decodedPath[i] = decodeSegment(directorySegments, parts[i], true);
+        }
+        return decodedPath;
+    }
+
+    private static String decodeSegment(HashMap<String, String> segments, String part, boolean directory)
+    {
+        return segments.computeIfAbsent(part, encodedPart -> Base32Codec.decodeEncodedPart(encodedPart, directory));
+    }
+}
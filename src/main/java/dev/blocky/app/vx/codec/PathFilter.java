@@ -0,0 +1,246 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.codec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public class PathFilter
+{
+    private static final String REGEX_PREFIX = "regex:";
+    private static final String GLOB_PREFIX = "glob:";
+    private static final String SEPARATOR = ";";
+
+    private final List<Rule> includes;
+    private final List<Rule> excludes;
+
+    public PathFilter(List<String> includes, List<String> excludes) throws PatternSyntaxException
+    {
+        this.includes = compileAll(includes);
+        this.excludes = compileAll(excludes);
+    }
+
+    public static PathFilter parse(String includes, String excludes) throws PatternSyntaxException
+    {
+        return new PathFilter(split(includes), split(excludes));
+    }
+
+    public boolean isEmpty()
+    {
+        return includes.isEmpty() && excludes.isEmpty();
+    }
+
+    public boolean matches(String path)
+    {
+        String name = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        return matches(path, name.substring(name.lastIndexOf('/') + 1));
+    }
+
+    boolean matches(CharSequence path, CharSequence name)
+    {
+        return (includes.isEmpty() || matchesAny(includes, path, name)) && !matchesAny(excludes, path, name);
+    }
+
+    boolean mayMatchBelow(CharSequence directoryPath)
+    {
+        if (includes.isEmpty())
+        {
+            return true;
+        }
+
+        for (Rule rule : includes)
+        {
+            if (rule.nameOnly)
+            {
+                return true;
+            }
+
+            Matcher matcher = rule.matcher.reset(directoryPath);
+
+            if (matcher.find() || matcher.hitEnd())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesAny(List<Rule> rules, CharSequence path, CharSequence name)
+    {
+        for (Rule rule : rules)
+        {
+            if (rule.matcher.reset(rule.nameOnly ? name : path).find())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> split(String patterns)
+    {
+        ArrayList<String> result = new ArrayList<>();
+
+        if (patterns == null)
+        {
+            return result;
+        }
+
+        for (String pattern : patterns.split(SEPARATOR))
+        {
+            if (!pattern.isBlank())
+            {
+                result.add(pattern.strip());
+            }
+        }
+        return result;
+    }
+
+    private static List<Rule> compileAll(List<String> patterns) throws PatternSyntaxException
+    {
+        ArrayList<Rule> result = new ArrayList<>(patterns.size());
+
+        for (String pattern : patterns)
+        {
+            result.add(compile(pattern));
+        }
+        return result;
+    }
+
+    private static Rule compile(String pattern) throws PatternSyntaxException
+    {
+        if (pattern.startsWith(REGEX_PREFIX))
+        {
+            return new Rule(Pattern.compile(pattern.substring(REGEX_PREFIX.length())), false);
+        }
+
+        String glob = (pattern.startsWith(GLOB_PREFIX) ? pattern.substring(GLOB_PREFIX.length()) : pattern).replace('\\', '/');
+
+        try
+        {
+            return new Rule(Pattern.compile(globToRegex(glob), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE), glob.indexOf('/') < 0);
+        }
+        catch (PatternSyntaxException e)
+        {
+            throw new PatternSyntaxException(e.getDescription(), pattern, -1);
+        }
+    }
+
+    private static String globToRegex(String glob)
+    {
+        StringBuilder regex = new StringBuilder("^");
+
+        int groupDepth = 0;
+
+        for (int i = 0; i < glob.length(); i++)
+        {
+            char c = glob.charAt(i);
+
+            switch (c)
+            {
+                case '*' ->
+                {
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '*')
+                    {
+                        i++;
+
+                        if (i + 1 < glob.length() && glob.charAt(i + 1) == '/')
+                        {
+                            i++;
+                            regex.append("(?:.*/)?");
+                        }
+                        else
+                        {
+                            regex.append(".*");
+                        }
+                    }
+                    else
+                    {
+                        regex.append("[^/]*");
+                    }
+                }
+                case '?' -> regex.append("[^/]");
+                case '[' ->
+                {
+                    int end = glob.indexOf(']', i + 2);
+
+                    if (end < 0)
+                    {
+                        regex.append("\\[");
+                        continue;
+                    }
+
+                    String characterClass = glob.substring(i + 1, end);
+
+                    if (characterClass.startsWith("!"))
+                    {
+                        characterClass = "^" + characterClass.substring(1);
+                    }
+
+                    regex.append('[').append(characterClass.replace("\\", "\\\\").replace("[", "\\[").replace("&&", "\\&\\&")).append(']');
+                    i = end;
+                }
+                case '{' ->
+                {
+                    regex.append("(?:");
+                    groupDepth++;
+                }
+                case '}' ->
+                {
+                    if (groupDepth > 0)
+                    {
+                        regex.append(')');
+                        groupDepth--;
+                        continue;
+                    }
+                    regex.append("\\}");
+                }
+                case ',' -> regex.append(groupDepth > 0 ? "|" : ",");
+                default ->
+                {
+                    if ("\\.^$|()+".indexOf(c) >= 0)
+                    {
+                        regex.append('\\');
+                    }
+                    regex.append(c);
+                }
+            }
+        }
+
+        if (groupDepth > 0)
+        {
+            throw new PatternSyntaxException("Unclosed group", glob, glob.length());
+        }
+        return regex.append(glob.indexOf('/') < 0 ? "$" : "/?$").toString();
+    }
+
+    private static class Rule
+    {
+        private final Matcher matcher;
+        private final boolean nameOnly;
+
+        private Rule(Pattern pattern, boolean nameOnly)
+        {
+            this.matcher = pattern.matcher("");
+            this.nameOnly = nameOnly;
+        }
+    }
+}
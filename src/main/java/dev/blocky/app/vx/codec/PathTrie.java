@@ -0,0 +1,234 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.codec;
+
+import net.lingala.zip4j.model.FileHeader;
+
+import java.util.*;
+
+public class PathTrie
+{
+    private final Node root = new Node(null, null);
+
+    public PathTrie(DecodedPathIndex pathIndex)
+    {
+        for (FileHeader fileHeader : pathIndex.getFileHeaders())
+        {
+            Node node = root;
+
+            for (String segment : pathIndex.getSegments(fileHeader))
+            {
+                node = node.getOrCreateChild(segment);
+            }
+
+            if (node.fileHeader == null)
+            {
+                node.fileHeader = fileHeader;
+                node.selected = true;
+
+                for (Node current = node; current != null; current = current.parent)
+                {
+                    current.entryCount++;
+                    current.selectedCount++;
+                }
+            }
+        }
+    }
+
+    public Node getRoot()
+    {
+        return root;
+    }
+
+    public int getSelectedCount()
+    {
+        return root.selectedCount;
+    }
+
+    public void setSelected(Node node, boolean selected)
+    {
+        int delta = (selected ? node.entryCount : 0) - node.selectedCount;
+
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(node);
+
+        while (!pending.isEmpty())
+        {
+            Node current = pending.pop();
+
+            if (current.selectedCount == (selected ? current.entryCount : 0))
+            {
+                continue;
+            }
+
+            current.selected = selected && current.fileHeader != null;
+            current.selectedCount = selected ? current.entryCount : 0;
+
+            for (Node child : current.getChildren())
+            {
+                pending.push(child);
+            }
+        }
+
+        for (Node current = node.parent; current != null; current = current.parent)
+        {
+            current.selectedCount += delta;
+        }
+    }
+
+    public int select(PathFilter pathFilter)
+    {
+        setSelected(root, pathFilter.isEmpty());
+
+        if (pathFilter.isEmpty())
+        {
+            return root.selectedCount;
+        }
+
+        StringBuilder path = new StringBuilder();
+
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        ArrayDeque<Integer> prefixLengths = new ArrayDeque<>();
+
+        pending.push(root);
+        prefixLengths.push(0);
+
+        while (!pending.isEmpty())
+        {
+            Node current = pending.pop();
+            path.setLength(prefixLengths.pop());
+
+            if (current != root)
+            {
+                path.append(current.name);
+
+                if (current.children != null || current.fileHeader.isDirectory())
+                {
+                    path.append('/');
+                }
+            }
+
+            if (current.fileHeader != null && pathFilter.matches(path, current.name))
+            {
+                current.selected = true;
+
+                for (Node node = current; node != null; node = node.parent)
+                {
+                    node.selectedCount++;
+                }
+            }
+
+            if (current.children == null || !pathFilter.mayMatchBelow(path))
+            {
+                continue;
+            }
+
+            for (Node child : current.children.values())
+            {
+                pending.push(child);
+                prefixLengths.push(path.length());
+            }
+        }
+        return root.selectedCount;
+    }
+
+    public List<FileHeader> getSelectedFileHeaders()
+    {
+        ArrayList<FileHeader> fileHeaders = new ArrayList<>(root.selectedCount);
+
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+
+        while (!pending.isEmpty())
+        {
+            Node current = pending.pop();
+
+            if (current.selected)
+            {
+                fileHeaders.add(current.fileHeader);
+            }
+
+            for (Node child : current.getChildren())
+            {
+                if (child.selectedCount > 0)
+                {
+                    pending.push(child);
+                }
+            }
+        }
+        return fileHeaders;
+    }
+
+    public static class Node
+    {
+        private final String name;
+        private final Node parent;
+
+        private FileHeader fileHeader;
+        private LinkedHashMap<String, Node> children;
+
+        private boolean selected;
+        private int entryCount;
+        private int selectedCount;
+
+        private Node(String name, Node parent)
+        {
+            this.name = name;
+            this.parent = parent;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public FileHeader getFileHeader()
+        {
+            return fileHeader;
+        }
+
+        public Collection<Node> getChildren()
+        {
+            return children == null ? Collections.emptyList() : children.values();
+        }
+
+        public Node getChild(String name)
+        {
+            return children == null ? null : children.get(name);
+        }
+
+        public boolean isSelected()
+        {
+            return entryCount > 0 && selectedCount == entryCount;
+        }
+
+        public boolean isIndeterminate()
+        {
+            return selectedCount > 0 && selectedCount < entryCount;
+        }
+
+        private Node getOrCreateChild(String name)
+        {
+            if (children == null)
+            {
+                children = new LinkedHashMap<>();
+            }
+            return children.computeIfAbsent(name, childName -> new Node(childName, this));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.entities;
+
+import dev.blocky.app.vx.codec.PathTrie;
+import javafx.collections.ObservableList;
+import javafx.scene.control.CheckBoxTreeItem;
+import javafx.scene.control.TreeItem;
+
+import java.util.ArrayList;
+
+public class PreviewTreeItem extends CheckBoxTreeItem<String>
+{
+    private final PathTrie.Node node;
+
+    private boolean loaded;
+
+    public PreviewTreeItem(PathTrie.Node node)
+    {
+        super(node.getName());
+
+        this.node = node;
+
+        setIndependent(true);
+        refresh();
+    }
+
+    public PathTrie.Node getNode()
+    {
+        return node;
+    }
+
+    @Override
+    public boolean isLeaf()
+    {
+        return node.getChildren().isEmpty();
+    }
+
+    @Override
+    public ObservableList<TreeItem<String>> getChildren()
+    {
+        if (!loaded)
+        {
+            loaded = true;
+
+            ArrayList<TreeItem<String>> children = new ArrayList<>(node.getChildren().size());
+
+            for (PathTrie.Node child : node.getChildren())
+            {
+                children.add(new PreviewTreeItem(child));
+            }
+
+            super.getChildren().setAll(children);
+        }
+        return super.getChildren();
+    }
+
+    public void refresh()
+    {
+        setIndeterminate(node.isIndeterminate());
+        setSelected(node.isSelected());
+
+        if (loaded)
+        {
+            for (TreeItem<String> child : super.getChildren())
+            {
+                ((PreviewTreeItem) child).refresh();
+            }
+        }
+    }
+}
@@ -17,15 +17,22 @@
  */
 package dev.blocky.app.vx.handler;
 
-import dev.blocky.app.vx.codec.Base32Codec;
+import dev.blocky.app.vx.archive.ArchiveProgress;
+import dev.blocky.app.vx.archive.ArchiveWriter;
+import dev.blocky.app.vx.archive.DirectoryScanner;
+import dev.blocky.app.vx.archive.EntryCompressor;
+import dev.blocky.app.vx.archive.ScanResult;
 import dev.blocky.app.vx.entities.NodeCreator;
 import dev.blocky.app.vx.windows.api.WindowsExplorer;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.geometry.Orientation;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.*;
@@ -34,26 +41,32 @@ import javafx.scene.layout.AnchorPane;
 import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
-import net.lingala.zip4j.ZipFile;
 import net.lingala.zip4j.model.ZipParameters;
 import net.lingala.zip4j.model.enums.AesKeyStrength;
 import net.lingala.zip4j.model.enums.AesVersion;
 import net.lingala.zip4j.model.enums.CompressionLevel;
 import net.lingala.zip4j.model.enums.EncryptionMethod;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.controlsfx.control.CheckTreeView;
 import org.controlsfx.control.PopOver;
 
 import java.awt.*;
 import java.io.File;
+import java.io.InterruptedIOException;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static dev.blocky.app.vx.handler.ActionHandler.*;
+import static dev.blocky.app.vx.handler.SettingHandler.archiveWorkers;
 import static dev.blocky.app.vx.handler.SettingHandler.autoOpenExplorer;
+import static dev.blocky.app.vx.handler.SettingHandler.cipherBackend;
 import static dev.blocky.app.vx.handler.TrayIconHandler.sendErrorPushNotification;
 import static dev.blocky.app.vx.handler.TrayIconHandler.sendPushNotification;
 
@@ -62,13 +75,17 @@ public class ArchiveCreationHandler
     public static final HashSet<File> chosenFiles = new HashSet<>(), chosenDirectories = new HashSet<>();
 
     private static final NodeCreator creator = new NodeCreator();
+    private static final long PROGRESS_UPDATE_INTERVAL = 250;
 
     private static AesKeyStrength aesks = AesKeyStrength.KEY_STRENGTH_256;
     private static CompressionLevel cpl = CompressionLevel.NORMAL;
     private static EncryptionMethod em = EncryptionMethod.AES;
     private static AesVersion aesv = AesVersion.TWO;
+    private static boolean updateExisting, deduplicateFiles, vxarFormat;
+    private static long volumeSizeMegabytes;
 
     private static PopOver creationPreview;
+    private static ArchiveProgress runningProgress;
 
     public static void initRoot(Stage stage, AnchorPane anchorPane, TextArea detailArea, Button createArchive)
     {
@@ -169,6 +186,17 @@ public class ArchiveCreationHandler
         RadioButton aes1 = creator.createRadioButton("AES-1", aesGroup, 10, 302);
         RadioButton aes2 = creator.createRadioButton("AES-2", aesGroup, 100, 302);
 
+        CheckBox updateArchive = creator.createCheckBox("Update existing archive", 230, 305);
+        updateArchive.setSelected(updateExisting);
+
+        TextField volumeSize = creator.createTextField("Split into volumes of (MB)", volumeSizeMegabytes > 0 ? String.valueOf(volumeSizeMegabytes) : null, 230, 240, 205, true, true, true, false);
+
+        CheckBox deduplicate = creator.createCheckBox("Deduplicate identical files", 230, 280);
+        deduplicate.setSelected(deduplicateFiles);
+
+        CheckBox formatVersion = creator.createCheckBox("Use VXAR v2 format", 230, 330);
+        formatVersion.setSelected(vxarFormat);
+
         ObservableList<AesKeyStrength> aesKeyStrengths = FXCollections.observableArrayList
                 (
                         AesKeyStrength.KEY_STRENGTH_128, AesKeyStrength.KEY_STRENGTH_192, AesKeyStrength.KEY_STRENGTH_256
@@ -176,11 +204,13 @@ public class ArchiveCreationHandler
 
         ComboBox<AesKeyStrength> aesKeyStrength = creator.createComboBox("KEY_STRENGTH_256", 10, 355, 205, aesKeyStrengths, false);
 
-        anchorPane.getChildren().addAll(addFile, addFolder, create, clear, password, passwordCheck, passwordUnmasked, passwordCheckUnmasked, showPassword, showPasswordCheck, compressionLevel, comment, encryptionMethod, aesKeyStrength, aes1, aes2, detailArea);
+        Label progressLabel = creator.createLabel(null, 230, 360);
+
+        anchorPane.getChildren().addAll(addFile, addFolder, create, clear, password, passwordCheck, passwordUnmasked, passwordCheckUnmasked, showPassword, showPasswordCheck, compressionLevel, comment, encryptionMethod, aesKeyStrength, aes1, aes2, volumeSize, updateArchive, deduplicate, formatVersion, progressLabel, detailArea);
 
         initAddFile(stage, detailArea, addFile, create, password, passwordCheck);
         initAddFolder(stage, detailArea, addFolder, create, password, passwordCheck);
-        initCreate(stage, anchorPane, detailArea, createArchive, create, password, comment);
+        initCreate(stage, anchorPane, detailArea, createArchive, create, password, comment, progressLabel);
         initClear(stage, anchorPane, detailArea, createArchive, clear);
         initShowPassword(showPassword, password, passwordUnmasked);
         initShowPasswordCheck(showPasswordCheck, passwordCheck, passwordCheckUnmasked);
@@ -188,6 +218,10 @@ public class ArchiveCreationHandler
         initEncryptionMethod(encryptionMethod, aesKeyStrength, aes1, aes2);
         initAESKeyStrength(aesKeyStrength);
         initAESVersion(aesGroup, aes1);
+        initUpdateArchive(updateArchive);
+        initDeduplicate(deduplicate);
+        initFormatVersion(formatVersion);
+        initVolumeSize(volumeSize);
     }
 
     public static void initCreateArchive(Stage stage, AnchorPane anchorPane, TextArea detailArea, Button createArchive)
@@ -289,10 +323,17 @@ public class ArchiveCreationHandler
         });
     }
 
-    public static void initCreate(Stage stage, AnchorPane anchorPane, TextArea detailArea, Button createArchive, Button create, PasswordField password, TextField comment)
+    public static void initCreate(Stage stage, AnchorPane anchorPane, TextArea detailArea, Button createArchive, Button create, PasswordField password, TextField comment, Label progressLabel)
     {
         create.setOnAction(event ->
         {
+            if (runningProgress != null)
+            {
+                runningProgress.cancel();
+                validAction(detailArea, "Cancelling archive creation...");
+                return;
+            }
+
             try
             {
                 ZipParameters zipParameters = new ZipParameters();
@@ -305,82 +346,162 @@ public class ArchiveCreationHandler
 
                 List<FileChooser.ExtensionFilter> extensionFilter = Collections.singletonList(new FileChooser.ExtensionFilter("VorteX Archive", "*.vxar"));
 
-                FileChooser fileChooser = creator.createFileChooser("Save as...", null, null, extensionFilter);
+                boolean update = updateExisting;
 
-                File saveToFile = fileChooser.showSaveDialog(stage);
+                FileChooser fileChooser = creator.createFileChooser(update ? "Choose an archive to update" : "Save as...", null, null, extensionFilter);
+
+                File saveToFile = update ? fileChooser.showOpenDialog(stage) : fileChooser.showSaveDialog(stage);
 
                 if (saveToFile == null)
                 {
                     return;
                 }
 
-                validAction(detailArea, "File '" + saveToFile.getName() + "' will be saved to directory " + saveToFile.getParent());
+                if (update)
+                {
+                    validAction(detailArea, "File '" + saveToFile.getName() + "' in directory " + saveToFile.getParent() + " will be updated");
+                }
+                else
+                {
+                    validAction(detailArea, "File '" + saveToFile.getName() + "' will be saved to directory " + saveToFile.getParent());
+                }
+
                 validAction(detailArea, "Archiving started...");
 
-                ZipFile zipFile = new ZipFile(saveToFile, password.getText().toCharArray());
+                ArchiveWriter archiveWriter = new ArchiveWriter(saveToFile, password.getText().toCharArray(), zipParameters);
+                archiveWriter.setCipherBackend(cipherBackend);
+                archiveWriter.setWorkers(archiveWorkers);
+                archiveWriter.setDeduplicate(deduplicateFiles);
+                archiveWriter.setVolumeSize(volumeSizeMegabytes * 1024 * 1024);
+                archiveWriter.setFormatVersion(vxarFormat ? EntryCompressor.VXAR_FORMAT_VERSION : 1);
 
-                if (!chosenFiles.isEmpty())
-                {
-                    ArrayList<File> files = new ArrayList<>(chosenFiles);
+                startCreationTask(stage, anchorPane, detailArea, createArchive, create, progressLabel, archiveWriter, saveToFile, update);
+            }
+            catch (Exception e)
+            {
+                invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
+                sendErrorPushNotification(detailArea, e);
+            }
+        });
+    }
 
-                    zipFile.addFiles(files, zipParameters);
-                }
+    private static void startCreationTask(Stage stage, AnchorPane anchorPane, TextArea detailArea, Button createArchive, Button create, Label progressLabel, ArchiveWriter archiveWriter, File saveToFile, boolean update)
+    {
+        ArchiveProgress progress = new ArchiveProgress();
+        archiveWriter.setProgress(progress);
+
+        ArrayList<File> files = new ArrayList<>(chosenFiles);
+        ArrayList<File> directories = new ArrayList<>(chosenDirectories);
+
+        Task<String> creationTask = new Task<>()
+        {
+            @Override
+            protected String call() throws Exception
+            {
+                DirectoryScanner directoryScanner = new DirectoryScanner(archiveWorkers);
+                directoryScanner.setProgress(progress);
+
+                ScanResult scanResult = directoryScanner.scan(files, directories);
 
-                if (!chosenDirectories.isEmpty())
+                if (update)
                 {
-                    for (File directory : chosenDirectories)
-                    {
-                        zipFile.addFolder(directory, zipParameters);
-                    }
+                    archiveWriter.updateArchive(scanResult);
+
+                    return String.format("Successfully updated %s in '%s', %d of %d files were unchanged and copied without being re-encrypted.", saveToFile.getName(), saveToFile.getParent(),
+                            progress.getCopiedEntries(), scanResult.fileCount());
                 }
 
-                Base32Codec.encodeAndRenameFile(zipFile);
+                archiveWriter.writeArchive(scanResult);
 
-                int fileCount = chosenFiles.size();
-                int directoryCount = chosenDirectories.size();
+                return String.format("Successfully archived %d files and %d directories (%s) to %s in '%s'.", scanResult.fileCount(), scanResult.directoryCount(),
+                        FileUtils.byteCountToDisplaySize(scanResult.totalBytes()), saveToFile.getName(), saveToFile.getParent());
+            }
+        };
 
-                for (File directory : chosenDirectories)
-                {
-                    Collection<File> allFiles = FileUtils.listFilesAndDirs(directory, TrueFileFilter.TRUE, TrueFileFilter.TRUE);
+        ScheduledExecutorService progressUpdater = Executors.newSingleThreadScheduledExecutor();
 
-                    for (File file : allFiles)
-                    {
-                        if (file.getAbsolutePath().equals(directory.getAbsolutePath()))
-                        {
-                            continue;
-                        }
-
-                        if (file.isDirectory())
-                        {
-                            directoryCount++;
-                            continue;
-                        }
-
-                        fileCount++;
-                    }
+        progressUpdater.scheduleAtFixedRate(() ->
+        {
+            String text = formatProgress(progress);
+            Platform.runLater(() ->
+            {
+                if (runningProgress == progress)
+                {
+                    progressLabel.setText(text);
                 }
+            });
+        }, 0, PROGRESS_UPDATE_INTERVAL, TimeUnit.MILLISECONDS);
 
-                String text = String.format("Successfully archived %d files and %d directories to %s in '%s'.", fileCount, directoryCount, saveToFile.getName(), saveToFile.getParent());
+        creationTask.setOnSucceeded((e) ->
+        {
+            progressUpdater.shutdownNow();
+            runningProgress = null;
 
-                validAction(detailArea, text);
+            String text = creationTask.getValue();
 
-                reset(stage, anchorPane, detailArea, createArchive);
+            validAction(detailArea, text);
 
-                String caption = "Successfully created '" + zipFile.getFile().getName() + "'";
+            if (progress.getPassthroughBytes() > 0)
+            {
+                validAction(detailArea, FileUtils.byteCountToDisplaySize(progress.getPassthroughBytes()) + " of already compressed content was stored without compression.");
+            }
 
-                sendPushNotification(detailArea, (e) -> WindowsExplorer.openDirectoryAndHighlightFile(detailArea, zipFile.getFile()), TrayIcon.MessageType.INFO, caption, text);
+            if (progress.getDeduplicatedBytes() > 0)
+            {
+                validAction(detailArea, FileUtils.byteCountToDisplaySize(progress.getDeduplicatedBytes()) + " of identical file content was stored only once.");
+            }
 
-                if (autoOpenExplorer)
-                {
-                    WindowsExplorer.openDirectoryAndHighlightFile(detailArea, zipFile.getFile());
-                }
+            reset(stage, anchorPane, detailArea, createArchive);
+
+            String caption = "Successfully " + (update ? "updated" : "created") + " '" + saveToFile.getName() + "'";
+
+            sendPushNotification(detailArea, (ev) -> WindowsExplorer.openDirectoryAndHighlightFile(detailArea, saveToFile), TrayIcon.MessageType.INFO, caption, text);
+
+            if (autoOpenExplorer)
+            {
+                WindowsExplorer.openDirectoryAndHighlightFile(detailArea, saveToFile);
             }
-            catch (Exception e)
+        });
+
+        creationTask.setOnFailed((e) ->
+        {
+            progressUpdater.shutdownNow();
+            runningProgress = null;
+
+            create.setText("Create");
+            progressLabel.setText(null);
+
+            Throwable throwable = creationTask.getException();
+            Exception exception = throwable instanceof Exception ex ? ex : new Exception(throwable);
+
+            if (progress.isCancelled() && exception instanceof InterruptedIOException)
             {
-                invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
-                sendErrorPushNotification(detailArea, e);
+                validAction(detailArea, "Archiving was cancelled, '" + saveToFile.getName() + "' has been " + (saveToFile.exists() ? "left unchanged." : "discarded."));
+                return;
             }
+
+            invalidAction(detailArea, ExceptionUtils.getStackTrace(exception));
+            sendErrorPushNotification(detailArea, exception);
         });
+
+        runningProgress = progress;
+        create.setText("Cancel");
+
+        Thread creationThread = new Thread(creationTask, "VorteX-ArchiveCreation");
+        creationThread.setDaemon(true);
+        creationThread.start();
+    }
+
+    private static String formatProgress(ArchiveProgress progress)
+    {
+        long remainingMillis = progress.getRemainingMillis();
+
+        String eta = remainingMillis < 0 ? "--:--:--" : DurationFormatUtils.formatDuration(remainingMillis, "HH:mm:ss");
+        String currentFile = progress.getCurrentFile() == null ? "" : FilenameUtils.getName(progress.getCurrentFile());
+
+        return String.format("%d%% | %d/%d entries | %s of %s | %s/s | ETA %s%n%s", (int) (progress.getFraction() * 100),
+                progress.getProcessedEntries(), progress.getTotalEntries(), FileUtils.byteCountToDisplaySize(progress.getProcessedBytes()),
+                FileUtils.byteCountToDisplaySize(progress.getTotalBytes()), FileUtils.byteCountToDisplaySize(progress.getThroughput()), eta, currentFile);
     }
 
     public static void initCreationPreview(TextArea detailArea, Button create)
@@ -625,6 +746,35 @@ public class ArchiveCreationHandler
         aesKeyStrength.setOnAction(event -> aesks = aesKeyStrength.getValue());
     }
 
+    public static void initUpdateArchive(CheckBox updateArchive)
+    {
+        updateArchive.selectedProperty().addListener((obs, oldVal, newVal) -> updateExisting = newVal);
+    }
+
+    public static void initDeduplicate(CheckBox deduplicate)
+    {
+        deduplicate.selectedProperty().addListener((obs, oldVal, newVal) -> deduplicateFiles = newVal);
+    }
+
+    public static void initFormatVersion(CheckBox formatVersion)
+    {
+        formatVersion.selectedProperty().addListener((obs, oldVal, newVal) -> vxarFormat = newVal);
+    }
+
+    public static void initVolumeSize(TextField volumeSize)
+    {
+        volumeSize.textProperty().addListener((obs, oldVal, newVal) ->
+        {
+            if (!newVal.matches("\\d{0,7}"))
+            {
+                volumeSize.setText(oldVal);
+                return;
+            }
+
+            volumeSizeMegabytes = newVal.isEmpty() ? 0 : Long.parseLong(newVal);
+        });
+    }
+
     public static void initClear(Stage stage, AnchorPane anchorPane, TextArea detailArea, Button createArchive, Button clear)
     {
         clear.setOnAction(event -> reset(stage, anchorPane, detailArea, createArchive));
@@ -632,6 +782,11 @@ public class ArchiveCreationHandler
 
     private static void reset(Stage stage, AnchorPane anchorPane, TextArea detailArea, Button createArchive)
     {
+        if (runningProgress != null)
+        {
+            runningProgress.cancel();
+        }
+
         chosenFiles.clear();
         chosenDirectories.clear();
 
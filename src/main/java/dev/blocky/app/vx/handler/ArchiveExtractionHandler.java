@@ -17,9 +17,23 @@
  */
 package dev.blocky.app.vx.handler;
 
+import com.sun.jna.platform.win32.Advapi32Util;
+import com.sun.jna.platform.win32.WinReg;
+import dev.blocky.app.vx.archive.ArchiveExtractor;
+import dev.blocky.app.vx.archive.ArchiveReader;
+import dev.blocky.app.vx.archive.ExtractionPolicy;
 import dev.blocky.app.vx.codec.Base32Codec;
+import dev.blocky.app.vx.codec.CentralDirectoryCache;
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import dev.blocky.app.vx.codec.PathFilter;
+import dev.blocky.app.vx.codec.PathTrie;
 import dev.blocky.app.vx.entities.NodeCreator;
+import dev.blocky.app.vx.entities.PreviewTreeItem;
+import javafx.animation.PauseTransition;
 import javafx.application.HostServices;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.geometry.Orientation;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
@@ -32,24 +46,28 @@ import javafx.scene.layout.AnchorPane;
 import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
-import net.lingala.zip4j.ZipFile;
+import javafx.util.Duration;
 import net.lingala.zip4j.exception.ZipException;
 import net.lingala.zip4j.model.FileHeader;
-import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.controlsfx.control.CheckTreeView;
 import org.controlsfx.control.PopOver;
 
 import java.awt.*;
 import java.io.File;
-import java.util.Collections;
-import java.util.HashSet;
+import java.io.IOException;
 import java.util.List;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.PatternSyntaxException;
 
 import static dev.blocky.app.vx.handler.ActionHandler.*;
 import static dev.blocky.app.vx.handler.ArchiveCreationHandler.initShowPasswordCheck;
+import static dev.blocky.app.vx.handler.SettingHandler.archiveWorkers;
 import static dev.blocky.app.vx.handler.SettingHandler.autoOpenExplorer;
+import static dev.blocky.app.vx.handler.SettingHandler.cipherBackend;
 import static dev.blocky.app.vx.handler.TrayIconHandler.sendErrorPushNotification;
 import static dev.blocky.app.vx.handler.TrayIconHandler.sendPushNotification;
 
@@ -57,8 +75,18 @@ public class ArchiveExtractionHandler
 {
     private static final NodeCreator creator = new NodeCreator();
 
-    private static final HashSet<FileHeader> filesToExtract = new HashSet<>();
-
+    private static final long CENTRAL_DIRECTORY_CACHE_SIZE = 256L * 1024 * 1024;
+    private static final long PASSWORD_CHECK_DELAY = 300;
+
+    private static CentralDirectoryCache centralDirectoryCache;
+    private static DecodedPathIndex pathIndex;
+    private static PathTrie pathTrie;
+    private static Task<PreviewTreeItem> previewTask;
+    private static PreviewTreeItem previewRoot;
+    private static Task<Boolean> passwordCheckTask;
+    private static Boolean passwordAccepted;
+    private static boolean refreshingPreview;
+    private static ExtractionPolicy extractionPolicy = ExtractionPolicy.SKIP_IF_SAME_SIZE_AND_TIME;
     private static PopOver extractionPreview;
     private static File fileToExtract;
 
@@ -68,36 +96,63 @@ public class ArchiveExtractionHandler
 
         Button chooseArchive = creator.createButton("Choose archive", 10, 170, 150, false);
         Button extract = creator.createButton("Extract", 180, 170, 100, true);
-        Button clear = creator.createButton("Clear", 335, 170, -1, false);
+        Button verify = creator.createButton("Verify", 290, 170, 100, true);
+        Button clear = creator.createButton("Clear", 400, 170, -1, false);
 
         PasswordField password = creator.createPasswordField("Enter the password of the archive", 10, 220);
 
+        PauseTransition passwordCheckDelay = new PauseTransition(Duration.millis(PASSWORD_CHECK_DELAY));
+        passwordCheckDelay.setOnFinished(event -> startPasswordCheck(detailArea, extract, verify, password));
+
         password.textProperty().addListener((obs, oldVal, newVal) ->
         {
+            passwordAccepted = null;
+            passwordCheckDelay.stop();
+
             if (fileToExtract == null)
             {
                 extract.setDisable(true);
+                verify.setDisable(true);
                 return;
             }
 
             if (newVal.isBlank())
             {
                 extract.setDisable(true);
+                verify.setDisable(true);
                 return;
             }
 
             extract.setDisable(false);
+            verify.setDisable(false);
+
+            passwordCheckDelay.playFromStart();
         });
 
         TextField passwordUnmasked = creator.createTextField("Enter the password of the archive", null, 10, 220, -1, false, false, true, false);
 
         CheckBox showPassword = creator.createCheckBox("Show password", 460, 224);
 
-        anchorPane.getChildren().addAll(detailArea, password, passwordUnmasked, showPassword, chooseArchive, extract, clear);
+        TextField include = creator.createTextField("Include, e.g. 2023/**/*.log", null, 10, 270, 215, true, true, true, false);
+        TextField exclude = creator.createTextField("Exclude, e.g. **/tmp/**;regex:\\.bak$", null, 235, 270, 215, true, true, true, false);
+
+        Button filter = creator.createButton("Filter", 460, 270, 100, true);
+
+        ObservableList<ExtractionPolicy> extractionPolicies = FXCollections.observableArrayList
+                (
+                        ExtractionPolicy.SKIP_IF_SAME_SIZE_AND_TIME, ExtractionPolicy.SKIP_IF_SAME_CONTENT, ExtractionPolicy.ALWAYS_OVERWRITE
+                );
+
+        ComboBox<ExtractionPolicy> policy = creator.createComboBox(extractionPolicy.toString(), 10, 320, 215, extractionPolicies, false);
+
+        anchorPane.getChildren().addAll(detailArea, password, passwordUnmasked, showPassword, include, exclude, filter, policy, chooseArchive, extract, verify, clear);
 
         initShowPasswordCheck(showPassword, password, passwordUnmasked);
-        initChooseArchive(stage, detailArea, chooseArchive, extract, password);
-        initExtract(stage, hostServices, detailArea, extract, password);
+        initChooseArchive(stage, detailArea, chooseArchive, extract, verify, filter, password);
+        initExtract(stage, hostServices, detailArea, extract, verify, password);
+        initVerify(detailArea, verify, password);
+        initFilter(detailArea, filter, include, exclude, extract);
+        initExtractionPolicy(policy);
         initClear(stage, hostServices, anchorPane, detailArea, extractArchive, clear);
     }
 
@@ -113,7 +168,7 @@ public class ArchiveExtractionHandler
         });
     }
 
-    public static void initChooseArchive(Stage stage, TextArea detailArea, Button chooseArchive, Button extract, PasswordField password)
+    public static void initChooseArchive(Stage stage, TextArea detailArea, Button chooseArchive, Button extract, Button verify, Button filter, PasswordField password)
     {
         chooseArchive.setOnAction(event ->
         {
@@ -130,215 +185,438 @@ public class ArchiveExtractionHandler
                     if (fileToExtract == null || !fileToExtract.exists())
                     {
                         extract.setDisable(true);
+                        verify.setDisable(true);
                     }
                     return;
                 }
 
                 validAction(detailArea, "Selected '" + file.getName() + "' for extraction.");
 
+                fileToExtract = null;
+                passwordAccepted = null;
+                extract.setDisable(true);
+                verify.setDisable(true);
+                filter.setDisable(true);
+
+                startPreviewTask(detailArea, extract, verify, filter, password, file);
+            }
+            catch (Exception e)
+            {
+                invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
+                sendErrorPushNotification(detailArea, e);
+            }
+        });
+    }
+
+    private static void startPreviewTask(TextArea detailArea, Button extract, Button verify, Button filter, PasswordField password, File file)
+    {
+        if (previewTask != null)
+        {
+            previewTask.cancel();
+        }
+
+        Task<PreviewTreeItem> task = new Task<>()
+        {
+            private DecodedPathIndex index;
+            private PathTrie trie;
+
+            @Override
+            protected PreviewTreeItem call() throws Exception
+            {
+                index = loadPathIndex(file);
+                trie = new PathTrie(index);
+
+                PreviewTreeItem rootItem = new PreviewTreeItem(trie.getRoot());
+                rootItem.setExpanded(true);
+                rootItem.getChildren();
+                return rootItem;
+            }
+
+            @Override
+            protected void succeeded()
+            {
+                pathIndex = index;
+                pathTrie = trie;
+                previewRoot = getValue();
                 fileToExtract = file;
 
-                ZipFile zipFile = new ZipFile(fileToExtract);
+                filter.setDisable(false);
 
-                initExtractionPreview(zipFile, detailArea, extract);
+                initPreviewSelection(getValue(), detailArea, extract);
+                initExtractionPreview(getValue(), extract);
 
                 if (!password.getText().isBlank())
                 {
                     extract.setDisable(false);
+                    verify.setDisable(false);
+
+                    startPasswordCheck(detailArea, extract, verify, password);
                 }
             }
-            catch (Exception e)
+        };
+
+        task.setOnFailed(event ->
+        {
+            Exception e = task.getException() instanceof Exception ex ? ex : new Exception(task.getException());
+
+            invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
+            sendErrorPushNotification(detailArea, e);
+        });
+
+        previewTask = task;
+
+        Thread previewThread = new Thread(task, "VorteX-ExtractionPreview");
+        previewThread.setDaemon(true);
+        previewThread.start();
+    }
+
+    static DecodedPathIndex loadPathIndex(File file) throws IOException
+    {
+        if (centralDirectoryCache == null)
+        {
+            String vortexHome = Advapi32Util.registryGetStringValue(WinReg.HKEY_LOCAL_MACHINE, "SOFTWARE\\WOW6432Node\\VorteX", "VorteX_HOME");
+            centralDirectoryCache = new CentralDirectoryCache(new File(vortexHome + "\\cache\\headers"), CENTRAL_DIRECTORY_CACHE_SIZE);
+        }
+        return centralDirectoryCache.load(file);
+    }
+
+    private static void startPasswordCheck(TextArea detailArea, Button extract, Button verify, PasswordField password)
+    {
+        if (passwordCheckTask != null)
+        {
+            passwordCheckTask.cancel();
+        }
+
+        File archive = fileToExtract;
+        DecodedPathIndex index = pathIndex;
+        String checkedPassword = password.getText();
+
+        if (archive == null || checkedPassword.isBlank())
+        {
+            return;
+        }
+
+        Task<Boolean> task = new Task<>()
+        {
+            @Override
+            protected Boolean call() throws Exception
             {
-                invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
-                sendErrorPushNotification(detailArea, e);
+                try (ArchiveReader archiveReader = new ArchiveReader(archive, checkedPassword.toCharArray()))
+                {
+                    archiveReader.setCipherBackend(cipherBackend);
+                    return archiveReader.checkPassword(index.getFileHeaders());
+                }
             }
+
+            @Override
+            protected void succeeded()
+            {
+                if (archive != fileToExtract || !checkedPassword.equals(password.getText()))
+                {
+                    return;
+                }
+
+                passwordAccepted = getValue();
+
+                if (!passwordAccepted)
+                {
+                    invalidAction(detailArea, "The entered password is wrong for '" + archive.getName() + "'.");
+
+                    extract.setDisable(true);
+                    verify.setDisable(true);
+                }
+            }
+        };
+
+        task.setOnFailed(event ->
+        {
+            if (archive != fileToExtract)
+            {
+                return;
+            }
+
+            Exception e = task.getException() instanceof Exception ex ? ex : new Exception(task.getException());
+
+            invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
+            sendErrorPushNotification(detailArea, e);
         });
+
+        passwordCheckTask = task;
+
+        Thread passwordCheckThread = new Thread(task, "VorteX-PasswordCheck");
+        passwordCheckThread.setDaemon(true);
+        passwordCheckThread.start();
     }
 
-    public static void initExtract(Stage stage, HostServices hostServices, TextArea detailArea, Button extract, PasswordField password)
+    public static void initExtract(Stage stage, HostServices hostServices, TextArea detailArea, Button extract, Button verify, PasswordField password)
     {
         extract.setOnAction(event ->
         {
-            try
+            if (Boolean.FALSE.equals(passwordAccepted))
             {
-                DirectoryChooser directoryChooser = creator.createDirectoryChooser("Save as...");
+                invalidAction(detailArea, "The entered password is wrong for '" + fileToExtract.getName() + "', extraction was not started.");
+                return;
+            }
 
-                File extractIn = directoryChooser.showDialog(stage);
+            DirectoryChooser directoryChooser = creator.createDirectoryChooser("Save as...");
 
-                if (extractIn == null)
-                {
-                    return;
-                }
+            File extractIn = directoryChooser.showDialog(stage);
 
-                validAction(detailArea, "File '" + fileToExtract.getName() + "' will be extracted in directory " + extractIn.getAbsolutePath());
-                validAction(detailArea, "Extraction started...");
+            if (extractIn == null)
+            {
+                return;
+            }
 
-                ZipFile zipFile = new ZipFile(fileToExtract, password.getText().toCharArray());
+            File archive = fileToExtract;
+            DecodedPathIndex index = pathIndex;
+            List<FileHeader> selectedHeaders = pathTrie.getSelectedFileHeaders();
+            ExtractionPolicy policy = extractionPolicy;
+            char[] secret = password.getText().toCharArray();
 
-                Base32Codec.decodeAndExtractFile(zipFile, filesToExtract, extractIn.getAbsolutePath());
+            validAction(detailArea, "File '" + archive.getName() + "' will be extracted in directory " + extractIn.getAbsolutePath());
+            validAction(detailArea, "Extraction started...");
 
-                int fileCount = 0;
-                int directoryCount = 0;
+            extract.setDisable(true);
+            verify.setDisable(true);
 
-                for (FileHeader fileHeader : zipFile.getFileHeaders())
+            Task<Integer> task = new Task<>()
+            {
+                @Override
+                protected Integer call() throws Exception
                 {
-                    if (FilenameUtils.getExtension(fileHeader.getFileName()).isBlank())
+                    try (ArchiveReader archiveReader = new ArchiveReader(archive, secret))
                     {
-                        directoryCount++;
-                        continue;
-                    }
+                        archiveReader.setCipherBackend(cipherBackend);
+                        archiveReader.setFileHeaders(index.getFileHeaders());
 
-                    fileCount++;
+                        return Base32Codec.decodeAndExtractFile(archiveReader, index, selectedHeaders, extractIn.getAbsolutePath(), archiveWorkers, policy);
+                    }
                 }
 
-                String text = String.format("Successfully extracted %d files and %d directories from %s to '%s'.", fileCount, directoryCount, fileToExtract.getName(), extractIn.getAbsolutePath());
+                @Override
+                protected void succeeded()
+                {
+                    int extractedCount = getValue();
+
+                    long directoryCount = selectedHeaders.stream().filter(FileHeader::isDirectory).count();
+                    long unchangedCount = selectedHeaders.size() - directoryCount - extractedCount;
 
-                validAction(detailArea, text);
+                    String text = String.format("Successfully extracted %d files and %d directories from %s to '%s', %d unchanged files were skipped.", extractedCount, directoryCount, archive.getName(), extractIn.getAbsolutePath(), unchangedCount);
 
-                extract.setDisable(true);
+                    validAction(detailArea, text);
 
-                fileToExtract = null;
+                    if (fileToExtract == archive)
+                    {
+                        fileToExtract = null;
+                    }
 
-                String caption = "Successfully extracted '" + zipFile.getFile().getName() + "'";
+                    extract.setDisable(fileToExtract == null || password.getText().isBlank() || Boolean.FALSE.equals(passwordAccepted));
+                    verify.setDisable(fileToExtract == null || password.getText().isBlank());
 
-                sendPushNotification(detailArea, (e) -> hostServices.showDocument(extractIn.getAbsolutePath()), TrayIcon.MessageType.INFO, caption, text);
+                    String caption = "Successfully extracted '" + archive.getName() + "'";
 
-                if (autoOpenExplorer)
-                {
-                    hostServices.showDocument(extractIn.getAbsolutePath());
+                    sendPushNotification(detailArea, (e) -> hostServices.showDocument(extractIn.getAbsolutePath()), TrayIcon.MessageType.INFO, caption, text);
+
+                    if (autoOpenExplorer)
+                    {
+                        hostServices.showDocument(extractIn.getAbsolutePath());
+                    }
                 }
-            }
-            catch (Exception e)
+            };
+
+            task.setOnFailed(e ->
             {
-                sendErrorPushNotification(detailArea, e);
+                Exception ex = task.getException() instanceof Exception exception ? exception : new Exception(task.getException());
+
+                extract.setDisable(fileToExtract == null || password.getText().isBlank() || Boolean.FALSE.equals(passwordAccepted));
+                verify.setDisable(fileToExtract == null || password.getText().isBlank());
+
+                sendErrorPushNotification(detailArea, ex);
 
-                if (e instanceof ZipException zipE)
+                if (ex instanceof ZipException zipE)
                 {
                     invalidAction(detailArea, zipE.getMessage() + ".");
                     return;
                 }
 
-                invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
-            }
+                invalidAction(detailArea, ExceptionUtils.getStackTrace(ex));
+            });
+
+            Thread extractionThread = new Thread(task, "VorteX-ArchiveExtraction");
+            extractionThread.setDaemon(true);
+            extractionThread.start();
         });
     }
 
-    public static void initExtractionPreview(ZipFile zipFile, TextArea detailArea, Button extract) throws ZipException
+    public static void initVerify(TextArea detailArea, Button verify, PasswordField password)
     {
-        AnchorPane anchorPane = new AnchorPane();
-
-        CheckBoxTreeItem<String> rootItem = new CheckBoxTreeItem<>();
-
-        for (FileHeader fileHeader : zipFile.getFileHeaders())
+        verify.setOnAction(event ->
         {
-            filesToExtract.add(fileHeader);
+            File archive = fileToExtract;
+            DecodedPathIndex index = pathIndex;
+            char[] secret = password.getText().toCharArray();
 
-            String[] parts = fileHeader.getFileName().split("/");
+            validAction(detailArea, "Verification of '" + archive.getName() + "' started...");
 
-            CheckBoxTreeItem<String> currentItem = rootItem;
+            verify.setDisable(true);
 
-            for (String part : parts)
+            Task<Map<FileHeader, IOException>> task = new Task<>()
             {
-                CheckBoxTreeItem<String> foundChild = null;
-
-                String decodedPart = Base32Codec.decodeEncodedPart(part);
+                private long duration;
 
-                for (TreeItem<String> child : currentItem.getChildren())
+                @Override
+                protected Map<FileHeader, IOException> call() throws Exception
                 {
-                    if (child.getValue().equals(decodedPart))
+                    long start = System.nanoTime();
+
+                    try (ArchiveReader archiveReader = new ArchiveReader(archive, secret))
                     {
-                        foundChild = (CheckBoxTreeItem<String>) child;
-                        break;
+                        archiveReader.setCipherBackend(cipherBackend);
+                        archiveReader.setFileHeaders(index.getFileHeaders());
+
+                        Map<FileHeader, IOException> failures = new ArchiveExtractor(archiveReader, archiveWorkers).verify(index.getFileHeaders());
+
+                        duration = System.nanoTime() - start;
+                        return failures;
                     }
                 }
 
-                if (foundChild == null)
+                @Override
+                protected void succeeded()
                 {
-                    CheckBoxTreeItem<String> newChild = new CheckBoxTreeItem<>(decodedPart);
+                    Map<FileHeader, IOException> failures = getValue();
 
-                    currentItem.getChildren().add(newChild);
+                    verify.setDisable(fileToExtract == null || password.getText().isBlank());
 
-                    currentItem = newChild;
-                    currentItem.setSelected(true);
-                    currentItem.setIndependent(true);
+                    String time = DurationFormatUtils.formatDuration(TimeUnit.NANOSECONDS.toMillis(duration), "HH:mm:ss.SSS");
 
-                    currentItem.selectedProperty().addListener((obs, oldVal, newVal) ->
+                    if (failures.isEmpty())
                     {
-                        String text = detailArea.getText();
-                        String[] lines = text.split("\n");
+                        String text = String.format("Verified %d files of '%s' in %s, no corrupt entries found.", index.getFileCount(), archive.getName(), time);
 
-                        if (!newVal)
-                        {
-                            filesToExtract.remove(fileHeader);
+                        validAction(detailArea, text);
+                        sendPushNotification(detailArea, null, TrayIcon.MessageType.INFO, "Successfully verified '" + archive.getName() + "'", text);
+                        return;
+                    }
 
-                            if (filesToExtract.isEmpty())
-                            {
-                                extract.setDisable(true);
-                            }
+                    failures.entrySet().stream()
+                            .sorted(Comparator.comparing(entry -> index.getPath(entry.getKey())))
+                            .forEach(entry -> invalidAction(detailArea, "Corrupt entry '" + index.getPath(entry.getKey()) + "': " + entry.getValue().getMessage() + "."));
 
-                            String validText = "Removed '" + decodedPart + "' from extraction list.";
+                    String text = String.format("Found %d corrupt of %d files in '%s' in %s.", failures.size(), index.getFileCount(), archive.getName(), time);
 
-                            if (!lines[lines.length - 1].equals(validText))
-                            {
-                                validAction(detailArea, validText);
-                            }
-                            return;
-                        }
+                    invalidAction(detailArea, text);
+                    sendPushNotification(detailArea, null, TrayIcon.MessageType.WARNING, "Verification of '" + archive.getName() + "' failed", text);
+                }
+            };
 
-                        filesToExtract.add(fileHeader);
+            task.setOnFailed(e ->
+            {
+                Exception ex = task.getException() instanceof Exception exception ? exception : new Exception(task.getException());
 
-                        String validText = "Added '" + decodedPart + "' to extraction list.";
+                verify.setDisable(fileToExtract == null || password.getText().isBlank());
 
-                        if (!lines[lines.length - 1].equals(validText))
-                        {
-                            validAction(detailArea, validText);
-                        }
+                sendErrorPushNotification(detailArea, ex);
 
-                        extract.setDisable(false);
-                    });
-                    continue;
+                if (ex instanceof ZipException zipE)
+                {
+                    invalidAction(detailArea, zipE.getMessage() + ".");
+                    return;
                 }
 
-                currentItem = foundChild;
-                currentItem.setSelected(true);
-                currentItem.setIndependent(false);
+                invalidAction(detailArea, ExceptionUtils.getStackTrace(ex));
+            });
+
+            Thread verifyThread = new Thread(task, "VorteX-ArchiveVerification");
+            verifyThread.setDaemon(true);
+            verifyThread.start();
+        });
+    }
+
+    public static void initExtractionPolicy(ComboBox<ExtractionPolicy> policy)
+    {
+        policy.setOnAction(event -> extractionPolicy = policy.getValue());
+    }
+
+    public static void initFilter(TextArea detailArea, Button filter, TextField include, TextField exclude, Button extract)
+    {
+        include.setOnAction(event -> filter.fire());
+        exclude.setOnAction(event -> filter.fire());
+
+        filter.setOnAction(event ->
+        {
+            try
+            {
+                PathFilter pathFilter = PathFilter.parse(include.getText(), exclude.getText());
+
+                long start = System.nanoTime();
+
+                pathTrie.select(pathFilter);
+
+                long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                refreshingPreview = true;
 
-                currentItem.selectedProperty().addListener((obs, oldVal, newVal) ->
+                try
                 {
-                    String text = detailArea.getText();
-                    String[] lines = text.split("\n");
+                    previewRoot.refresh();
+                }
+                finally
+                {
+                    refreshingPreview = false;
+                }
 
-                    if (!newVal)
-                    {
-                        filesToExtract.remove(fileHeader);
+                extract.setDisable(pathTrie.getSelectedCount() == 0 || Boolean.FALSE.equals(passwordAccepted));
 
-                        if (filesToExtract.isEmpty())
-                        {
-                            extract.setDisable(true);
-                        }
+                validAction(detailArea, String.format("Selected %d of %d entries matching the filter in %d ms.", pathTrie.getSelectedCount(), pathIndex.getFileHeaders().size(), duration));
+            }
+            catch (PatternSyntaxException e)
+            {
+                invalidAction(detailArea, "Invalid filter pattern '" + e.getPattern() + "': " + e.getDescription() + ".");
+            }
+        });
+    }
 
-                        String validText = "Removed '" + decodedPart + "' from extraction list.";
+    private static void initPreviewSelection(PreviewTreeItem rootItem, TextArea detailArea, Button extract)
+    {
+        rootItem.addEventHandler(CheckBoxTreeItem.<String>checkBoxSelectionChangedEvent(), event ->
+        {
+            if (refreshingPreview || !(event.getTreeItem() instanceof PreviewTreeItem item) || item.isIndeterminate())
+            {
+                return;
+            }
 
-                        if (!lines[lines.length - 1].equals(validText))
-                        {
-                            validAction(detailArea, validText);
-                        }
-                        return;
-                    }
+            PathTrie.Node node = item.getNode();
 
-                    filesToExtract.add(fileHeader);
+            if (item.isSelected() == node.isSelected())
+            {
+                return;
+            }
 
-                    String validText = "Added '" + decodedPart + "' to extraction list.";
+            pathTrie.setSelected(node, item.isSelected());
 
-                    if (!lines[lines.length - 1].equals(validText))
-                    {
-                        validAction(detailArea, validText);
-                    }
+            refreshingPreview = true;
 
-                    extract.setDisable(false);
-                });
+            try
+            {
+                rootItem.refresh();
+            }
+            finally
+            {
+                refreshingPreview = false;
             }
-        }
+
+            extract.setDisable(pathTrie.getSelectedCount() == 0 || Boolean.FALSE.equals(passwordAccepted));
+
+            String validText = (item.isSelected() ? "Added '" : "Removed '") + node.getName() + (item.isSelected() ? "' to extraction list." : "' from extraction list.");
+
+            validAction(detailArea, validText);
+        });
+    }
+
+    public static void initExtractionPreview(PreviewTreeItem rootItem, Button extract)
+    {
+        AnchorPane anchorPane = new AnchorPane();
 
         CheckTreeView<String> checkTreeView = new CheckTreeView<>(rootItem);
         checkTreeView.setShowRoot(false);
@@ -419,7 +697,18 @@ public class ArchiveExtractionHandler
 
     private static void reset(Stage stage, HostServices hostServices, AnchorPane anchorPane, TextArea detailArea, Button extractArchive)
     {
+        if (previewTask != null)
+        {
+            previewTask.cancel();
+        }
+
+        if (passwordCheckTask != null)
+        {
+            passwordCheckTask.cancel();
+        }
+
         fileToExtract = null;
+        passwordAccepted = null;
 
         initRoot(stage, hostServices, anchorPane, detailArea, extractArchive);
     }
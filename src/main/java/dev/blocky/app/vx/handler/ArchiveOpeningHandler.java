@@ -17,15 +17,89 @@
  */
 package dev.blocky.app.vx.handler;
 
+import dev.blocky.app.vx.archive.ArchiveDiff;
+import dev.blocky.app.vx.archive.ArchiveMerger;
+import dev.blocky.app.vx.archive.ArchiveReader;
+import dev.blocky.app.vx.archive.EntryCache;
+import dev.blocky.app.vx.archive.index.ContentIndex;
+import dev.blocky.app.vx.archive.index.ContentIndexer;
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import dev.blocky.app.vx.entities.NodeCreator;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.scene.control.*;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 
-import static dev.blocky.app.vx.handler.ActionHandler.lastUsedButton;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static dev.blocky.app.vx.handler.ActionHandler.*;
+import static dev.blocky.app.vx.handler.ArchiveExtractionHandler.loadPathIndex;
+import static dev.blocky.app.vx.handler.SettingHandler.archiveWorkers;
+import static dev.blocky.app.vx.handler.SettingHandler.cipherBackend;
+import static dev.blocky.app.vx.handler.TrayIconHandler.sendErrorPushNotification;
 
 public class ArchiveOpeningHandler
 {
-    public static void initOpenArchive(AnchorPane anchorPane, TextArea detailArea, Button openArchive)
+    private static final NodeCreator creator = new NodeCreator();
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "bmp");
+
+    private static final long ENTRY_CACHE_SIZE = 64L * 1024 * 1024;
+    private static final long MAX_PREVIEW_SIZE = 16L * 1024 * 1024;
+    private static final int MAX_TEXT_PREVIEW_LENGTH = 1024 * 1024;
+    private static final int MAX_LISTED_ENTRIES = 50;
+
+    private static final ExecutorService previewExecutor = Executors.newSingleThreadExecutor(runnable ->
+    {
+        Thread previewThread = new Thread(runnable, "VorteX-ArchivePreview");
+        previewThread.setDaemon(true);
+        return previewThread;
+    });
+
+    private static File archiveToOpen;
+    private static DecodedPathIndex pathIndex;
+    private static List<FileHeader> archiveFiles;
+    private static EntryCache entryCache;
+    private static Task<DecodedPathIndex> loadTask;
+    private static Task<Preview> previewTask;
+    private static Task<List<ContentIndex.Match>> searchTask;
+
+    private static ContentIndex contentIndex;
+    private static File contentIndexArchive;
+    private static String contentIndexPassword;
+
+    private static ArchiveReader archiveReader;
+    private static File readerArchive;
+    private static String readerPassword;
+
+    public static void initOpenArchive(Stage stage, AnchorPane anchorPane, TextArea detailArea, Button openArchive)
     {
         openArchive.setOnAction(event ->
         {
@@ -33,8 +107,675 @@ public class ArchiveOpeningHandler
             lastUsedButton = openArchive;
             openArchive.setDisable(true);
 
-            anchorPane.getChildren().clear();
-            anchorPane.getChildren().add(detailArea);
+            initBrowser(stage, anchorPane, detailArea, null);
+        });
+    }
+
+    public static void initBrowser(Stage stage, AnchorPane anchorPane, TextArea detailArea, File archive)
+    {
+        anchorPane.getChildren().clear();
+
+        Button chooseArchive = creator.createButton("Choose archive", 10, 100, 150, false);
+
+        PasswordField password = creator.createPasswordField("Enter the password of the archive", 170, 100);
+
+        TextField query = creator.createTextField("Search the contents, e.g. connection refused", null, 10, 140, 185, true, true, true, true);
+
+        Button search = creator.createButton("Search", 200, 140, 95, true);
+        Button index = creator.createButton("Index", 300, 140, 95, true);
+        Button compare = creator.createButton("Compare", 400, 140, 95, true);
+        Button merge = creator.createButton("Merge", 500, 140, 95, true);
+
+        TableView<FileHeader> entryTable = new TableView<>();
+        entryTable.setPrefSize(285, 225);
+        entryTable.setTranslateX(10);
+        entryTable.setTranslateY(180);
+        entryTable.setPlaceholder(new Label("Choose an archive to browse its entries"));
+
+        TextArea textPreview = creator.createTextArea(null, 305, 180);
+        textPreview.setPrefSize(290, 225);
+        textPreview.setEditable(false);
+
+        ImageView imagePreview = creator.createImageView(null, 290, 225, 305, 180);
+        imagePreview.setPreserveRatio(true);
+        imagePreview.setVisible(false);
+
+        anchorPane.getChildren().addAll(detailArea, chooseArchive, password, query, search, index, compare, merge, entryTable, textPreview, imagePreview);
+
+        entryTable.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) ->
+                showPreview(detailArea, entryTable, password, textPreview, imagePreview, newVal));
+
+        List<Control> archiveControls = List.of(query, search, index, compare, merge);
+
+        initChooseArchive(stage, detailArea, chooseArchive, entryTable, textPreview, imagePreview, archiveControls);
+        initIndex(detailArea, index, password);
+        initSearch(detailArea, query, search, password, entryTable);
+        initCompare(stage, detailArea, compare);
+        initMerge(stage, detailArea, merge, password, entryTable, textPreview, imagePreview, archiveControls);
+
+        if (archive != null)
+        {
+            loadArchive(detailArea, entryTable, textPreview, imagePreview, archiveControls, archive);
+        }
+    }
+
+    public static void initChooseArchive(Stage stage, TextArea detailArea, Button chooseArchive, TableView<FileHeader> entryTable, TextArea textPreview, ImageView imagePreview, List<Control> archiveControls)
+    {
+        chooseArchive.setOnAction(event ->
+        {
+            List<FileChooser.ExtensionFilter> extensionFilter = Collections.singletonList(new FileChooser.ExtensionFilter("VorteX Archive", "*.vxar"));
+
+            FileChooser fileChooser = creator.createFileChooser("Choose a archive", null, null, extensionFilter);
+
+            File file = fileChooser.showOpenDialog(stage);
+
+            if (file != null)
+            {
+                loadArchive(detailArea, entryTable, textPreview, imagePreview, archiveControls, file);
+            }
+        });
+    }
+
+    public static void initIndex(TextArea detailArea, Button index, PasswordField password)
+    {
+        index.setOnAction(event ->
+        {
+            File archive = archiveToOpen;
+            DecodedPathIndex decodedPathIndex = pathIndex;
+            String secret = password.getText();
+
+            if (archive == null)
+            {
+                return;
+            }
+
+            index.setDisable(true);
+
+            Task<Integer> task = new Task<>()
+            {
+                @Override
+                protected Integer call() throws Exception
+                {
+                    try (ArchiveReader reader = new ArchiveReader(archive, secret.toCharArray()))
+                    {
+                        reader.setCipherBackend(cipherBackend);
+                        reader.setFileHeaders(decodedPathIndex.getFileHeaders());
+
+                        ContentIndexer indexer = new ContentIndexer(reader, decodedPathIndex);
+                        indexer.setWorkers(archiveWorkers);
+                        return indexer.writeIndex(archive, secret.toCharArray());
+                    }
+                }
+
+                @Override
+                protected void succeeded()
+                {
+                    index.setDisable(false);
+
+                    if (archive.equals(contentIndexArchive))
+                    {
+                        contentIndex = null;
+                        contentIndexArchive = null;
+                        contentIndexPassword = null;
+                    }
+
+                    validAction(detailArea, String.format("Indexed the contents of %d text files in '%s'.", getValue(), archive.getName()));
+                }
+            };
+
+            task.setOnFailed(failedEvent ->
+            {
+                Exception e = task.getException() instanceof Exception ex ? ex : new Exception(task.getException());
+
+                index.setDisable(false);
+
+                if (e instanceof ZipException zipE)
+                {
+                    invalidAction(detailArea, zipE.getMessage() + ".");
+                    return;
+                }
+
+                invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
+                sendErrorPushNotification(detailArea, e);
+            });
+
+            Thread indexThread = new Thread(task, "VorteX-ContentIndexer");
+            indexThread.setDaemon(true);
+            indexThread.start();
+        });
+    }
+
+    public static void initSearch(TextArea detailArea, TextField query, Button search, PasswordField password, TableView<FileHeader> entryTable)
+    {
+        query.setOnAction(event -> search.fire());
+
+        search.setOnAction(event ->
+        {
+            File archive = archiveToOpen;
+            DecodedPathIndex decodedPathIndex = pathIndex;
+            String secret = password.getText();
+            String text = query.getText();
+
+            if (archive == null)
+            {
+                return;
+            }
+
+            if (searchTask != null)
+            {
+                searchTask.cancel();
+            }
+
+            if (text.isBlank())
+            {
+                entryTable.setItems(FXCollections.observableList(archiveFiles));
+                return;
+            }
+
+            Task<List<ContentIndex.Match>> task = new Task<>()
+            {
+                @Override
+                protected List<ContentIndex.Match> call() throws Exception
+                {
+                    return openContentIndex(archive, secret).search(text);
+                }
+
+                @Override
+                protected void succeeded()
+                {
+                    if (archive != archiveToOpen)
+                    {
+                        return;
+                    }
+
+                    List<ContentIndex.Match> matches = getValue();
+
+                    ArrayList<FileHeader> fileHeaders = new ArrayList<>(matches.size());
+                    StringBuilder details = new StringBuilder(String.format("Found '%s' in %d files.", text.strip(), matches.size()));
+
+                    for (ContentIndex.Match match : matches)
+                    {
+                        fileHeaders.add(decodedPathIndex.getFileHeaders().get(match.entry()));
+
+                        if (fileHeaders.size() <= MAX_LISTED_ENTRIES)
+                        {
+                            details.append(System.lineSeparator()).append(match.path());
+
+                            for (Map.Entry<String, long[]> offsets : match.offsets().entrySet())
+                            {
+                                details.append(" '").append(offsets.getKey()).append("' @ ").append(Arrays.toString(offsets.getValue()));
+                            }
+                        }
+                    }
+
+                    entryTable.setItems(FXCollections.observableList(fileHeaders));
+                    validAction(detailArea, details.toString());
+                }
+            };
+
+            task.setOnFailed(failedEvent ->
+            {
+                Exception e = task.getException() instanceof Exception ex ? ex : new Exception(task.getException());
+
+                if (e instanceof ZipException zipE)
+                {
+                    invalidAction(detailArea, zipE.getMessage() + ".");
+                    return;
+                }
+
+                invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
+                sendErrorPushNotification(detailArea, e);
+            });
+
+            searchTask = task;
+
+            Thread searchThread = new Thread(task, "VorteX-ContentSearch");
+            searchThread.setDaemon(true);
+            searchThread.start();
+        });
+    }
+
+    public static void initCompare(Stage stage, TextArea detailArea, Button compare)
+    {
+        compare.setOnAction(event ->
+        {
+            File archive = archiveToOpen;
+            DecodedPathIndex decodedPathIndex = pathIndex;
+
+            if (archive == null)
+            {
+                return;
+            }
+
+            List<FileChooser.ExtensionFilter> extensionFilter = Collections.singletonList(new FileChooser.ExtensionFilter("VorteX Archive", "*.vxar"));
+
+            FileChooser fileChooser = creator.createFileChooser("Choose a archive to compare with", archive.getParent(), null, extensionFilter);
+
+            File other = fileChooser.showOpenDialog(stage);
+
+            if (other == null)
+            {
+                return;
+            }
+
+            compare.setDisable(true);
+
+            Task<ArchiveDiff> task = new Task<>()
+            {
+                @Override
+                protected ArchiveDiff call() throws Exception
+                {
+                    return ArchiveDiff.compare(decodedPathIndex, loadPathIndex(other));
+                }
+
+                @Override
+                protected void succeeded()
+                {
+                    compare.setDisable(false);
+
+                    ArchiveDiff diff = getValue();
+
+                    StringBuilder details = new StringBuilder(String.format("Compared '%s' with '%s': %d added, %d removed, %d modified, %d touched.",
+                            archive.getName(), other.getName(), diff.getCount(ArchiveDiff.ChangeType.ADDED), diff.getCount(ArchiveDiff.ChangeType.REMOVED),
+                            diff.getCount(ArchiveDiff.ChangeType.MODIFIED), diff.getCount(ArchiveDiff.ChangeType.TOUCHED)));
+
+                    List<ArchiveDiff.Change> changes = diff.getChanges();
+
+                    for (ArchiveDiff.Change change : changes.subList(0, Math.min(changes.size(), MAX_LISTED_ENTRIES)))
+                    {
+                        String marker = switch (change.type())
+                        {
+                            case ADDED -> "+ ";
+                            case REMOVED -> "- ";
+                            case MODIFIED -> "~ ";
+                            case TOUCHED -> "* ";
+                        };
+
+                        details.append(System.lineSeparator()).append(marker).append(change.path());
+                    }
+
+                    validAction(detailArea, details.toString());
+                }
+            };
+
+            task.setOnFailed(failedEvent ->
+            {
+                Exception e = task.getException() instanceof Exception ex ? ex : new Exception(task.getException());
+
+                compare.setDisable(false);
+
+                if (e instanceof ZipException zipE)
+                {
+                    invalidAction(detailArea, zipE.getMessage() + ".");
+                    return;
+                }
+
+                invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
+                sendErrorPushNotification(detailArea, e);
+            });
+
+            Thread compareThread = new Thread(task, "VorteX-ArchiveComparison");
+            compareThread.setDaemon(true);
+            compareThread.start();
+        });
+    }
+
+    public static void initMerge(Stage stage, TextArea detailArea, Button merge, PasswordField password, TableView<FileHeader> entryTable, TextArea textPreview, ImageView imagePreview, List<Control> archiveControls)
+    {
+        merge.setOnAction(event ->
+        {
+            File archive = archiveToOpen;
+            String secret = password.getText();
+
+            if (archive == null)
+            {
+                return;
+            }
+
+            List<FileChooser.ExtensionFilter> extensionFilter = Collections.singletonList(new FileChooser.ExtensionFilter("VorteX Archive", "*.vxar"));
+
+            FileChooser fileChooser = creator.createFileChooser("Choose archives to merge into '" + archive.getName() + "'", archive.getParent(), null, extensionFilter);
+
+            List<File> sources = fileChooser.showOpenMultipleDialog(stage);
+
+            if (sources == null || sources.isEmpty())
+            {
+                return;
+            }
+
+            if (previewTask != null)
+            {
+                previewTask.cancel();
+            }
+
+            closeReader(archive);
+
+            for (Control control : archiveControls)
+            {
+                control.setDisable(true);
+            }
+
+            entryTable.setDisable(true);
+
+            validAction(detailArea, "Merging " + sources.size() + " archives into '" + archive.getName() + "'...");
+
+            Task<ArchiveMerger.MergeResult> task = new Task<>()
+            {
+                @Override
+                protected ArchiveMerger.MergeResult call() throws Exception
+                {
+                    ArchiveMerger merger = new ArchiveMerger(archive, secret.toCharArray());
+                    merger.setCipherBackend(cipherBackend);
+                    return merger.merge(sources);
+                }
+
+                @Override
+                protected void succeeded()
+                {
+                    ArchiveMerger.MergeResult result = getValue();
+
+                    closeReader(archive);
+                    entryTable.setDisable(false);
+
+                    if (archive.equals(archiveToOpen))
+                    {
+                        loadArchive(detailArea, entryTable, textPreview, imagePreview, archiveControls, archive);
+                    }
+
+                    validAction(detailArea, String.format("Merged %d files into '%s' (%d already present, %d re-encrypted for the archive key).",
+                            result.copiedEntries(), archive.getName(), result.skippedEntries(), result.reencryptedEntries()));
+                }
+            };
+
+            task.setOnFailed(failedEvent ->
+            {
+                Exception e = task.getException() instanceof Exception ex ? ex : new Exception(task.getException());
+
+                for (Control control : archiveControls)
+                {
+                    control.setDisable(false);
+                }
+
+                entryTable.setDisable(false);
+
+                if (e instanceof ZipException zipE)
+                {
+                    invalidAction(detailArea, zipE.getMessage() + ".");
+                    return;
+                }
+
+                invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
+                sendErrorPushNotification(detailArea, e);
+            });
+
+            Thread mergeThread = new Thread(task, "VorteX-ArchiveMerge");
+            mergeThread.setDaemon(true);
+            mergeThread.start();
+        });
+    }
+
+    private static synchronized ContentIndex openContentIndex(File archive, String password) throws IOException
+    {
+        if (contentIndex != null && archive.equals(contentIndexArchive) && password.equals(contentIndexPassword))
+        {
+            return contentIndex;
+        }
+
+        ContentIndex index = ContentIndex.load(archive, password.toCharArray());
+
+        contentIndex = index;
+        contentIndexArchive = archive;
+        contentIndexPassword = password;
+        return index;
+    }
+
+    private static void loadArchive(TextArea detailArea, TableView<FileHeader> entryTable, TextArea textPreview, ImageView imagePreview, List<Control> archiveControls, File file)
+    {
+        if (loadTask != null)
+        {
+            loadTask.cancel();
+        }
+
+        if (previewTask != null)
+        {
+            previewTask.cancel();
+        }
+
+        archiveToOpen = null;
+        pathIndex = null;
+        archiveFiles = null;
+        entryCache = null;
+
+        for (Control control : archiveControls)
+        {
+            control.setDisable(true);
+        }
+
+        entryTable.getItems().clear();
+        showText(textPreview, imagePreview, null);
+
+        Task<DecodedPathIndex> task = new Task<>()
+        {
+            private ArrayList<FileHeader> fileHeaders;
+
+            @Override
+            protected DecodedPathIndex call() throws Exception
+            {
+                DecodedPathIndex index = loadPathIndex(file);
+
+                fileHeaders = new ArrayList<>((int) index.getFileCount());
+
+                for (FileHeader fileHeader : index.getFileHeaders())
+                {
+                    if (!fileHeader.isDirectory())
+                    {
+                        fileHeaders.add(fileHeader);
+                    }
+                }
+                return index;
+            }
+
+            @Override
+            protected void succeeded()
+            {
+                DecodedPathIndex index = getValue();
+
+                archiveToOpen = file;
+                pathIndex = index;
+                archiveFiles = fileHeaders;
+                entryCache = new EntryCache(ENTRY_CACHE_SIZE);
+
+                TableColumn<FileHeader, String> nameColumn = new TableColumn<>("Name");
+                nameColumn.setPrefWidth(185);
+                nameColumn.setSortable(false);
+                nameColumn.setCellValueFactory(features -> new ReadOnlyStringWrapper(index.getPath(features.getValue())));
+
+                TableColumn<FileHeader, String> sizeColumn = new TableColumn<>("Size");
+                sizeColumn.setPrefWidth(80);
+                sizeColumn.setSortable(false);
+                sizeColumn.setCellValueFactory(features -> new ReadOnlyStringWrapper(FileUtils.byteCountToDisplaySize(features.getValue().getUncompressedSize())));
+
+                entryTable.getColumns().setAll(List.of(nameColumn, sizeColumn));
+                entryTable.setItems(FXCollections.observableList(fileHeaders));
+
+                for (Control control : archiveControls)
+                {
+                    control.setDisable(false);
+                }
+
+                validAction(detailArea, String.format("Opened '%s' with %d files and %d directories.", file.getName(), index.getFileCount(), index.getDirectoryCount()));
+            }
+        };
+
+        task.setOnFailed(event ->
+        {
+            Exception e = task.getException() instanceof Exception ex ? ex : new Exception(task.getException());
+
+            invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
+            sendErrorPushNotification(detailArea, e);
+        });
+
+        loadTask = task;
+
+        Thread loadThread = new Thread(task, "VorteX-ArchiveBrowser");
+        loadThread.setDaemon(true);
+        loadThread.start();
+    }
+
+    private static void showPreview(TextArea detailArea, TableView<FileHeader> entryTable, PasswordField password, TextArea textPreview, ImageView imagePreview, FileHeader fileHeader)
+    {
+        if (previewTask != null)
+        {
+            previewTask.cancel();
+        }
+
+        if (fileHeader == null || pathIndex == null)
+        {
+            showText(textPreview, imagePreview, null);
+            return;
+        }
+
+        String name = pathIndex.getName(fileHeader);
+        String extension = FilenameUtils.getExtension(name).toLowerCase(Locale.ROOT);
+
+        boolean image = IMAGE_EXTENSIONS.contains(extension);
+
+        if (!image && !ContentIndexer.TEXT_EXTENSIONS.contains(extension))
+        {
+            showText(textPreview, imagePreview, "No preview available for '" + name + "'.");
+            return;
+        }
+
+        if (fileHeader.getUncompressedSize() > MAX_PREVIEW_SIZE)
+        {
+            showText(textPreview, imagePreview, "'" + name + "' is too large to preview (" + FileUtils.byteCountToDisplaySize(fileHeader.getUncompressedSize()) + ").");
+            return;
+        }
+
+        String secret = password.getText();
+
+        File archive = archiveToOpen;
+        DecodedPathIndex index = pathIndex;
+        EntryCache cache = entryCache;
+
+        if (secret.isBlank() && fileHeader.isEncrypted() && cache.get(fileHeader) == null)
+        {
+            showText(textPreview, imagePreview, "Enter the password of the archive to preview '" + name + "'.");
+            return;
+        }
+
+        Task<Preview> task = new Task<>()
+        {
+            @Override
+            protected Preview call() throws Exception
+            {
+                byte[] data = cache.get(fileHeader);
+
+                if (data == null)
+                {
+                    try (InputStream in = openReader(archive, index, secret).openEntry(fileHeader))
+                    {
+                        data = IOUtils.toByteArray(in);
+                    }
+
+                    cache.put(fileHeader, data);
+                }
+
+                if (image)
+                {
+                    Image preview = new Image(new ByteArrayInputStream(data));
+                    return preview.isError() ? new Preview("Unable to decode '" + name + "' as an image.", null) : new Preview(null, preview);
+                }
+                return new Preview(new String(data, 0, Math.min(data.length, MAX_TEXT_PREVIEW_LENGTH), StandardCharsets.UTF_8), null);
+            }
+
+            @Override
+            protected void succeeded()
+            {
+                if (entryTable.getSelectionModel().getSelectedItem() != fileHeader)
+                {
+                    return;
+                }
+
+                Preview preview = getValue();
+
+                if (preview.image() == null)
+                {
+                    showText(textPreview, imagePreview, preview.text());
+                    return;
+                }
+
+                imagePreview.setImage(preview.image());
+                imagePreview.setVisible(true);
+                textPreview.setVisible(false);
+            }
+        };
+
+        task.setOnFailed(event ->
+        {
+            Exception e = task.getException() instanceof Exception ex ? ex : new Exception(task.getException());
+
+            showText(textPreview, imagePreview, null);
+
+            if (e instanceof ZipException zipE)
+            {
+                invalidAction(detailArea, zipE.getMessage() + ".");
+                return;
+            }
+
+            invalidAction(detailArea, ExceptionUtils.getStackTrace(e));
+            sendErrorPushNotification(detailArea, e);
         });
+
+        previewTask = task;
+        previewExecutor.submit(task);
+    }
+
+    private static ArchiveReader openReader(File archive, DecodedPathIndex index, String password) throws IOException
+    {
+        if (archiveReader != null && archive.equals(readerArchive) && password.equals(readerPassword))
+        {
+            return archiveReader;
+        }
+
+        if (archiveReader != null)
+        {
+            archiveReader.close();
+            archiveReader = null;
+        }
+
+        ArchiveReader reader = new ArchiveReader(archive, password.toCharArray());
+        reader.setCipherBackend(cipherBackend);
+        reader.setFileHeaders(index.getFileHeaders());
+
+        archiveReader = reader;
+        readerArchive = archive;
+        readerPassword = password;
+        return reader;
+    }
+
+    private static void closeReader(File archive)
+    {
+        if (archiveReader != null && archive.equals(readerArchive))
+        {
+            IOUtils.closeQuietly(archiveReader);
+
+            archiveReader = null;
+            readerArchive = null;
+            readerPassword = null;
+        }
+    }
+
+    private static void showText(TextArea textPreview, ImageView imagePreview, String text)
+    {
+        imagePreview.setImage(null);
+        imagePreview.setVisible(false);
+
+        textPreview.setText(text);
+        textPreview.setVisible(true);
+    }
+
+    private record Preview(String text, Image image)
+    {
     }
 }
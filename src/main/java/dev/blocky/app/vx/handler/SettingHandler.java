@@ -19,6 +19,7 @@ package dev.blocky.app.vx.handler;
 
 import com.sun.jna.platform.win32.Advapi32Util;
 import com.sun.jna.platform.win32.WinReg;
+import dev.blocky.app.vx.archive.crypto.CipherBackend;
 import dev.blocky.app.vx.entities.NodeCreator;
 import dev.blocky.app.vx.windows.api.dwm.DWMAttribute;
 import javafx.application.HostServices;
@@ -68,6 +69,12 @@ public class SettingHandler
 
     public static boolean defaultDarkMode = false, updateCheck = true, pushNotifications = true, autoOpenExplorer = false;
 
+    public static final int MAX_ARCHIVE_WORKERS = Runtime.getRuntime().availableProcessors() * 4;
+
+    public static int archiveWorkers = Runtime.getRuntime().availableProcessors();
+
+    public static CipherBackend cipherBackend = CipherBackend.JCE;
+
     public static void initSettings(HostServices hostServices, Scene scene, AnchorPane anchorPane, TextArea detailArea, String script, Button settings)
     {
         settings.setOnAction(event ->
@@ -176,6 +183,8 @@ public class SettingHandler
             pushNotifications = root.getBoolean("push-notifications");
             autoOpenExplorer = root.getBoolean("auto-open-explorer");
             defaultDarkMode = root.getBoolean("default-dark-mode");
+            archiveWorkers = root.optInt("archive-workers", archiveWorkers);
+            cipherBackend = root.optEnum(CipherBackend.class, "cipher-backend", cipherBackend);
 
             Label darkModeLabel = creator.createLabel("Use dark mode (mica must be disabled)", 60, 280);
             ToggleSwitch darkModeSwitch = creator.createToggleSwitch(-8, 280, defaultDarkMode, dwma.value != 1);
@@ -189,6 +198,13 @@ public class SettingHandler
             Label pushNotificationLabel = creator.createLabel("Get push notifications for executed tasks", 60, 355);
             ToggleSwitch pushNotificationSwitch = creator.createToggleSwitch(-8, 355, pushNotifications, false);
 
+            Label archiveWorkersLabel = creator.createLabel("Archive worker threads", 445, 280);
+            TextField archiveWorkersField = creator.createTextField("Workers", String.valueOf(archiveWorkers), 445, 305, 150, true, true, true, false);
+
+            ObservableList<CipherBackend> cipherBackends = FXCollections.observableArrayList(CipherBackend.JCE, CipherBackend.ZIP4J);
+
+            ComboBox<CipherBackend> cipherBackendBox = creator.createComboBox(cipherBackend.name(), 445, 340, 150, cipherBackends, false);
+
             String windowsVersion = String.format("You are currently on: %s %s %s", System.getProperty("os.name"), displayVersion, buildVersion);
 
             Node displayVersionNode = creator.createLabel(windowsVersion, 10, 387);
@@ -206,7 +222,7 @@ public class SettingHandler
                             rCaption, gCaption, bCaption, textLabel, rText, gText, bText, borderLabel, rBorder, gBorder, bBorder,
                             fillLabel, rFill, gFill, bFill, darkModeSwitch, darkModeLabel, checkUpdateSwitch, checkUpdateLabel,
                             autoOpenExplorerSwitch, autoOpenExplorerLabel, pushNotificationSwitch, pushNotificationLabel,
-                            displayVersionNode, checkForUpdates
+                            archiveWorkersLabel, archiveWorkersField, cipherBackendBox, displayVersionNode, checkForUpdates
                     );
 
             initDWMAttribute(scene, detailArea, dwmAttribute, immersiveDarkModeSwitch, darkModeSwitch);
@@ -215,6 +231,8 @@ public class SettingHandler
             initCheckUpdate(detailArea, checkUpdateSwitch);
             initAutoOpenExplorer(detailArea, autoOpenExplorerSwitch);
             initPushNotification(detailArea, pushNotificationSwitch);
+            initArchiveWorkers(detailArea, archiveWorkersField);
+            initCipherBackend(detailArea, cipherBackendBox);
             initCheckForUpdates(hostServices, detailArea, script, checkForUpdates);
         });
     }
@@ -436,6 +454,60 @@ public class SettingHandler
         });
     }
 
+    public static void initArchiveWorkers(TextArea detailArea, TextField archiveWorkersField)
+    {
+        archiveWorkersField.textProperty().addListener((obs, oldVal, newVal) ->
+        {
+            if (!newVal.matches("\\d*"))
+            {
+                archiveWorkersField.setText(RegExUtils.removeAll(newVal, "\\D"));
+                return;
+            }
+
+            if (newVal.isEmpty())
+            {
+                return;
+            }
+
+            int workers = parseArchiveWorkers(newVal);
+
+            if (!String.valueOf(workers).equals(newVal.replaceFirst("^0+(?=\\d)", "")))
+            {
+                archiveWorkersField.setText(String.valueOf(workers));
+                return;
+            }
+
+            archiveWorkers = workers;
+            writeSettingsFile(detailArea, false, null, "archive-workers", archiveWorkers);
+        });
+    }
+
+    public static int parseArchiveWorkers(String value)
+    {
+        try
+        {
+            return clampArchiveWorkers(Long.parseLong(value));
+        }
+        catch (NumberFormatException e)
+        {
+            return MAX_ARCHIVE_WORKERS;
+        }
+    }
+
+    public static int clampArchiveWorkers(long workers)
+    {
+        return (int) Math.max(1, Math.min(MAX_ARCHIVE_WORKERS, workers));
+    }
+
+    public static void initCipherBackend(TextArea detailArea, ComboBox<CipherBackend> cipherBackendBox)
+    {
+        cipherBackendBox.setOnAction(event ->
+        {
+            cipherBackend = cipherBackendBox.getValue();
+            writeSettingsFile(detailArea, false, null, "cipher-backend", cipherBackend.name());
+        });
+    }
+
     public static void initCheckForUpdates(HostServices hostServices, TextArea detailArea, String script, Button checkForUpdates)
     {
         checkForUpdates.setOnAction(e ->
@@ -0,0 +1,147 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.archive.ArchiveDiff.Change;
+import dev.blocky.app.vx.archive.ArchiveDiff.ChangeType;
+import dev.blocky.app.vx.codec.Base32Codec;
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveDiffTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void everyKindOfChangeIsReported() throws IOException
+    {
+        Path root = createTree(tempDir);
+        ZipParameters zipParameters = parameters(EncryptionMethod.AES, AesVersion.ONE);
+        File original = writeArchive(tempDir.resolve("original.vxar").toFile(), root, zipParameters, 1);
+
+        write(root.resolve("docs/readme.txt"), "Read me first, then read me again.");
+        write(root.resolve("docs/added.txt"), "Added later.");
+        Files.createDirectories(root.resolve("extra"));
+        Files.delete(root.resolve("data/Makefile"));
+        Files.delete(root.resolve("empty/dir"));
+
+        Path leaf = root.resolve("deep/a/b/c/leaf.cfg");
+        FileTime leafModified = Files.getLastModifiedTime(leaf);
+        write(leaf, "key=VALUE");
+        Files.setLastModifiedTime(leaf, leafModified);
+
+        Path notes = root.resolve("docs/notes.md");
+        Files.setLastModifiedTime(notes, FileTime.fromMillis(Files.getLastModifiedTime(notes).toMillis() - 3_600_000));
+
+        File revised = writeArchive(tempDir.resolve("revised.vxar").toFile(), root, zipParameters, 1);
+
+        ArchiveDiff archiveDiff = compare(original, revised);
+
+        assertEquals(List.of(
+                new Change("source/data/Makefile", ChangeType.REMOVED),
+                new Change("source/deep/a/b/c/leaf.cfg", ChangeType.MODIFIED),
+                new Change("source/docs/added.txt", ChangeType.ADDED),
+                new Change("source/docs/notes.md", ChangeType.TOUCHED),
+                new Change("source/docs/readme.txt", ChangeType.MODIFIED),
+                new Change("source/empty/dir/", ChangeType.REMOVED),
+                new Change("source/extra/", ChangeType.ADDED)
+        ), archiveDiff.getChanges());
+
+        assertEquals(2, archiveDiff.getCount(ChangeType.ADDED));
+        assertEquals(2, archiveDiff.getCount(ChangeType.REMOVED));
+        assertEquals(2, archiveDiff.getCount(ChangeType.MODIFIED));
+        assertEquals(1, archiveDiff.getCount(ChangeType.TOUCHED));
+    }
+
+    @Test
+    void touchedFileWithoutChecksumIsModified() throws IOException
+    {
+        Path root = createTree(tempDir);
+        ZipParameters zipParameters = parameters(EncryptionMethod.AES, AesVersion.TWO);
+        File original = writeArchive(tempDir.resolve("original.vxar").toFile(), root, zipParameters, 1);
+
+        Path notes = root.resolve("docs/notes.md");
+        Files.setLastModifiedTime(notes, FileTime.fromMillis(Files.getLastModifiedTime(notes).toMillis() - 3_600_000));
+
+        File revised = writeArchive(tempDir.resolve("revised.vxar").toFile(), root, zipParameters, 1);
+
+        assertEquals(List.of(new Change("source/docs/notes.md", ChangeType.MODIFIED)), compare(original, revised).getChanges());
+    }
+
+    @Test
+    void deduplicatedCopyOfTheSameTreeIsUnchanged() throws IOException
+    {
+        Path root = createTree(tempDir);
+        Files.copy(root.resolve("data/random.bin"), root.resolve("docs/random.bin"));
+
+        ZipParameters zipParameters = parameters(EncryptionMethod.AES, AesVersion.ONE);
+        File original = writeArchive(tempDir.resolve("original.vxar").toFile(), root, zipParameters, 1);
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(tempDir.resolve("revised.vxar").toFile(), PASSWORD, zipParameters);
+        archiveWriter.setDeduplicate(true);
+        archiveWriter.writeArchive(scan(root));
+
+        assertTrue(compare(original, tempDir.resolve("revised.vxar").toFile()).isEmpty());
+    }
+
+    @Test
+    void differentlyEncodedNamesAreMatchedByTheirDecodedPath() throws IOException
+    {
+        String encodedDirectory = Base32Codec.encodePath("root/");
+        String encodedName = Base32Codec.encodeDecodedPart("Makefile", false);
+
+        FileHeader withDot = createFileHeader(encodedDirectory + encodedName, 42, 1);
+        FileHeader withoutDot = createFileHeader(encodedDirectory + encodedName.substring(0, encodedName.length() - 1), 42, 1);
+
+        assertNotEquals(withDot.getFileName(), withoutDot.getFileName());
+
+        ArchiveDiff archiveDiff = ArchiveDiff.compare(new DecodedPathIndex(List.of(withDot)), new DecodedPathIndex(List.of(withoutDot)));
+
+        assertTrue(archiveDiff.isEmpty(), archiveDiff.getChanges().toString());
+    }
+
+    private static ArchiveDiff compare(File original, File revised) throws IOException
+    {
+        return ArchiveDiff.compare(new DecodedPathIndex(readFileHeaders(original)), new DecodedPathIndex(readFileHeaders(revised)));
+    }
+
+    private static FileHeader createFileHeader(String name, long size, long crc)
+    {
+        FileHeader fileHeader = new FileHeader();
+        fileHeader.setFileName(name);
+        fileHeader.setUncompressedSize(size);
+        fileHeader.setCrc(crc);
+        return fileHeader;
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveMergerTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sourcesAreMergedIntoANewArchive() throws IOException
+    {
+        File alpha = createArchive("alpha", parameters(EncryptionMethod.AES, AesVersion.ONE), 1, "a.txt", "b/c.txt");
+        File beta = createArchive("beta", parameters(EncryptionMethod.AES, AesVersion.TWO), 1, "d.txt");
+
+        File target = tempDir.resolve("merged.vxar").toFile();
+
+        ArchiveMerger.MergeResult mergeResult = new ArchiveMerger(target, PASSWORD).merge(List.of(alpha, beta));
+
+        TreeMap<String, byte[]> expected = new TreeMap<>(readArchive(alpha, PASSWORD));
+        expected.putAll(readArchive(beta, PASSWORD));
+
+        assertSameContents(expected, readArchive(target, PASSWORD));
+        assertEquals(3, mergeResult.copiedEntries());
+        assertEquals(0, mergeResult.skippedEntries());
+    }
+
+    @Test
+    void existingEntriesWinWhenAppending() throws IOException
+    {
+        File target = createArchive("shared", parameters(EncryptionMethod.AES, AesVersion.ONE), 1, "x.txt");
+        Map<String, byte[]> original = readArchive(target, PASSWORD);
+
+        File source = createArchive("shared", parameters(EncryptionMethod.AES, AesVersion.ONE), 1, "x.txt", "y.txt");
+
+        ArchiveMerger.MergeResult mergeResult = new ArchiveMerger(target, PASSWORD).merge(List.of(source));
+
+        Map<String, byte[]> merged = readArchive(target, PASSWORD);
+
+        assertArrayEquals(original.get("shared/x.txt"), merged.get("shared/x.txt"));
+        assertArrayEquals(readArchive(source, PASSWORD).get("shared/y.txt"), merged.get("shared/y.txt"));
+        assertEquals(1, mergeResult.copiedEntries());
+        assertEquals(1, mergeResult.skippedEntries());
+        assertFalse(new File(target.getPath() + ".bak").exists());
+    }
+
+    @Test
+    void vxarEntriesAreReencryptedForTheTargetKey() throws IOException
+    {
+        ZipParameters zipParameters = parameters(EncryptionMethod.AES, AesVersion.TWO);
+
+        File target = createArchive("alpha", zipParameters, EntryCompressor.VXAR_FORMAT_VERSION, "a.txt");
+        File source = createArchive("beta", zipParameters, EntryCompressor.VXAR_FORMAT_VERSION, "b.txt", "c/d.txt");
+
+        TreeMap<String, byte[]> expected = new TreeMap<>(readArchive(target, PASSWORD));
+        expected.putAll(readArchive(source, PASSWORD));
+
+        ArchiveMerger.MergeResult mergeResult = new ArchiveMerger(target, PASSWORD).merge(List.of(source));
+
+        assertEquals(2, mergeResult.reencryptedEntries());
+        assertSameContents(expected, readArchive(target, PASSWORD));
+    }
+
+    @Test
+    void sourceWithAnotherPasswordLeavesTheTargetUntouched() throws IOException
+    {
+        File target = createArchive("alpha", parameters(EncryptionMethod.AES, AesVersion.TWO), 1, "a.txt");
+        byte[] original = Files.readAllBytes(target.toPath());
+
+        Path root = createFiles("beta", "b.txt");
+        File source = tempDir.resolve("beta.vxar").toFile();
+        new ArchiveWriter(source, WRONG_PASSWORD, parameters(EncryptionMethod.AES, AesVersion.TWO)).writeArchive(scan(root));
+
+        ZipException e = assertThrows(ZipException.class, () -> new ArchiveMerger(target, PASSWORD).merge(List.of(source)));
+
+        assertEquals(ZipException.Type.WRONG_PASSWORD, e.getType());
+        assertArrayEquals(original, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test
+    void failedAppendIsRolledBack() throws IOException
+    {
+        File target = createArchive("alpha", parameters(EncryptionMethod.AES, AesVersion.TWO), 1, "a.txt");
+        File source = createArchive("beta", parameters(EncryptionMethod.AES, AesVersion.TWO), 1, "b.txt", "c.txt", "d.txt", "e.txt");
+
+        byte[] original = Files.readAllBytes(target.toPath());
+
+        ArchiveMerger archiveMerger = new ArchiveMerger(target, PASSWORD);
+        archiveMerger.setProgress(new FailingProgress());
+
+        assertThrows(IllegalStateException.class, () -> archiveMerger.merge(List.of(source)));
+
+        assertArrayEquals(original, Files.readAllBytes(target.toPath()));
+        assertFalse(new File(target.getPath() + ".bak").exists());
+    }
+
+    @Test
+    void cancelledAppendIsRolledBack() throws IOException
+    {
+        File target = createArchive("alpha", parameters(EncryptionMethod.AES, AesVersion.TWO), 1, "a.txt");
+        File source = createArchive("beta", parameters(EncryptionMethod.AES, AesVersion.TWO), 1, "b.txt", "c.txt");
+
+        byte[] original = Files.readAllBytes(target.toPath());
+
+        ArchiveProgress progress = new ArchiveProgress()
+        {
+            @Override
+            public void completeEntry()
+            {
+                super.completeEntry();
+                cancel();
+            }
+        };
+
+        ArchiveMerger archiveMerger = new ArchiveMerger(target, PASSWORD);
+        archiveMerger.setProgress(progress);
+
+        assertThrows(InterruptedIOException.class, () -> archiveMerger.merge(List.of(source)));
+
+        assertArrayEquals(original, Files.readAllBytes(target.toPath()));
+        assertFalse(new File(target.getPath() + ".bak").exists());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"AES, ONE", "AES, TWO", "ZIP_STANDARD, TWO"})
+    void referenceToAShadowedEntryIsMaterialized(EncryptionMethod encryptionMethod, AesVersion aesVersion) throws IOException
+    {
+        ZipParameters zipParameters = parameters(encryptionMethod, aesVersion);
+
+        byte[] content = new byte[10 * 1024];
+        new Random(3).nextBytes(content);
+
+        Path sourceRoot = tempDir.resolve("source").resolve("shared");
+        write(sourceRoot.resolve("first.bin"), content);
+        write(sourceRoot.resolve("second.bin"), content);
+
+        Files.setLastModifiedTime(sourceRoot.resolve("first.bin"), FileTime.fromMillis(System.currentTimeMillis() - 3 * 3_600_000));
+
+        File source = tempDir.resolve("source.vxar").toFile();
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(source, PASSWORD, zipParameters);
+        archiveWriter.setDeduplicate(true);
+        archiveWriter.writeArchive(scan(sourceRoot));
+
+        String shadowed = getReferencedPath(source);
+
+        Path targetRoot = tempDir.resolve("target").resolve("shared");
+        write(targetRoot.resolve(shadowed.substring("shared/".length())), "shadowing content");
+
+        File target = writeArchive(tempDir.resolve("target.vxar").toFile(), targetRoot, zipParameters, 1);
+
+        ArchiveMerger.MergeResult mergeResult = new ArchiveMerger(target, PASSWORD).merge(List.of(source));
+
+        Map<String, byte[]> merged = readArchive(target, PASSWORD);
+
+        assertEquals(1, mergeResult.skippedEntries());
+        assertEquals("shadowing content", new String(merged.get(shadowed), StandardCharsets.UTF_8));
+        assertArrayEquals(content, merged.get(shadowed.equals("shared/first.bin") ? "shared/second.bin" : "shared/first.bin"));
+    }
+
+    private File createArchive(String name, ZipParameters zipParameters, int formatVersion, String... files) throws IOException
+    {
+        Path root = createFiles(name, files);
+        return writeArchive(tempDir.resolve(name + "-" + root.getParent().getFileName() + ".vxar").toFile(), root, zipParameters, formatVersion);
+    }
+
+    private Path createFiles(String name, String... files) throws IOException
+    {
+        Path root = Files.createTempDirectory(tempDir, "tree").resolve(name);
+
+        for (String file : files)
+        {
+            write(root.resolve(file), name + "/" + file + " " + root);
+        }
+        return root;
+    }
+
+    private static String getReferencedPath(File archive) throws IOException
+    {
+        List<FileHeader> fileHeaders = readFileHeaders(archive);
+        DecodedPathIndex pathIndex = new DecodedPathIndex(fileHeaders);
+
+        for (FileHeader fileHeader : fileHeaders)
+        {
+            String referencedName = Deduplicator.getReferencedName(fileHeader);
+
+            if (referencedName != null)
+            {
+                return fileHeaders.stream().filter(header -> header.getFileName().equals(referencedName)).map(pathIndex::getPath).findFirst().orElseThrow();
+            }
+        }
+        throw new AssertionError("No deduplicated entry in " + archive.getName());
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveRoundTripTest
+{
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource({"AES, ONE", "AES, TWO", "ZIP_STANDARD, TWO"})
+    void writtenArchiveReadsBackIdentically(EncryptionMethod encryptionMethod, AesVersion aesVersion) throws IOException
+    {
+        Path root = createTree(tempDir);
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), root, parameters(encryptionMethod, aesVersion), 1);
+
+        assertSameContents(readTree(root), readArchive(archive, PASSWORD));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"AES, ONE", "AES, TWO", "ZIP_STANDARD, TWO"})
+    void writtenArchiveIsReadableByZip4j(EncryptionMethod encryptionMethod, AesVersion aesVersion) throws IOException
+    {
+        Path root = createTree(tempDir);
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), root, parameters(encryptionMethod, aesVersion), 1);
+
+        try (ZipFile zipFile = new ZipFile(archive, PASSWORD); ArchiveReader archiveReader = new ArchiveReader(archive, PASSWORD))
+        {
+            for (FileHeader fileHeader : zipFile.getFileHeaders())
+            {
+                if (fileHeader.isDirectory())
+                {
+                    continue;
+                }
+
+                ByteArrayOutputStream expected = new ByteArrayOutputStream();
+                archiveReader.extractEntry(fileHeader, expected);
+
+                try (InputStream in = zipFile.getInputStream(fileHeader))
+                {
+                    assertArrayEquals(expected.toByteArray(), IOUtils.toByteArray(in), fileHeader.getFileName());
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"AES, ONE", "AES, TWO", "ZIP_STANDARD, TWO"})
+    void wrongPasswordFailsEveryEntry(EncryptionMethod encryptionMethod, AesVersion aesVersion) throws IOException
+    {
+        Path root = createTree(tempDir);
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), root, parameters(encryptionMethod, aesVersion), 1);
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, WRONG_PASSWORD))
+        {
+            archiveReader.setFileHeaders(readFileHeaders(archive));
+
+            for (FileHeader fileHeader : readFileHeaders(archive))
+            {
+                if (!fileHeader.isDirectory() && fileHeader.getUncompressedSize() > 0)
+                {
+                    assertThrows(IOException.class, () -> archiveReader.extractEntry(fileHeader, OutputStream.nullOutputStream()), fileHeader.getFileName());
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"AES, ONE", "AES, TWO"})
+    void wrongAesPasswordIsDetectedUpFront(EncryptionMethod encryptionMethod, AesVersion aesVersion) throws IOException
+    {
+        Path root = createTree(tempDir);
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), root, parameters(encryptionMethod, aesVersion), 1);
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, WRONG_PASSWORD))
+        {
+            assertFalse(archiveReader.checkPassword(readFileHeaders(archive)));
+        }
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, PASSWORD))
+        {
+            assertTrue(archiveReader.checkPassword(readFileHeaders(archive)));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"AES, ONE", "AES, TWO", "ZIP_STANDARD, TWO"})
+    void parallelWorkersProduceTheSameEntries(EncryptionMethod encryptionMethod, AesVersion aesVersion) throws IOException
+    {
+        Path root = createTree(tempDir);
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(tempDir.resolve("single.vxar").toFile(), PASSWORD, parameters(encryptionMethod, aesVersion));
+        archiveWriter.setWorkers(1);
+        archiveWriter.writeArchive(scan(root));
+
+        File parallel = writeArchive(tempDir.resolve("parallel.vxar").toFile(), root, parameters(encryptionMethod, aesVersion), 1);
+
+        Map<String, byte[]> single = readArchive(tempDir.resolve("single.vxar").toFile(), PASSWORD);
+
+        assertSameContents(single, readArchive(parallel, PASSWORD));
+    }
+}
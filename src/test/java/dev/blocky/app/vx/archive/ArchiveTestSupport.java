@@ -0,0 +1,198 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesKeyStrength;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+final class ArchiveTestSupport
+{
+    static final char[] PASSWORD = "correct horse".toCharArray();
+    static final char[] WRONG_PASSWORD = "battery staple".toCharArray();
+
+    private ArchiveTestSupport()
+    {
+    }
+
+    static Path createTree(Path parent) throws IOException
+    {
+        Path root = parent.resolve("source");
+        Random random = new Random(42);
+
+        byte[] incompressible = new byte[200 * 1024];
+        random.nextBytes(incompressible);
+
+        StringBuilder text = new StringBuilder();
+
+        while (text.length() < 512 * 1024)
+        {
+            text.append("line ").append(text.length()).append(" connection refused by upstream\n");
+        }
+
+        write(root.resolve("docs/readme.txt"), "Read me first.");
+        write(root.resolve("docs/notes.md"), "# Notes\n\nSome notes.");
+        write(root.resolve("docs/server.log"), text.toString());
+        write(root.resolve("data/random.bin"), incompressible);
+        write(root.resolve("data/empty.txt"), "");
+        write(root.resolve("data/Makefile"), "all:\n\techo done\n");
+        write(root.resolve("deep/a/b/c/leaf.cfg"), "key=value");
+
+        Files.createDirectories(root.resolve("empty/dir"));
+        return root;
+    }
+
+    static void write(Path file, String content) throws IOException
+    {
+        write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void write(Path file, byte[] content) throws IOException
+    {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+    }
+
+    static ScanResult scan(Path root) throws IOException
+    {
+        return new DirectoryScanner(2).scan(List.of(), List.of(root.toFile()));
+    }
+
+    static ZipParameters parameters(EncryptionMethod encryptionMethod, AesVersion aesVersion)
+    {
+        ZipParameters zipParameters = new ZipParameters();
+        zipParameters.setEncryptFiles(true);
+        zipParameters.setEncryptionMethod(encryptionMethod);
+        zipParameters.setAesKeyStrength(AesKeyStrength.KEY_STRENGTH_256);
+        zipParameters.setAesVersion(aesVersion);
+        return zipParameters;
+    }
+
+    static File writeArchive(File archive, Path root, ZipParameters zipParameters, int formatVersion) throws IOException
+    {
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, zipParameters);
+        archiveWriter.setWorkers(2);
+        archiveWriter.setFormatVersion(formatVersion);
+        archiveWriter.writeArchive(scan(root));
+        return archive;
+    }
+
+    static List<FileHeader> readFileHeaders(File archive) throws IOException
+    {
+        try (ZipFile zipFile = new ZipFile(archive))
+        {
+            return zipFile.getFileHeaders();
+        }
+    }
+
+    static Map<String, byte[]> readArchive(File archive, char[] password) throws IOException
+    {
+        List<FileHeader> fileHeaders = readFileHeaders(archive);
+        DecodedPathIndex pathIndex = new DecodedPathIndex(fileHeaders);
+
+        TreeMap<String, byte[]> contents = new TreeMap<>();
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, password))
+        {
+            archiveReader.setFileHeaders(fileHeaders);
+
+            for (FileHeader fileHeader : fileHeaders)
+            {
+                if (fileHeader.isDirectory())
+                {
+                    contents.put(pathIndex.getPath(fileHeader) + "/", null);
+                    continue;
+                }
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                archiveReader.extractEntry(fileHeader, out);
+                contents.put(pathIndex.getPath(fileHeader), out.toByteArray());
+            }
+        }
+        return contents;
+    }
+
+    static Map<String, byte[]> readTree(Path root) throws IOException
+    {
+        TreeMap<String, byte[]> contents = new TreeMap<>();
+
+        try (Stream<Path> paths = Files.walk(root))
+        {
+            for (Path path : (Iterable<Path>) paths::iterator)
+            {
+                String name = root.getFileName() + "/" + root.relativize(path).toString().replace(File.separatorChar, '/');
+
+                if (path.equals(root))
+                {
+                    name = root.getFileName().toString();
+                }
+
+                if (Files.isDirectory(path))
+                {
+                    contents.put(name + "/", null);
+                    continue;
+                }
+                contents.put(name, Files.readAllBytes(path));
+            }
+        }
+        return contents;
+    }
+
+    static void assertSameContents(Map<String, byte[]> expected, Map<String, byte[]> actual)
+    {
+        if (!expected.keySet().equals(actual.keySet()))
+        {
+            throw new AssertionError("Entries differ, expected " + expected.keySet() + " but was " + actual.keySet());
+        }
+
+        for (Map.Entry<String, byte[]> entry : expected.entrySet())
+        {
+            if (!Arrays.equals(entry.getValue(), actual.get(entry.getKey())))
+            {
+                throw new AssertionError("Content of " + entry.getKey() + " differs");
+            }
+        }
+    }
+
+    static class FailingProgress extends ArchiveProgress
+    {
+        @Override
+        public void completeEntry()
+        {
+            super.completeEntry();
+
+            if (getProcessedEntries() > 3)
+            {
+                throw new IllegalStateException("Simulated failure");
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveUpdateTest
+{
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource({"AES, ONE, 1", "AES, TWO, 1", "ZIP_STANDARD, TWO, 1", "AES, TWO, 2"})
+    void updatedArchiveMatchesTheChangedTree(EncryptionMethod encryptionMethod, AesVersion aesVersion, int formatVersion) throws IOException
+    {
+        Path root = createTree(tempDir);
+        ZipParameters zipParameters = parameters(encryptionMethod, aesVersion);
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), root, zipParameters, formatVersion);
+
+        changeTree(root);
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, zipParameters);
+        archiveWriter.setFormatVersion(formatVersion);
+        archiveWriter.updateArchive(scan(root));
+
+        assertSameContents(readTree(root), readArchive(archive, PASSWORD));
+        assertFalse(new File(archive.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    void unchangedEntriesAreCopiedWithoutReencryption() throws IOException
+    {
+        Path root = createTree(tempDir);
+        ZipParameters zipParameters = parameters(EncryptionMethod.AES, AesVersion.ONE);
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), root, zipParameters, 1);
+
+        changeTree(root);
+
+        ArchiveProgress progress = new ArchiveProgress();
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, zipParameters);
+        archiveWriter.setProgress(progress);
+        archiveWriter.updateArchive(scan(root));
+
+        // notes.md was only touched, its checksum still matches
+        assertEquals(5, progress.getCopiedEntries());
+    }
+
+    @Test
+    void splitArchivesCannotBeUpdated() throws IOException
+    {
+        Path root = createTree(tempDir);
+        ZipParameters zipParameters = parameters(EncryptionMethod.AES, AesVersion.TWO);
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), root, zipParameters, 1);
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, zipParameters);
+        archiveWriter.setVolumeSize(64 * 1024);
+
+        assertThrows(ZipException.class, () -> archiveWriter.updateArchive(scan(root)));
+    }
+
+    private static void changeTree(Path root) throws IOException
+    {
+        write(root.resolve("docs/readme.txt"), "Read me first, then read me again.");
+        write(root.resolve("docs/added.txt"), "Added after the archive was created.");
+
+        Path notes = root.resolve("docs/notes.md");
+        Files.setLastModifiedTime(notes, FileTime.fromMillis(Files.getLastModifiedTime(notes).toMillis() - 3_600_000));
+
+        Files.delete(root.resolve("data/Makefile"));
+    }
+}
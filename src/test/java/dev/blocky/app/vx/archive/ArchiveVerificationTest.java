@@ -0,0 +1,120 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveVerificationTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void intactArchiveHasNoFailures() throws IOException
+    {
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), createTree(tempDir), parameters(EncryptionMethod.AES, AesVersion.TWO), 1);
+
+        assertTrue(verify(archive).isEmpty());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"AES, ONE, 1", "AES, TWO, 1", "ZIP_STANDARD, TWO, 1", "AES, TWO, 2"})
+    void corruptEntryIsReportedByItsDecodedName(EncryptionMethod encryptionMethod, AesVersion aesVersion, int formatVersion) throws IOException
+    {
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), createTree(tempDir), parameters(encryptionMethod, aesVersion), formatVersion);
+
+        List<FileHeader> fileHeaders = readFileHeaders(archive);
+        DecodedPathIndex pathIndex = new DecodedPathIndex(fileHeaders);
+
+        FileHeader corrupted = fileHeaders.stream().filter(fileHeader -> pathIndex.getPath(fileHeader).equals("source/docs/server.log")).findFirst().orElseThrow();
+
+        flipByte(archive, getDataOffset(archive, corrupted) + corrupted.getCompressedSize() / 2);
+
+        TreeSet<String> files = listFiles();
+
+        Map<FileHeader, IOException> failures = verify(archive);
+
+        assertEquals(List.of("source/docs/server.log"), failures.keySet().stream().map(pathIndex::getPath).collect(Collectors.toList()));
+        assertEquals(files, listFiles());
+    }
+
+    private static Map<FileHeader, IOException> verify(File archive) throws IOException
+    {
+        List<FileHeader> fileHeaders = readFileHeaders(archive);
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, PASSWORD))
+        {
+            archiveReader.setFileHeaders(fileHeaders);
+            return new ArchiveExtractor(archiveReader, 2).verify(fileHeaders);
+        }
+    }
+
+    private TreeSet<String> listFiles() throws IOException
+    {
+        try (Stream<Path> paths = Files.walk(tempDir))
+        {
+            return paths.map(Path::toString).collect(Collectors.toCollection(TreeSet::new));
+        }
+    }
+
+    private static void flipByte(File archive, long offset) throws IOException
+    {
+        try (RandomAccessFile file = new RandomAccessFile(archive, "rw"))
+        {
+            file.seek(offset);
+            int value = file.read();
+
+            file.seek(offset);
+            file.write(value ^ 1);
+        }
+    }
+
+    private static long getDataOffset(File archive, FileHeader fileHeader) throws IOException
+    {
+        try (RandomAccessFile file = new RandomAccessFile(archive, "r"))
+        {
+            file.seek(fileHeader.getOffsetLocalHeader() + 26);
+
+            int nameLength = file.read() | file.read() << 8;
+            int extraLength = file.read() | file.read() << 8;
+
+            return fileHeader.getOffsetLocalHeader() + HeaderWriter.LOCAL_FILE_HEADER_LENGTH + nameLength + extraLength;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveWriterFailureTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void failedWriteLeavesNoTruncatedArchive() throws IOException
+    {
+        Path root = createTree(tempDir);
+        File archive = tempDir.resolve("archive.vxar").toFile();
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, parameters(EncryptionMethod.AES, AesVersion.TWO));
+        archiveWriter.setProgress(new FailingProgress());
+
+        assertThrows(IllegalStateException.class, () -> archiveWriter.writeArchive(scan(root)));
+
+        assertFalse(archive.exists());
+    }
+
+    @Test
+    void failedOverwriteKeepsTheExistingArchive() throws IOException
+    {
+        Path root = createTree(tempDir);
+        ZipParameters zipParameters = parameters(EncryptionMethod.AES, AesVersion.TWO);
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), root, zipParameters, 1);
+
+        byte[] original = Files.readAllBytes(archive.toPath());
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, zipParameters);
+        archiveWriter.setProgress(new FailingProgress());
+
+        assertThrows(IllegalStateException.class, () -> archiveWriter.writeArchive(scan(root)));
+
+        assertArrayEquals(original, Files.readAllBytes(archive.toPath()));
+        assertArchiveFiles("archive.vxar", "source");
+    }
+
+    @Test
+    void failedSplitWriteLeavesNoVolumes() throws IOException
+    {
+        Path root = createTree(tempDir);
+        File archive = tempDir.resolve("archive.vxar").toFile();
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, parameters(EncryptionMethod.AES, AesVersion.TWO));
+        archiveWriter.setVolumeSize(64 * 1024);
+        archiveWriter.setProgress(new FailingProgress());
+
+        assertThrows(IllegalStateException.class, () -> archiveWriter.writeArchive(scan(root)));
+
+        assertArchiveFiles("source");
+    }
+
+    @Test
+    void failedUpdateLeavesTheArchiveUntouched() throws IOException
+    {
+        Path root = createTree(tempDir);
+        ZipParameters zipParameters = parameters(EncryptionMethod.AES, AesVersion.TWO);
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), root, zipParameters, 1);
+
+        byte[] original = Files.readAllBytes(archive.toPath());
+
+        write(root.resolve("docs/readme.txt"), "Changed.");
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, zipParameters);
+        archiveWriter.setProgress(new FailingProgress());
+
+        assertThrows(IllegalStateException.class, () -> archiveWriter.updateArchive(scan(root)));
+
+        assertArrayEquals(original, Files.readAllBytes(archive.toPath()));
+        assertArchiveFiles("archive.vxar", "source");
+    }
+
+    private void assertArchiveFiles(String... expected) throws IOException
+    {
+        try (Stream<Path> children = Files.list(tempDir))
+        {
+            assertArrayEquals(expected, children.map(path -> path.getFileName().toString()).sorted().toArray(String[]::new));
+        }
+    }
+}
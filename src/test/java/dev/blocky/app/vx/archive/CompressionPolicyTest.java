@@ -0,0 +1,102 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.CompressionLevel;
+import net.lingala.zip4j.model.enums.CompressionMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.write;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionPolicyTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void knownCompressedFormatsAreStored() throws IOException
+    {
+        assertEquals(CompressionMethod.STORE, chooseMethod("photo.JPG", text(16 * 1024), new ZipParameters()));
+        assertEquals(CompressionMethod.STORE, chooseMethod("bundle.tar.gz", text(16 * 1024), new ZipParameters()));
+    }
+
+    @Test
+    void incompressibleContentIsStored() throws IOException
+    {
+        assertEquals(CompressionMethod.STORE, chooseMethod("random.bin", random(128 * 1024), new ZipParameters()));
+    }
+
+    @Test
+    void compressibleContentIsDeflated() throws IOException
+    {
+        assertEquals(CompressionMethod.DEFLATE, chooseMethod("text.bin", text(128 * 1024), new ZipParameters()));
+    }
+
+    @Test
+    void smallFilesAreNotSampled() throws IOException
+    {
+        assertEquals(CompressionMethod.DEFLATE, chooseMethod("random.bin", random(1024), new ZipParameters()));
+    }
+
+    @Test
+    void explicitSettingsAreKept() throws IOException
+    {
+        ZipParameters store = new ZipParameters();
+        store.setCompressionMethod(CompressionMethod.STORE);
+
+        ZipParameters noCompression = new ZipParameters();
+        noCompression.setCompressionLevel(CompressionLevel.NO_COMPRESSION);
+
+        assertEquals(CompressionMethod.STORE, chooseMethod("text.txt", text(16 * 1024), store));
+        assertEquals(CompressionMethod.DEFLATE, chooseMethod("photo.jpg", random(16 * 1024), noCompression));
+    }
+
+    private CompressionMethod chooseMethod(String name, byte[] content, ZipParameters zipParameters) throws IOException
+    {
+        File file = tempDir.resolve(name).toFile();
+        write(file.toPath(), content);
+
+        return CompressionPolicy.chooseMethod(new ArchiveEntry(file, name, false, content.length, file.lastModified()), zipParameters);
+    }
+
+    private static byte[] random(int length)
+    {
+        byte[] content = new byte[length];
+        new Random(42).nextBytes(content);
+        return content;
+    }
+
+    private static byte[] text(int length)
+    {
+        byte[] content = new byte[length];
+
+        for (int i = 0; i < length; i++)
+        {
+            content[i] = (byte) ('a' + i % 7);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.codec.Base32Codec;
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeduplicationTest
+{
+    private static final int DUPLICATE_SIZE = 100 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+
+    @BeforeEach
+    void createDuplicates() throws IOException
+    {
+        root = createTree(tempDir);
+
+        Random random = new Random(7);
+
+        byte[] duplicate = new byte[DUPLICATE_SIZE];
+        random.nextBytes(duplicate);
+
+        byte[] sameSize = new byte[DUPLICATE_SIZE];
+        random.nextBytes(sameSize);
+
+        write(root.resolve("a/original.bin"), duplicate);
+        write(root.resolve("b/copy.bin"), duplicate);
+        write(root.resolve("c/same-size.bin"), sameSize);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"AES, ONE, 1", "AES, TWO, 1", "ZIP_STANDARD, TWO, 1", "AES, TWO, 2"})
+    void duplicatesAreStoredOnceAndReadBack(EncryptionMethod encryptionMethod, AesVersion aesVersion, int formatVersion) throws IOException
+    {
+        ArchiveProgress progress = new ArchiveProgress();
+        File archive = writeDeduplicated(tempDir.resolve("archive.vxar").toFile(), parameters(encryptionMethod, aesVersion), formatVersion, progress);
+
+        HashMap<String, String> references = getReferences(archive);
+
+        assertEquals(1, references.size(), references.toString());
+        assertDuplicates(references, "source/a/original.bin", "source/b/copy.bin");
+        assertEquals(DUPLICATE_SIZE, progress.getDeduplicatedBytes());
+
+        assertSameContents(readTree(root), readArchive(archive, PASSWORD));
+    }
+
+    @Test
+    void deduplicatedArchiveIsSmaller() throws IOException
+    {
+        ZipParameters zipParameters = parameters(EncryptionMethod.AES, AesVersion.TWO);
+
+        File plain = writeArchive(tempDir.resolve("plain.vxar").toFile(), root, zipParameters, 1);
+        File deduplicated = writeDeduplicated(tempDir.resolve("deduplicated.vxar").toFile(), zipParameters, 1, new ArchiveProgress());
+
+        assertTrue(plain.length() - deduplicated.length() > DUPLICATE_SIZE * 0.99, plain.length() + " vs " + deduplicated.length());
+    }
+
+    @Test
+    void referenceExtractsWithoutItsOriginal() throws IOException
+    {
+        File archive = writeDeduplicated(tempDir.resolve("archive.vxar").toFile(), parameters(EncryptionMethod.AES, AesVersion.TWO), 1, new ArchiveProgress());
+
+        List<FileHeader> fileHeaders = readFileHeaders(archive);
+        FileHeader reference = fileHeaders.stream().filter(fileHeader -> Deduplicator.getReferencedName(fileHeader) != null).findFirst().orElseThrow();
+
+        DecodedPathIndex pathIndex = new DecodedPathIndex(fileHeaders);
+        String path = pathIndex.getPath(reference);
+
+        Path destination = Files.createDirectories(tempDir.resolve("extracted"));
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, PASSWORD))
+        {
+            archiveReader.setFileHeaders(fileHeaders);
+            Base32Codec.decodeAndExtractFile(archiveReader, pathIndex, List.of(reference), destination.toString(), 2, ExtractionPolicy.ALWAYS_OVERWRITE);
+        }
+
+        assertArrayEquals(Files.readAllBytes(root.resolve("a/original.bin")), Files.readAllBytes(destination.resolve(path)));
+
+        try (Stream<Path> extracted = Files.walk(destination))
+        {
+            assertEquals(1, extracted.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void updateKeepsDeduplicating() throws IOException
+    {
+        ZipParameters zipParameters = parameters(EncryptionMethod.AES, AesVersion.ONE);
+        File archive = writeDeduplicated(tempDir.resolve("archive.vxar").toFile(), zipParameters, 1, new ArchiveProgress());
+
+        Files.copy(root.resolve("a/original.bin"), root.resolve("docs/third.bin"));
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, zipParameters);
+        archiveWriter.setDeduplicate(true);
+        archiveWriter.updateArchive(scan(root));
+
+        HashMap<String, String> references = getReferences(archive);
+
+        assertEquals(2, references.size(), references.toString());
+        assertTrue(references.containsKey("source/docs/third.bin"), references.toString());
+        assertDuplicates(references, "source/a/original.bin", "source/b/copy.bin");
+
+        assertSameContents(readTree(root), readArchive(archive, PASSWORD));
+    }
+
+    private static void assertDuplicates(HashMap<String, String> references, String first, String second)
+    {
+        assertTrue(first.equals(references.get(second)) || second.equals(references.get(first)), references.toString());
+    }
+
+    private File writeDeduplicated(File archive, ZipParameters zipParameters, int formatVersion, ArchiveProgress progress) throws IOException
+    {
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, zipParameters);
+        archiveWriter.setWorkers(2);
+        archiveWriter.setDeduplicate(true);
+        archiveWriter.setFormatVersion(formatVersion);
+        archiveWriter.setProgress(progress);
+        archiveWriter.writeArchive(scan(root));
+        return archive;
+    }
+
+    private static HashMap<String, String> getReferences(File archive) throws IOException
+    {
+        List<FileHeader> fileHeaders = readFileHeaders(archive);
+        DecodedPathIndex pathIndex = new DecodedPathIndex(fileHeaders);
+
+        HashMap<String, FileHeader> fileHeadersByName = new HashMap<>();
+
+        for (FileHeader fileHeader : fileHeaders)
+        {
+            fileHeadersByName.put(fileHeader.getFileName(), fileHeader);
+        }
+
+        HashMap<String, String> references = new HashMap<>();
+
+        for (FileHeader fileHeader : fileHeaders)
+        {
+            String referencedName = Deduplicator.getReferencedName(fileHeader);
+
+            if (referencedName != null)
+            {
+                references.put(pathIndex.getPath(fileHeader), pathIndex.getPath(fileHeadersByName.get(referencedName)));
+            }
+        }
+        return references;
+    }
+}
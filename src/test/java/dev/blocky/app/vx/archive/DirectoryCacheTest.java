@@ -0,0 +1,112 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.exception.ZipException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryCacheTest
+{
+    private static final int WORKERS = 4;
+
+    @TempDir
+    Path tempDir;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+
+    @AfterEach
+    void shutdownPool()
+    {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void missingParentsAreCreatedBeforeTheirChildren() throws IOException
+    {
+        DirectoryCache directoryCache = new DirectoryCache();
+
+        for (int i = 0; i < 20; i++)
+        {
+            directoryCache.require(tempDir.resolve("out/level" + i % 3 + "/a/b/c" + i));
+        }
+
+        assertTrue(directoryCache.isCreated(tempDir.resolve("out")));
+        assertTrue(directoryCache.isCreated(tempDir.resolve("out/level1/a/b")));
+        assertFalse(directoryCache.isCreated(tempDir));
+
+        directoryCache.createAll(pool, WORKERS);
+
+        for (int i = 0; i < 20; i++)
+        {
+            assertTrue(Files.isDirectory(tempDir.resolve("out/level" + i % 3 + "/a/b/c" + i)));
+        }
+    }
+
+    @Test
+    void existingDirectoriesAreNotPlanned() throws IOException
+    {
+        Files.createDirectories(tempDir.resolve("existing/child"));
+
+        DirectoryCache directoryCache = new DirectoryCache();
+        directoryCache.require(tempDir.resolve("existing/child/new"));
+
+        assertFalse(directoryCache.isCreated(tempDir.resolve("existing")));
+        assertFalse(directoryCache.isCreated(tempDir.resolve("existing/child")));
+        assertTrue(directoryCache.isCreated(tempDir.resolve("existing/child/new")));
+
+        directoryCache.createAll(pool, WORKERS);
+
+        assertTrue(Files.isDirectory(tempDir.resolve("existing/child/new")));
+    }
+
+    @Test
+    void directoryRaceWithAnotherWriterIsTolerated() throws IOException
+    {
+        DirectoryCache directoryCache = new DirectoryCache();
+        directoryCache.require(tempDir.resolve("raced/child"));
+
+        Files.createDirectories(tempDir.resolve("raced/child"));
+
+        directoryCache.createAll(pool, WORKERS);
+
+        assertTrue(Files.isDirectory(tempDir.resolve("raced/child")));
+    }
+
+    @Test
+    void fileInTheWayIsReported() throws IOException
+    {
+        DirectoryCache directoryCache = new DirectoryCache();
+        directoryCache.require(tempDir.resolve("blocked/child"));
+
+        Files.writeString(tempDir.resolve("blocked"), "not a directory");
+
+        ZipException e = assertThrows(ZipException.class, () -> directoryCache.createAll(pool, WORKERS));
+
+        assertTrue(e.getMessage().contains("blocked"), e.getMessage());
+    }
+}
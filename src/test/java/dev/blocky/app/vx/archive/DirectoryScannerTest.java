@@ -0,0 +1,104 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.codec.Base32Codec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.createTree;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DirectoryScannerTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void scanFindsEveryFileAndDirectoryOnce() throws IOException
+    {
+        Path root = createTree(tempDir);
+
+        ScanResult scanResult = new DirectoryScanner(4).scan(List.of(), List.of(root.toFile()));
+
+        TreeSet<String> names = new TreeSet<>();
+
+        for (ArchiveEntry entry : scanResult.entries())
+        {
+            assertTrue(names.add(entry.name()), entry.name());
+        }
+
+        assertEquals(7, scanResult.fileCount());
+        assertEquals(9, scanResult.directoryCount());
+        assertEquals(scanResult.fileCount() + scanResult.directoryCount(), scanResult.entries().size());
+        assertTrue(names.containsAll(Set.of(Base32Codec.encodePath("source/"), Base32Codec.encodePath("source/data/Makefile"), Base32Codec.encodePath("source/empty/dir/"))));
+    }
+
+    @Test
+    void symbolicLinkToAnAncestorIsNotFollowedAgain() throws IOException
+    {
+        Path root = createTree(tempDir);
+
+        try
+        {
+            Files.createSymbolicLink(root.resolve("deep/a/b/loop"), root);
+        }
+        catch (IOException | UnsupportedOperationException e)
+        {
+            assumeTrue(false, "Symbolic links are not supported: " + e);
+        }
+
+        ScanResult scanResult = new DirectoryScanner(2).scan(List.of(), List.of(root.toFile()));
+
+        assertEquals(7, scanResult.fileCount());
+        assertEquals(9, scanResult.directoryCount());
+        assertEquals(scanResult.fileCount() + scanResult.directoryCount(), scanResult.entries().size());
+    }
+
+    @Test
+    void missingRootFailsWithTheUnderlyingException()
+    {
+        DirectoryScanner directoryScanner = new DirectoryScanner(2);
+
+        assertThrows(NoSuchFileException.class, () -> directoryScanner.scan(List.of(tempDir.resolve("missing.txt").toFile()), List.of()));
+    }
+
+    @Test
+    void cancelledScanStops() throws IOException
+    {
+        Path root = createTree(tempDir);
+
+        ArchiveProgress progress = new ArchiveProgress();
+        progress.cancel();
+
+        DirectoryScanner directoryScanner = new DirectoryScanner(2);
+        directoryScanner.setProgress(progress);
+
+        assertThrows(InterruptedIOException.class, () -> directoryScanner.scan(List.of(), List.of(root.toFile())));
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.model.FileHeader;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntryCacheTest
+{
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedBySize()
+    {
+        EntryCache entryCache = new EntryCache(100);
+
+        FileHeader first = fileHeader("first");
+        FileHeader second = fileHeader("second");
+        FileHeader third = fileHeader("third");
+
+        entryCache.put(first, new byte[40]);
+        entryCache.put(second, new byte[40]);
+
+        assertNotNull(entryCache.get(first));
+
+        entryCache.put(third, new byte[40]);
+
+        assertNotNull(entryCache.get(first));
+        assertNull(entryCache.get(second));
+        assertNotNull(entryCache.get(third));
+    }
+
+    @Test
+    void largeEntryEvictsSeveralSmallOnes()
+    {
+        EntryCache entryCache = new EntryCache(100);
+
+        for (int i = 0; i < 5; i++)
+        {
+            entryCache.put(fileHeader("small" + i), new byte[20]);
+        }
+
+        entryCache.put(fileHeader("large"), new byte[70]);
+
+        for (int i = 0; i < 4; i++)
+        {
+            assertNull(entryCache.get(fileHeader("small" + i)));
+        }
+
+        assertNotNull(entryCache.get(fileHeader("small4")));
+        assertNotNull(entryCache.get(fileHeader("large")));
+    }
+
+    @Test
+    void replacingAnEntryAccountsForTheOldSize()
+    {
+        EntryCache entryCache = new EntryCache(100);
+
+        FileHeader first = fileHeader("first");
+        FileHeader second = fileHeader("second");
+
+        entryCache.put(first, new byte[60]);
+        entryCache.put(first, new byte[10]);
+        entryCache.put(second, new byte[90]);
+
+        assertEquals(10, entryCache.get(first).length);
+        assertEquals(90, entryCache.get(second).length);
+    }
+
+    @Test
+    void entriesLargerThanTheCacheAreNotStored()
+    {
+        EntryCache entryCache = new EntryCache(100);
+
+        FileHeader small = fileHeader("small");
+
+        entryCache.put(small, new byte[50]);
+        entryCache.put(fileHeader("huge"), new byte[101]);
+
+        assertNull(entryCache.get(fileHeader("huge")));
+        assertNotNull(entryCache.get(small));
+    }
+
+    @Test
+    void clearRemovesEverything()
+    {
+        EntryCache entryCache = new EntryCache(100);
+
+        entryCache.put(fileHeader("first"), new byte[50]);
+        entryCache.clear();
+
+        assertNull(entryCache.get(fileHeader("first")));
+
+        entryCache.put(fileHeader("second"), new byte[100]);
+
+        assertNotNull(entryCache.get(fileHeader("second")));
+    }
+
+    private static FileHeader fileHeader(String name)
+    {
+        FileHeader fileHeader = new FileHeader();
+        fileHeader.setFileName(name);
+        return fileHeader;
+    }
+}
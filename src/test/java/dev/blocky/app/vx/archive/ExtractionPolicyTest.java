@@ -0,0 +1,135 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.util.Zip4jUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.CRC32;
+
+import static dev.blocky.app.vx.archive.ExtractionPolicy.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtractionPolicyTest
+{
+    private static final byte[] CONTENT = "archived content".getBytes(StandardCharsets.UTF_8);
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    @TempDir
+    Path tempDir;
+
+    private Path target;
+    private FileHeader fileHeader;
+
+    @BeforeEach
+    void createTarget() throws IOException
+    {
+        target = tempDir.resolve("target.txt");
+
+        Files.write(target, CONTENT);
+        Files.setLastModifiedTime(target, FileTime.fromMillis(LAST_MODIFIED));
+
+        CRC32 crc32 = new CRC32();
+        crc32.update(CONTENT);
+
+        fileHeader = new FileHeader();
+        fileHeader.setFileName("target.txt");
+        fileHeader.setUncompressedSize(CONTENT.length);
+        fileHeader.setCrc(crc32.getValue());
+        fileHeader.setLastModifiedTime(Zip4jUtil.epochToExtendedDosTime(LAST_MODIFIED));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExtractionPolicy.class)
+    void missingTargetIsNeverUpToDate(ExtractionPolicy policy) throws IOException
+    {
+        Files.delete(target);
+
+        assertFalse(policy.isUpToDate(fileHeader, fileHeader, target));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExtractionPolicy.class)
+    void targetWithAnotherSizeIsNeverUpToDate(ExtractionPolicy policy) throws IOException
+    {
+        Files.writeString(target, "other");
+        Files.setLastModifiedTime(target, FileTime.fromMillis(LAST_MODIFIED));
+
+        assertFalse(policy.isUpToDate(fileHeader, fileHeader, target));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExtractionPolicy.class)
+    void directoryIsNeverUpToDate(ExtractionPolicy policy) throws IOException
+    {
+        Path directory = Files.createDirectory(tempDir.resolve("directory"));
+
+        assertFalse(policy.isUpToDate(fileHeader, fileHeader, directory));
+    }
+
+    @Test
+    void sameSizeAndTimeIsSkippedWithoutReadingTheTarget() throws IOException
+    {
+        Files.write(target, "ARCHIVED CONTENT".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(target, FileTime.fromMillis(LAST_MODIFIED + 1000));
+
+        assertTrue(SKIP_IF_SAME_SIZE_AND_TIME.isUpToDate(fileHeader, fileHeader, target));
+        assertTrue(SKIP_IF_SAME_CONTENT.isUpToDate(fileHeader, fileHeader, target));
+        assertFalse(ALWAYS_OVERWRITE.isUpToDate(fileHeader, fileHeader, target));
+    }
+
+    @Test
+    void sameContentWithAnotherTimeIsOnlySkippedByContent() throws IOException
+    {
+        Files.setLastModifiedTime(target, FileTime.fromMillis(LAST_MODIFIED - 60_000));
+
+        assertFalse(SKIP_IF_SAME_SIZE_AND_TIME.isUpToDate(fileHeader, fileHeader, target));
+        assertTrue(SKIP_IF_SAME_CONTENT.isUpToDate(fileHeader, fileHeader, target));
+
+        assertEquals(LAST_MODIFIED, Files.getLastModifiedTime(target).toMillis());
+    }
+
+    @Test
+    void changedContentWithAnotherTimeIsOverwritten() throws IOException
+    {
+        Files.write(target, "ARCHIVED CONTENT".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(target, FileTime.fromMillis(LAST_MODIFIED - 60_000));
+
+        assertFalse(SKIP_IF_SAME_SIZE_AND_TIME.isUpToDate(fileHeader, fileHeader, target));
+        assertFalse(SKIP_IF_SAME_CONTENT.isUpToDate(fileHeader, fileHeader, target));
+    }
+
+    @Test
+    void unknownChecksumIsNotTrusted() throws IOException
+    {
+        Files.setLastModifiedTime(target, FileTime.fromMillis(LAST_MODIFIED - 60_000));
+        fileHeader.setCrc(0);
+
+        assertFalse(SKIP_IF_SAME_CONTENT.isUpToDate(fileHeader, fileHeader, target));
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.crypto.StandardDecrypter;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordCheckTest
+{
+    private static final int ZIP_CRYPTO_HEADER_LENGTH = 12;
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource({"AES, ONE, 1", "AES, TWO, 1", "AES, TWO, 2"})
+    void passwordIsCheckedAgainstTheKeyVerifier(EncryptionMethod encryptionMethod, AesVersion aesVersion, int formatVersion) throws IOException
+    {
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), createTree(tempDir), parameters(encryptionMethod, aesVersion), formatVersion);
+
+        assertTrue(checkPassword(archive, PASSWORD, readFileHeaders(archive)));
+        assertFalse(checkPassword(archive, WRONG_PASSWORD, readFileHeaders(archive)));
+    }
+
+    @Test
+    void zipCryptoPasswordIsCheckedAgainstTheCheckByte() throws IOException
+    {
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), createTree(tempDir), parameters(EncryptionMethod.ZIP_STANDARD, AesVersion.TWO), 1);
+        List<FileHeader> fileHeaders = readFileHeaders(archive);
+
+        assertTrue(checkPassword(archive, PASSWORD, fileHeaders));
+        assertFalse(checkPassword(archive, findRejectedPassword(archive, fileHeaders), fileHeaders));
+    }
+
+    @Test
+    void deduplicationReferencesAreSkipped() throws IOException
+    {
+        Path root = createTree(tempDir);
+
+        byte[] duplicate = new byte[64 * 1024];
+        new Random(7).nextBytes(duplicate);
+
+        write(root.resolve("a/original.bin"), duplicate);
+        write(root.resolve("b/copy.bin"), duplicate);
+
+        File archive = tempDir.resolve("archive.vxar").toFile();
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, parameters(EncryptionMethod.ZIP_STANDARD, AesVersion.TWO));
+        archiveWriter.setWorkers(2);
+        archiveWriter.setDeduplicate(true);
+        archiveWriter.writeArchive(scan(root));
+
+        ArrayList<FileHeader> fileHeaders = new ArrayList<>(readFileHeaders(archive));
+        fileHeaders.sort(Comparator.comparing((FileHeader fileHeader) -> Deduplicator.getReferencedName(fileHeader) == null));
+
+        assertNotNull(Deduplicator.getReferencedName(fileHeaders.get(0)));
+
+        assertTrue(checkPassword(archive, PASSWORD, fileHeaders));
+        assertFalse(checkPassword(archive, findRejectedPassword(archive, fileHeaders), fileHeaders));
+    }
+
+    @Test
+    void unencryptedArchiveAcceptsAnyPassword() throws IOException
+    {
+        ZipParameters zipParameters = new ZipParameters();
+        File archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), createTree(tempDir), zipParameters, 1);
+
+        assertTrue(checkPassword(archive, WRONG_PASSWORD, readFileHeaders(archive)));
+    }
+
+    private static boolean checkPassword(File archive, char[] password, List<FileHeader> fileHeaders) throws IOException
+    {
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, password))
+        {
+            archiveReader.setFileHeaders(readFileHeaders(archive));
+            return archiveReader.checkPassword(fileHeaders);
+        }
+    }
+
+    private static char[] findRejectedPassword(File archive, List<FileHeader> fileHeaders) throws IOException
+    {
+        FileHeader fileHeader = fileHeaders.stream()
+                .filter(header -> header.isEncrypted() && !header.isDirectory() && Deduplicator.getReferencedName(header) == null)
+                .findFirst()
+                .orElseThrow();
+
+        byte[] header = new byte[ZIP_CRYPTO_HEADER_LENGTH];
+
+        try (RandomAccessFile file = new RandomAccessFile(archive, "r"))
+        {
+            file.seek(fileHeader.getOffsetLocalHeader() + 26);
+
+            int nameLength = file.read() | file.read() << 8;
+            int extraLength = file.read() | file.read() << 8;
+
+            file.seek(fileHeader.getOffsetLocalHeader() + HeaderWriter.LOCAL_FILE_HEADER_LENGTH + nameLength + extraLength);
+            file.readFully(header);
+        }
+
+        for (int i = 0; ; i++)
+        {
+            char[] password = (new String(WRONG_PASSWORD) + i).toCharArray();
+
+            try
+            {
+                new StandardDecrypter(password, fileHeader.getCrc(), fileHeader.getLastModifiedTime(), header.clone(), true);
+            }
+            catch (ZipException e)
+            {
+                return password;
+            }
+        }
+    }
+}
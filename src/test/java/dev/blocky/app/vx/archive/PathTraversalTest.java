@@ -0,0 +1,136 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.codec.Base32Codec;
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.PASSWORD;
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.readFileHeaders;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathTraversalTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void entryBreakingOutOfTheDestinationIsRejected() throws IOException
+    {
+        File archive = createArchive("safe/inside.txt", "../../outside.txt");
+        Path destination = Files.createDirectories(tempDir.resolve("a/b/destination"));
+
+        ZipException e = assertThrows(ZipException.class, () -> extract(archive, destination));
+
+        assertTrue(e.getMessage().contains("breaks out of the target directory"), e.getMessage());
+        assertFalse(Files.exists(tempDir.resolve("a/outside.txt")));
+        assertEmpty(destination);
+    }
+
+    @Test
+    void entryEscapingThroughANestedParentIsRejected() throws IOException
+    {
+        File archive = createArchive("safe/../../outside.txt");
+        Path destination = Files.createDirectories(tempDir.resolve("destination"));
+
+        assertThrows(ZipException.class, () -> extract(archive, destination));
+
+        assertFalse(Files.exists(tempDir.resolve("outside.txt")));
+        assertEmpty(destination);
+    }
+
+    @Test
+    void entryStayingInsideTheDestinationIsExtracted() throws IOException
+    {
+        File archive = createArchive("safe/../inside.txt", "safe/nested.txt");
+        Path destination = Files.createDirectories(tempDir.resolve("destination"));
+
+        assertEquals(2, extract(archive, destination));
+
+        assertEquals("safe/../inside.txt", Files.readString(destination.resolve("inside.txt")));
+        assertEquals("safe/nested.txt", Files.readString(destination.resolve("safe/nested.txt")));
+    }
+
+    @Test
+    void resolvedTargetsStayBelowTheDestination() throws IOException
+    {
+        File destination = tempDir.resolve("destination").toFile();
+        FileHeader fileHeader = new FileHeader();
+        fileHeader.setFileName("entry");
+
+        assertEquals(new File(destination, "a" + File.separator + "b.txt").getAbsoluteFile(), ArchiveExtractor.resolveTarget(destination, fileHeader, "a/./b.txt"));
+
+        assertThrows(ZipException.class, () -> ArchiveExtractor.resolveTarget(destination, fileHeader, ".."));
+        assertThrows(ZipException.class, () -> ArchiveExtractor.resolveTarget(destination, fileHeader, "."));
+        assertThrows(ZipException.class, () -> ArchiveExtractor.resolveTarget(destination, fileHeader, "a/../../destination2/b.txt"));
+        assertThrows(ZipException.class, () -> ArchiveExtractor.resolveTarget(destination, fileHeader, tempDir.resolve("elsewhere.txt").toString()));
+    }
+
+    private File createArchive(String... paths) throws IOException
+    {
+        File archive = tempDir.resolve("malicious.vxar").toFile();
+
+        try (ZipFile zipFile = new ZipFile(archive, PASSWORD))
+        {
+            for (String path : paths)
+            {
+                ZipParameters zipParameters = ArchiveTestSupport.parameters(EncryptionMethod.AES, AesVersion.TWO);
+                zipParameters.setFileNameInZip(Base32Codec.encodePath(path));
+
+                zipFile.addStream(new ByteArrayInputStream(path.getBytes(StandardCharsets.UTF_8)), zipParameters);
+            }
+        }
+        return archive;
+    }
+
+    private static int extract(File archive, Path destination) throws IOException
+    {
+        List<FileHeader> fileHeaders = readFileHeaders(archive);
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, PASSWORD))
+        {
+            archiveReader.setFileHeaders(fileHeaders);
+            return Base32Codec.decodeAndExtractFile(archiveReader, new DecodedPathIndex(fileHeaders), fileHeaders, destination.toString(), 2, ExtractionPolicy.ALWAYS_OVERWRITE);
+        }
+    }
+
+    private static void assertEmpty(Path directory) throws IOException
+    {
+        try (Stream<Path> children = Files.list(directory))
+        {
+            assertEquals(0, children.count(), "Nothing may be extracted once a target is rejected");
+        }
+    }
+}
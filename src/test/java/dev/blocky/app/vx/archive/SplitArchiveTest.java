@@ -0,0 +1,190 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SplitArchiveTest
+{
+    private static final long VOLUME_SIZE = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource({"AES, TWO, 1", "ZIP_STANDARD, TWO, 1", "AES, TWO, 2"})
+    void splitArchiveReadsBackIdentically(EncryptionMethod encryptionMethod, AesVersion aesVersion, int formatVersion) throws IOException
+    {
+        Path root = createTree(tempDir);
+        File archive = writeSplitArchive(root, parameters(encryptionMethod, aesVersion), formatVersion);
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, PASSWORD))
+        {
+            assertTrue(archiveReader.getVolumeCount() > 2, "Expected several volumes but got " + archiveReader.getVolumeCount());
+        }
+
+        assertSameContents(readTree(root), readArchive(archive, PASSWORD));
+    }
+
+    @Test
+    void volumesRespectTheVolumeSize() throws IOException
+    {
+        Path root = createTree(tempDir);
+        File archive = writeSplitArchive(root, parameters(EncryptionMethod.AES, AesVersion.TWO), 1);
+
+        int volumeCount;
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, PASSWORD))
+        {
+            volumeCount = archiveReader.getVolumeCount();
+        }
+
+        for (int i = 0; i < volumeCount - 1; i++)
+        {
+            File volume = SplitArchiveOutput.getVolumeFile(archive, i);
+
+            assertTrue(volume.isFile(), volume.getName());
+            assertTrue(volume.length() <= VOLUME_SIZE, volume.getName() + " is " + volume.length() + " bytes");
+        }
+
+        assertTrue(archive.length() <= VOLUME_SIZE);
+        assertFalse(SplitArchiveOutput.getVolumeFile(archive, volumeCount - 1).exists());
+    }
+
+    @Test
+    void splitArchiveIsReadableByZip4j() throws IOException
+    {
+        Path root = createTree(tempDir);
+        File archive = writeSplitArchive(root, parameters(EncryptionMethod.AES, AesVersion.TWO), 1);
+
+        try (ZipFile zipFile = new ZipFile(archive, PASSWORD))
+        {
+            assertTrue(zipFile.isSplitArchive());
+            assertTrue(zipFile.isValidZipFile());
+
+            zipFile.extractAll(tempDir.resolve("extracted").toString());
+        }
+
+        try (Stream<Path> extracted = Files.walk(tempDir.resolve("extracted")))
+        {
+            assertEquals(scan(root).fileCount(), extracted.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void abortDiscardsEntriesThatWereNeverWritten() throws Exception
+    {
+        File archive = tempDir.resolve("archive.vxar").toFile();
+
+        SplitArchiveOutput output = new SplitArchiveOutput(archive, VOLUME_SIZE, 1);
+
+        CountDownLatch started = new CountDownLatch(1);
+
+        TrackingEntry running = new TrackingEntry("running", started);
+        TrackingEntry queued = new TrackingEntry("queued", null);
+
+        output.writeEntry(running);
+        output.writeEntry(queued);
+
+        started.await();
+        output.abort();
+
+        assertFalse(queued.written);
+        assertTrue(queued.discarded);
+        assertFalse(SplitArchiveOutput.getVolumeFile(archive, 0).exists());
+    }
+
+    private File writeSplitArchive(Path root, ZipParameters zipParameters, int formatVersion) throws IOException
+    {
+        File archive = tempDir.resolve("archive.vxar").toFile();
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, zipParameters);
+        archiveWriter.setWorkers(2);
+        archiveWriter.setVolumeSize(VOLUME_SIZE);
+        archiveWriter.setFormatVersion(formatVersion);
+        archiveWriter.writeArchive(scan(root));
+        return archive;
+    }
+
+    private static class TrackingEntry implements WritableEntry
+    {
+        private final EntryRecord record;
+        private final CountDownLatch started;
+
+        private volatile boolean written, discarded;
+
+        private TrackingEntry(String name, CountDownLatch started)
+        {
+            this.record = new EntryRecord(name, null);
+            this.started = started;
+        }
+
+        @Override
+        public EntryRecord record()
+        {
+            return record;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException
+        {
+            written = true;
+
+            if (started == null)
+            {
+                return;
+            }
+
+            started.countDown();
+
+            try
+            {
+                new CountDownLatch(1).await();
+            }
+            catch (InterruptedException e)
+            {
+                throw new InterruptedIOException();
+            }
+        }
+
+        @Override
+        public void discard()
+        {
+            discarded = true;
+        }
+    }
+}
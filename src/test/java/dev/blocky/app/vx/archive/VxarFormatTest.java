@@ -0,0 +1,188 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive;
+
+import dev.blocky.app.vx.archive.crypto.ArchiveKey;
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+
+import static dev.blocky.app.vx.archive.ArchiveTestSupport.*;
+import static dev.blocky.app.vx.archive.crypto.GcmChunkOutputStream.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VxarFormatTest
+{
+    private static final int SEALED_CHUNK_SIZE = CHUNK_SIZE + TAG_LENGTH;
+
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+    private File archive;
+
+    @BeforeEach
+    void createArchive() throws IOException
+    {
+        root = createTree(tempDir);
+        archive = writeArchive(tempDir.resolve("archive.vxar").toFile(), root, parameters(EncryptionMethod.AES, AesVersion.TWO), EntryCompressor.VXAR_FORMAT_VERSION);
+    }
+
+    @Test
+    void archiveReadsBackIdentically() throws IOException
+    {
+        assertSameContents(readTree(root), readArchive(archive, PASSWORD));
+
+        for (FileHeader fileHeader : readFileHeaders(archive))
+        {
+            if (!fileHeader.isDirectory())
+            {
+                assertNotNull(EntryRecord.getExtraData(fileHeader, EntryCompressor.VXAR_EXTRA_FIELD_ID), fileHeader.getFileName());
+            }
+        }
+    }
+
+    @Test
+    void everyArchiveGetsItsOwnSalt() throws IOException
+    {
+        File other = writeArchive(tempDir.resolve("other.vxar").toFile(), root, parameters(EncryptionMethod.AES, AesVersion.TWO), EntryCompressor.VXAR_FORMAT_VERSION);
+
+        try (ArchiveReader first = new ArchiveReader(archive, PASSWORD); ArchiveReader second = new ArchiveReader(other, PASSWORD))
+        {
+            assertTrue(ArchiveKey.isMarker(first.getComment()));
+            assertTrue(ArchiveKey.isMarker(second.getComment()));
+            assertNotEquals(first.getComment(), second.getComment());
+        }
+    }
+
+    @Test
+    void wrongPasswordIsRejected() throws IOException
+    {
+        List<FileHeader> fileHeaders = readFileHeaders(archive);
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, WRONG_PASSWORD))
+        {
+            archiveReader.setFileHeaders(fileHeaders);
+
+            assertFalse(archiveReader.checkPassword(fileHeaders));
+
+            ZipException e = assertThrows(ZipException.class, () -> archiveReader.extractEntry(getEntry(fileHeaders, "source/docs/readme.txt"), OutputStream.nullOutputStream()));
+            assertEquals(ZipException.Type.WRONG_PASSWORD, e.getType());
+        }
+    }
+
+    @Test
+    void modifiedChunkIsDetected() throws IOException
+    {
+        FileHeader fileHeader = getEntry(readFileHeaders(archive), "source/data/random.bin");
+        long offset = getDataOffset(fileHeader) + NONCE_PREFIX_LENGTH + SEALED_CHUNK_SIZE + 100;
+
+        try (RandomAccessFile file = new RandomAccessFile(archive, "rw"))
+        {
+            file.seek(offset);
+            int value = file.read();
+
+            file.seek(offset);
+            file.write(value ^ 1);
+        }
+
+        assertAuthenticationFails(fileHeader);
+    }
+
+    @Test
+    void reorderedChunksAreDetected() throws IOException
+    {
+        FileHeader fileHeader = getEntry(readFileHeaders(archive), "source/data/random.bin");
+        long offset = getDataOffset(fileHeader) + NONCE_PREFIX_LENGTH;
+
+        assertTrue(fileHeader.getCompressedSize() > NONCE_PREFIX_LENGTH + 2L * SEALED_CHUNK_SIZE);
+
+        try (RandomAccessFile file = new RandomAccessFile(archive, "rw"))
+        {
+            byte[] first = new byte[SEALED_CHUNK_SIZE];
+            byte[] second = new byte[SEALED_CHUNK_SIZE];
+
+            file.seek(offset);
+            file.readFully(first);
+            file.readFully(second);
+
+            file.seek(offset);
+            file.write(second);
+            file.write(first);
+        }
+
+        assertAuthenticationFails(fileHeader);
+    }
+
+    @Test
+    void entryMovedToAnotherNameIsDetected() throws IOException
+    {
+        List<FileHeader> fileHeaders = readFileHeaders(archive);
+
+        FileHeader original = getEntry(fileHeaders, "source/docs/readme.txt");
+        FileHeader renamed = getEntry(fileHeaders, "source/deep/a/b/c/leaf.cfg");
+
+        renamed.setFileName(original.getFileName());
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, PASSWORD))
+        {
+            ZipException e = assertThrows(ZipException.class, () -> archiveReader.extractEntry(renamed, OutputStream.nullOutputStream()));
+            assertEquals(ZipException.Type.CHECKSUM_MISMATCH, e.getType());
+        }
+    }
+
+    private void assertAuthenticationFails(FileHeader fileHeader) throws IOException
+    {
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, PASSWORD))
+        {
+            ZipException e = assertThrows(ZipException.class, () -> archiveReader.extractEntry(fileHeader, OutputStream.nullOutputStream()));
+            assertEquals(ZipException.Type.CHECKSUM_MISMATCH, e.getType());
+        }
+    }
+
+    private long getDataOffset(FileHeader fileHeader) throws IOException
+    {
+        try (RandomAccessFile file = new RandomAccessFile(archive, "r"))
+        {
+            file.seek(fileHeader.getOffsetLocalHeader() + 26);
+
+            int nameLength = file.read() | file.read() << 8;
+            int extraLength = file.read() | file.read() << 8;
+
+            return fileHeader.getOffsetLocalHeader() + HeaderWriter.LOCAL_FILE_HEADER_LENGTH + nameLength + extraLength;
+        }
+    }
+
+    private static FileHeader getEntry(List<FileHeader> fileHeaders, String path)
+    {
+        DecodedPathIndex pathIndex = new DecodedPathIndex(fileHeaders);
+        return fileHeaders.stream().filter(fileHeader -> pathIndex.getPath(fileHeader).equals(path)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.fs;
+
+import dev.blocky.app.vx.archive.ArchiveWriter;
+import dev.blocky.app.vx.archive.DirectoryScanner;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesKeyStrength;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveFileSystemTest
+{
+    private static final String PASSWORD = "correct horse";
+
+    @TempDir
+    Path tempDir;
+
+    private Path archive;
+    private byte[] random;
+
+    @BeforeEach
+    void createArchive() throws IOException
+    {
+        Path root = tempDir.resolve("source");
+
+        random = new byte[100 * 1024];
+        new Random(42).nextBytes(random);
+
+        Files.createDirectories(root.resolve("docs"));
+        Files.createDirectories(root.resolve("data"));
+        Files.createDirectories(root.resolve("empty"));
+
+        Files.writeString(root.resolve("docs/readme.txt"), "Read me first.");
+        Files.writeString(root.resolve("docs/notes.md"), "# Notes");
+        Files.write(root.resolve("data/random.bin"), random);
+
+        ZipParameters zipParameters = new ZipParameters();
+        zipParameters.setEncryptFiles(true);
+        zipParameters.setEncryptionMethod(EncryptionMethod.AES);
+        zipParameters.setAesKeyStrength(AesKeyStrength.KEY_STRENGTH_256);
+        zipParameters.setAesVersion(AesVersion.TWO);
+
+        archive = tempDir.resolve("archive.vxar");
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive.toFile(), PASSWORD.toCharArray(), zipParameters);
+        archiveWriter.setWorkers(2);
+        archiveWriter.writeArchive(new DirectoryScanner(2).scan(List.of(), List.of(root.toFile())));
+    }
+
+    @Test
+    void directoriesListTheirChildren() throws IOException
+    {
+        try (FileSystem fileSystem = FileSystems.newFileSystem(archive, Map.of(ArchiveFileSystemProvider.PASSWORD, PASSWORD)))
+        {
+            assertInstanceOf(ArchiveFileSystem.class, fileSystem);
+
+            assertEquals(Set.of("source"), list(fileSystem.getPath("/")));
+            assertEquals(Set.of("docs", "data", "empty"), list(fileSystem.getPath("/source")));
+            assertEquals(Set.of("readme.txt", "notes.md"), list(fileSystem.getPath("/source/docs")));
+            assertEquals(Set.of(), list(fileSystem.getPath("/source/empty")));
+
+            Path randomFile = fileSystem.getPath("/source/data/random.bin");
+
+            assertTrue(Files.isDirectory(fileSystem.getPath("/source/data")));
+            assertTrue(Files.isRegularFile(randomFile));
+            assertEquals(random.length, Files.size(randomFile));
+            assertFalse(Files.exists(fileSystem.getPath("/source/missing.txt")));
+        }
+    }
+
+    @Test
+    void entriesAreReadFully() throws IOException
+    {
+        try (FileSystem fileSystem = FileSystems.newFileSystem(archive, Map.of(ArchiveFileSystemProvider.PASSWORD, PASSWORD)))
+        {
+            assertEquals("Read me first.", Files.readString(fileSystem.getPath("/source/docs/readme.txt"), StandardCharsets.UTF_8));
+            assertArrayEquals(random, Files.readAllBytes(fileSystem.getPath("/source/data/random.bin")));
+        }
+    }
+
+    @Test
+    void channelSeeksBackwardAndForward() throws IOException
+    {
+        Map<String, String> env = Map.of(ArchiveFileSystemProvider.PASSWORD, PASSWORD, ArchiveFileSystemProvider.CACHE_SIZE, "1024");
+
+        try (FileSystem fileSystem = FileSystems.newFileSystem(archive, env);
+             SeekableByteChannel channel = Files.newByteChannel(fileSystem.getPath("/source/data/random.bin")))
+        {
+            assertEquals(random.length, channel.size());
+
+            assertRange(channel, 50_000, 4096);
+            assertRange(channel, 10, 4096);
+            assertRange(channel, 90_000, 4096);
+            assertRange(channel, 90_000 + 4096, random.length - 90_000 - 4096);
+
+            channel.position(random.length);
+
+            assertEquals(-1, channel.read(ByteBuffer.allocate(16)));
+        }
+    }
+
+    @Test
+    void writingIsRejected() throws IOException
+    {
+        try (FileSystem fileSystem = FileSystems.newFileSystem(archive, Map.of(ArchiveFileSystemProvider.PASSWORD, PASSWORD)))
+        {
+            Path readme = fileSystem.getPath("/source/docs/readme.txt");
+
+            assertThrows(ReadOnlyFileSystemException.class, () -> Files.newByteChannel(readme, StandardOpenOption.WRITE));
+            assertThrows(ReadOnlyFileSystemException.class, () -> Files.delete(readme));
+        }
+    }
+
+    @Test
+    void wrongPasswordIsRejected() throws IOException
+    {
+        ZipException e = assertThrows(ZipException.class, () -> FileSystems.newFileSystem(archive, Map.of(ArchiveFileSystemProvider.PASSWORD, "battery staple")));
+
+        assertEquals(ZipException.Type.WRONG_PASSWORD, e.getType());
+
+        try (FileSystem fileSystem = FileSystems.newFileSystem(archive, Map.of(ArchiveFileSystemProvider.PASSWORD, PASSWORD)))
+        {
+            assertTrue(fileSystem.isOpen());
+        }
+    }
+
+    private static Set<String> list(Path directory) throws IOException
+    {
+        try (Stream<Path> children = Files.list(directory))
+        {
+            return children.map(path -> path.getFileName().toString()).collect(Collectors.toSet());
+        }
+    }
+
+    private void assertRange(SeekableByteChannel channel, int position, int length) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        channel.position(position);
+
+        while (buffer.hasRemaining())
+        {
+            assertTrue(channel.read(buffer) > 0);
+        }
+
+        assertEquals(position + length, channel.position());
+        assertArrayEquals(Arrays.copyOfRange(random, position, position + length), buffer.array());
+    }
+}
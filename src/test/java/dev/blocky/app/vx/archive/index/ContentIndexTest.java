@@ -0,0 +1,175 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.archive.index;
+
+import dev.blocky.app.vx.archive.ArchiveReader;
+import dev.blocky.app.vx.archive.ArchiveWriter;
+import dev.blocky.app.vx.archive.DirectoryScanner;
+import dev.blocky.app.vx.codec.DecodedPathIndex;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesKeyStrength;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentIndexTest
+{
+    private static final char[] PASSWORD = "correct horse".toCharArray();
+
+    private static final String README = "The quick brown fox jumps over the lazy dog. The fox sleeps.";
+    private static final String NOTES = "A quick note about the dog.";
+    private static final String LOG = "connection refused by upstream";
+
+    @TempDir
+    Path tempDir;
+
+    private File archive;
+
+    @BeforeEach
+    void createIndexedArchive() throws IOException
+    {
+        Path root = tempDir.resolve("source");
+
+        Files.createDirectories(root.resolve("docs"));
+        Files.createDirectories(root.resolve("logs"));
+
+        Files.writeString(root.resolve("docs/readme.txt"), README);
+        Files.writeString(root.resolve("docs/notes.md"), NOTES);
+        Files.writeString(root.resolve("logs/server.log"), LOG);
+        Files.write(root.resolve("logs/trace.log"), new byte[]{'f', 'o', 'x', 0, 1, 2});
+
+        ZipParameters zipParameters = new ZipParameters();
+        zipParameters.setEncryptFiles(true);
+        zipParameters.setEncryptionMethod(EncryptionMethod.AES);
+        zipParameters.setAesKeyStrength(AesKeyStrength.KEY_STRENGTH_256);
+        zipParameters.setAesVersion(AesVersion.TWO);
+
+        archive = tempDir.resolve("archive.vxar").toFile();
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, PASSWORD, zipParameters);
+        archiveWriter.setWorkers(2);
+        archiveWriter.writeArchive(new DirectoryScanner(2).scan(List.of(), List.of(root.toFile())));
+
+        DecodedPathIndex pathIndex;
+
+        try (ZipFile zipFile = new ZipFile(archive))
+        {
+            pathIndex = new DecodedPathIndex(zipFile.getFileHeaders());
+        }
+
+        try (ArchiveReader archiveReader = new ArchiveReader(archive, PASSWORD))
+        {
+            archiveReader.setFileHeaders(pathIndex.getFileHeaders());
+
+            ContentIndexer contentIndexer = new ContentIndexer(archiveReader, pathIndex);
+            contentIndexer.setWorkers(2);
+
+            assertEquals(3, contentIndexer.writeIndex(archive, PASSWORD));
+        }
+    }
+
+    @Test
+    void singleTermFindsEveryFileWithItsOffsets() throws IOException
+    {
+        ContentIndex contentIndex = ContentIndex.load(archive, PASSWORD);
+
+        assertEquals(3, contentIndex.getEntryCount());
+
+        List<ContentIndex.Match> matches = contentIndex.search("Quick");
+
+        assertEquals(Set.of("source/docs/readme.txt", "source/docs/notes.md"), paths(matches));
+
+        ContentIndex.Match readme = find(matches, "source/docs/readme.txt");
+
+        assertEquals(Set.of("quick"), readme.offsets().keySet());
+        assertArrayEquals(new long[]{README.indexOf("quick")}, readme.offsets().get("quick"));
+
+        assertEquals(Set.of("source/docs/readme.txt"), paths(contentIndex.search("fox")));
+        assertTrue(contentIndex.search("missing").isEmpty());
+    }
+
+    @Test
+    void multipleTermsMustAllMatch() throws IOException
+    {
+        ContentIndex contentIndex = ContentIndex.load(archive, PASSWORD);
+
+        List<ContentIndex.Match> matches = contentIndex.search("dog fox");
+
+        assertEquals(Set.of("source/docs/readme.txt"), paths(matches));
+
+        Map<String, long[]> offsets = matches.get(0).offsets();
+
+        assertEquals(List.of("dog", "fox"), List.copyOf(offsets.keySet()));
+        assertArrayEquals(new long[]{README.indexOf("dog")}, offsets.get("dog"));
+        assertArrayEquals(new long[]{README.indexOf("fox"), README.lastIndexOf("fox")}, offsets.get("fox"));
+
+        assertEquals(Set.of("source/docs/readme.txt", "source/docs/notes.md"), paths(contentIndex.search("quick dog")));
+        assertTrue(contentIndex.search("dog upstream").isEmpty());
+    }
+
+    @Test
+    void wrongPasswordIsRejected()
+    {
+        ZipException e = assertThrows(ZipException.class, () -> ContentIndex.load(archive, "battery staple".toCharArray()));
+
+        assertEquals(ZipException.Type.WRONG_PASSWORD, e.getType());
+    }
+
+    @Test
+    void staleIndexIsRejected() throws IOException
+    {
+        long lastModified = archive.lastModified();
+
+        assertTrue(archive.setLastModified(lastModified - 60_000));
+        assertThrows(ZipException.class, () -> ContentIndex.load(archive, PASSWORD));
+
+        assertTrue(archive.setLastModified(lastModified));
+        ContentIndex.load(archive, PASSWORD);
+
+        Files.write(archive.toPath(), new byte[1], StandardOpenOption.APPEND);
+        assertTrue(archive.setLastModified(lastModified));
+
+        assertThrows(ZipException.class, () -> ContentIndex.load(archive, PASSWORD));
+    }
+
+    private static Set<String> paths(List<ContentIndex.Match> matches)
+    {
+        return matches.stream().map(ContentIndex.Match::path).collect(Collectors.toSet());
+    }
+
+    private static ContentIndex.Match find(List<ContentIndex.Match> matches, String path)
+    {
+        return matches.stream().filter(match -> match.path().equals(path)).findFirst().orElseThrow();
+    }
+}
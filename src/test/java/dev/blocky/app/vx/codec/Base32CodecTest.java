@@ -0,0 +1,79 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.codec;
+
+import org.apache.commons.codec.binary.Base32;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Base32CodecTest
+{
+    private static final Base32 base32 = new Base32();
+
+    @Test
+    void extensionIsKeptReadable()
+    {
+        String encoded = Base32Codec.encodeDecodedPart("archive.tar.gz", false);
+
+        assertEquals(encode("archive.tar") + ".gz", encoded);
+        assertEquals("archive.tar.gz", Base32Codec.decodeEncodedPart(encoded, false));
+    }
+
+    @Test
+    void extensionlessFileEndsWithADot()
+    {
+        String encoded = Base32Codec.encodeDecodedPart("Makefile", false);
+
+        assertEquals(encode("Makefile") + ".", encoded);
+        assertEquals("Makefile", Base32Codec.decodeEncodedPart(encoded, false));
+    }
+
+    @Test
+    void directoriesAreEncodedWhole()
+    {
+        String encoded = Base32Codec.encodeDecodedPart("v1.2", true);
+
+        assertEquals(encode("v1.2"), encoded);
+        assertEquals("v1.2", Base32Codec.decodeEncodedPart(encoded, true));
+    }
+
+    @Test
+    void pathsAreEncodedSegmentBySegment()
+    {
+        assertEquals(encode("root") + "/" + encode("docs") + "/" + encode("readme") + ".txt", Base32Codec.encodePath("root/docs/readme.txt"));
+        assertEquals(encode("root") + "/" + encode("bin") + "/" + encode("run") + ".", Base32Codec.encodePath("root/bin/run"));
+        assertEquals(encode("root") + "/" + encode("v1.2") + "/", Base32Codec.encodePath("root/v1.2/"));
+    }
+
+    @Test
+    void dotFilesAndNamesWithSpacesRoundTrip()
+    {
+        for (String name : new String[]{".gitignore", "release notes.md", "no extension"})
+        {
+            assertEquals(name, Base32Codec.decodeEncodedPart(Base32Codec.encodeDecodedPart(name, false), false), name);
+        }
+    }
+
+    private static String encode(String part)
+    {
+        return base32.encodeAsString(part.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.codec;
+
+import dev.blocky.app.vx.archive.ArchiveWriter;
+import dev.blocky.app.vx.archive.DirectoryScanner;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.AesKeyStrength;
+import net.lingala.zip4j.model.enums.AesVersion;
+import net.lingala.zip4j.model.enums.EncryptionMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CentralDirectoryCacheTest
+{
+    @TempDir
+    Path tempDir;
+
+    private File archive;
+    private File cacheDirectory;
+
+    @BeforeEach
+    void createArchive() throws IOException
+    {
+        Path root = tempDir.resolve("source");
+
+        Files.createDirectories(root.resolve("docs"));
+        Files.writeString(root.resolve("docs/readme.txt"), "Read me first.");
+        Files.writeString(root.resolve("docs/Makefile"), "all:");
+        Files.writeString(root.resolve("notes.md"), "# Notes");
+
+        ZipParameters zipParameters = new ZipParameters();
+        zipParameters.setEncryptFiles(true);
+        zipParameters.setEncryptionMethod(EncryptionMethod.AES);
+        zipParameters.setAesKeyStrength(AesKeyStrength.KEY_STRENGTH_256);
+        zipParameters.setAesVersion(AesVersion.TWO);
+
+        archive = tempDir.resolve("archive.vxar").toFile();
+        cacheDirectory = tempDir.resolve("cache").toFile();
+
+        ArchiveWriter archiveWriter = new ArchiveWriter(archive, "correct horse".toCharArray(), zipParameters);
+        archiveWriter.setWorkers(2);
+        archiveWriter.writeArchive(new DirectoryScanner(2).scan(List.of(), List.of(root.toFile())));
+    }
+
+    @Test
+    void cachedIndexMatchesTheArchive() throws IOException
+    {
+        CentralDirectoryCache cache = new CentralDirectoryCache(cacheDirectory, Long.MAX_VALUE);
+
+        List<String> expected = paths(cache.load(archive));
+
+        assertNotNull(getCacheFile());
+        assertEquals(List.of("source", "source/docs", "source/docs/Makefile", "source/docs/readme.txt", "source/notes.md"), expected.stream().sorted().collect(Collectors.toList()));
+        assertEquals(expected, paths(cache.load(archive)));
+    }
+
+    @Test
+    void unknownEncryptionMethodIsACacheMiss() throws IOException
+    {
+        assertCorruptionIsRecovered(data ->
+        {
+            byte[] method = {0, 3, 'A', 'E', 'S'};
+
+            for (int i = 0; i <= data.length - method.length; i++)
+            {
+                if (Arrays.equals(data, i, i + method.length, method, 0, method.length))
+                {
+                    System.arraycopy(new byte[]{0, 3, 'X', 'Y', 'Z'}, 0, data, i, method.length);
+                    return data;
+                }
+            }
+            throw new AssertionError("Encryption method not found in the cache entry");
+        });
+    }
+
+    @Test
+    void segmentOutOfRangeIsACacheMiss() throws IOException
+    {
+        assertCorruptionIsRecovered(data ->
+        {
+            ByteBuffer.wrap(data).putInt(data.length - 4, Integer.MAX_VALUE);
+            return data;
+        });
+    }
+
+    @Test
+    void truncatedEntryIsACacheMiss() throws IOException
+    {
+        assertCorruptionIsRecovered(data -> Arrays.copyOf(data, data.length / 2));
+    }
+
+    @Test
+    void oversizedSegmentCountIsACacheMiss() throws IOException
+    {
+        int offset = 8 + 2 + archive.getCanonicalPath().getBytes(StandardCharsets.UTF_8).length + 24;
+
+        assertCorruptionIsRecovered(data ->
+        {
+            ByteBuffer.wrap(data).putInt(offset, Integer.MAX_VALUE);
+            return data;
+        });
+    }
+
+    private void assertCorruptionIsRecovered(UnaryOperator<byte[]> corruption) throws IOException
+    {
+        CentralDirectoryCache cache = new CentralDirectoryCache(cacheDirectory, Long.MAX_VALUE);
+
+        List<String> expected = paths(cache.load(archive));
+
+        File cacheFile = getCacheFile();
+        byte[] original = Files.readAllBytes(cacheFile.toPath());
+
+        Files.write(cacheFile.toPath(), corruption.apply(original.clone()));
+
+        assertEquals(expected, paths(cache.load(archive)));
+        assertArrayEquals(original, Files.readAllBytes(cacheFile.toPath()));
+    }
+
+    private File getCacheFile()
+    {
+        File[] cacheFiles = cacheDirectory.listFiles((dir, name) -> name.endsWith(".idx"));
+
+        assertNotNull(cacheFiles);
+        assertEquals(1, cacheFiles.length);
+        return cacheFiles[0];
+    }
+
+    private static List<String> paths(DecodedPathIndex pathIndex)
+    {
+        return pathIndex.getFileHeaders().stream().map(pathIndex::getPath).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.codec;
+
+import net.lingala.zip4j.model.FileHeader;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodedPathIndexTest
+{
+    @Test
+    void pathsDecodeBackToTheirOriginalNames()
+    {
+        List<String> paths = List.of("root/", "root/docs/", "root/docs/readme.txt", "root/docs/archive.tar.gz", "root/docs/.gitignore", "root/v1.2/", "root/v1.2/notes.md");
+
+        List<FileHeader> fileHeaders = createFileHeaders(paths);
+        DecodedPathIndex pathIndex = new DecodedPathIndex(fileHeaders);
+
+        for (int i = 0; i < paths.size(); i++)
+        {
+            assertEquals(paths.get(i).replaceAll("/$", ""), pathIndex.getPath(fileHeaders.get(i)));
+        }
+
+        assertEquals("archive.tar.gz", pathIndex.getName(fileHeaders.get(3)));
+        assertEquals("v1.2", pathIndex.getName(fileHeaders.get(5)));
+    }
+
+    @Test
+    void filesWithoutExtensionAreNotTreatedAsDirectories()
+    {
+        List<FileHeader> fileHeaders = createFileHeaders(List.of("root/", "root/Makefile", "root/bin/", "root/bin/run"));
+        DecodedPathIndex pathIndex = new DecodedPathIndex(fileHeaders);
+
+        assertTrue(fileHeaders.get(1).getFileName().endsWith("."));
+
+        assertEquals("root/Makefile", pathIndex.getPath(fileHeaders.get(1)));
+        assertEquals("root/bin/run", pathIndex.getPath(fileHeaders.get(3)));
+
+        assertEquals(2, pathIndex.getFileCount());
+        assertEquals(2, pathIndex.getDirectoryCount());
+    }
+
+    @Test
+    void filesWithoutDirectoryEntriesKeepTheirParents()
+    {
+        List<FileHeader> fileHeaders = createFileHeaders(List.of("root/a/b/first.txt", "root/a/b/second"));
+        DecodedPathIndex pathIndex = new DecodedPathIndex(fileHeaders);
+
+        assertArrayEquals(new String[]{"root", "a", "b", "first.txt"}, pathIndex.getSegments(fileHeaders.get(0)));
+        assertArrayEquals(new String[]{"root", "a", "b", "second"}, pathIndex.getSegments(fileHeaders.get(1)));
+
+        assertEquals(0, pathIndex.getDirectoryCount());
+    }
+
+    @Test
+    void sharedSegmentsAreDecodedOnce()
+    {
+        List<FileHeader> fileHeaders = createFileHeaders(List.of("root/docs/first.txt", "root/docs/second.txt", "root/other/first.txt"));
+        DecodedPathIndex pathIndex = new DecodedPathIndex(fileHeaders);
+
+        String[] first = pathIndex.getSegments(fileHeaders.get(0));
+        String[] second = pathIndex.getSegments(fileHeaders.get(1));
+        String[] third = pathIndex.getSegments(fileHeaders.get(2));
+
+        assertSame(first[1], second[1]);
+        assertSame(first[0], third[0]);
+        assertSame(first[2], third[2]);
+    }
+
+    private static List<FileHeader> createFileHeaders(List<String> paths)
+    {
+        ArrayList<FileHeader> fileHeaders = new ArrayList<>(paths.size());
+
+        for (String path : paths)
+        {
+            FileHeader fileHeader = new FileHeader();
+            fileHeader.setFileName(Base32Codec.encodePath(path));
+            fileHeader.setDirectory(path.endsWith("/"));
+
+            fileHeaders.add(fileHeader);
+        }
+        return fileHeaders;
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathFilterTest
+{
+    @Test
+    void emptyFilterMatchesEverything()
+    {
+        PathFilter pathFilter = PathFilter.parse(" ; ", null);
+
+        assertTrue(pathFilter.isEmpty());
+        assertTrue(pathFilter.matches("any/path/file.txt"));
+    }
+
+    @Test
+    void globWithoutSlashMatchesTheNameAtAnyDepth()
+    {
+        PathFilter pathFilter = PathFilter.parse("*.log", "");
+
+        assertTrue(pathFilter.matches("server.log"));
+        assertTrue(pathFilter.matches("2023/01/SERVER.LOG"));
+        assertFalse(pathFilter.matches("2023/server.log.gz"));
+        assertFalse(pathFilter.matches("logs.d/server.txt"));
+    }
+
+    @Test
+    void globWithSlashMatchesTheWholePath()
+    {
+        PathFilter pathFilter = PathFilter.parse("2023/**/*.log", "");
+
+        assertTrue(pathFilter.matches("2023/server.log"));
+        assertTrue(pathFilter.matches("2023/01/02/server.log"));
+        assertFalse(pathFilter.matches("2024/01/server.log"));
+        assertFalse(pathFilter.matches("archive/2023/server.log"));
+    }
+
+    @Test
+    void singleStarAndQuestionMarkStayWithinOneSegment()
+    {
+        PathFilter pathFilter = PathFilter.parse("docs/*.txt;data/file?.bin", "");
+
+        assertTrue(pathFilter.matches("docs/readme.txt"));
+        assertFalse(pathFilter.matches("docs/sub/readme.txt"));
+
+        assertTrue(pathFilter.matches("data/file1.bin"));
+        assertFalse(pathFilter.matches("data/file10.bin"));
+        assertFalse(pathFilter.matches("data/file/.bin"));
+    }
+
+    @Test
+    void characterClassesAndAlternativesAreSupported()
+    {
+        PathFilter pathFilter = PathFilter.parse("*.{txt,md};report[0-9].csv;[!.]*.cfg", "");
+
+        assertTrue(pathFilter.matches("a/notes.md"));
+        assertTrue(pathFilter.matches("a/notes.txt"));
+        assertFalse(pathFilter.matches("a/notes.pdf"));
+
+        assertTrue(pathFilter.matches("report7.csv"));
+        assertFalse(pathFilter.matches("reportX.csv"));
+
+        assertTrue(pathFilter.matches("app.cfg"));
+        assertFalse(pathFilter.matches(".hidden.cfg"));
+    }
+
+    @Test
+    void regexCharactersInGlobsAreLiteral()
+    {
+        PathFilter pathFilter = PathFilter.parse("a+b(1).txt", "");
+
+        assertTrue(pathFilter.matches("dir/a+b(1).txt"));
+        assertFalse(pathFilter.matches("dir/aab1.txt"));
+        assertFalse(pathFilter.matches("dir/a+b(1)xtxt"));
+    }
+
+    @Test
+    void directoryPathsMatchWithTrailingSlash()
+    {
+        PathFilter pathFilter = PathFilter.parse("root/tmp", "");
+
+        assertTrue(pathFilter.matches("root/tmp/"));
+        assertTrue(pathFilter.matches("root/tmp"));
+        assertFalse(pathFilter.matches("root/tmp/file.txt"));
+    }
+
+    @Test
+    void regexMatchesAnywhereInThePathAndIsCaseSensitive()
+    {
+        PathFilter pathFilter = PathFilter.parse("regex:\\.bak$", "");
+
+        assertTrue(pathFilter.matches("a/b/c.bak"));
+        assertFalse(pathFilter.matches("a/b/c.BAK"));
+        assertFalse(pathFilter.matches("a/b.bak/c.txt"));
+    }
+
+    @Test
+    void excludesWinOverIncludes()
+    {
+        PathFilter pathFilter = PathFilter.parse("**/*.log", "**/tmp/**;regex:debug");
+
+        assertTrue(pathFilter.matches("root/app/server.log"));
+        assertFalse(pathFilter.matches("root/tmp/server.log"));
+        assertFalse(pathFilter.matches("root/app/debug.log"));
+        assertFalse(pathFilter.matches("root/app/server.txt"));
+    }
+
+    @Test
+    void excludesAloneKeepEverythingElse()
+    {
+        PathFilter pathFilter = new PathFilter(List.of(), List.of("glob:*.tmp"));
+
+        assertFalse(pathFilter.isEmpty());
+        assertTrue(pathFilter.matches("root/file.txt"));
+        assertFalse(pathFilter.matches("root/file.tmp"));
+    }
+
+    @Test
+    void directoriesAreOnlyDescendedWhenAnIncludeCanMatchBelow()
+    {
+        PathFilter pathFilter = PathFilter.parse("2023/**/*.log", "");
+
+        assertTrue(pathFilter.mayMatchBelow("2023/"));
+        assertTrue(pathFilter.mayMatchBelow("2023/01/"));
+        assertFalse(pathFilter.mayMatchBelow("2024/"));
+
+        assertTrue(PathFilter.parse("*.log", "").mayMatchBelow("2024/"));
+        assertTrue(PathFilter.parse("", "*.log").mayMatchBelow("2024/"));
+    }
+
+    @Test
+    void invalidPatternsAreRejected()
+    {
+        assertThrows(PatternSyntaxException.class, () -> PathFilter.parse("regex:(unclosed", ""));
+        assertThrows(PatternSyntaxException.class, () -> PathFilter.parse("*.{txt,md", ""));
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * VorteX - General utility program written in Java.
+ * Copyright (C) 2023 BlockyDotJar (aka. Dominic R.)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package dev.blocky.app.vx.codec;
+
+import net.lingala.zip4j.model.FileHeader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathTrieTest
+{
+    private static final List<String> PATHS = List.of("root/", "root/docs/", "root/docs/a.txt", "root/docs/b.txt", "root/src/x/", "root/src/x/y.java", "root/src/z.java", "other/Makefile");
+
+    private List<FileHeader> fileHeaders;
+    private PathTrie pathTrie;
+
+    @BeforeEach
+    void createTrie()
+    {
+        fileHeaders = new ArrayList<>(PATHS.size());
+
+        for (String path : PATHS)
+        {
+            FileHeader fileHeader = new FileHeader();
+            fileHeader.setFileName(Base32Codec.encodePath(path));
+            fileHeader.setDirectory(path.endsWith("/"));
+
+            fileHeaders.add(fileHeader);
+        }
+
+        pathTrie = new PathTrie(new DecodedPathIndex(fileHeaders));
+    }
+
+    @Test
+    void nodesFollowTheDecodedPaths()
+    {
+        PathTrie.Node root = pathTrie.getRoot();
+
+        assertEquals(List.of("root", "other"), names(root));
+        assertEquals(List.of("docs", "src"), names(node("root")));
+        assertEquals(List.of("a.txt", "b.txt"), names(node("root", "docs")));
+        assertEquals(List.of("x", "z.java"), names(node("root", "src")));
+
+        assertSame(fileHeaders.get(0), node("root").getFileHeader());
+        assertSame(fileHeaders.get(5), node("root", "src", "x", "y.java").getFileHeader());
+        assertSame(fileHeaders.get(7), node("other", "Makefile").getFileHeader());
+
+        assertNull(node("root", "src").getFileHeader());
+        assertNull(node("other").getFileHeader());
+        assertNull(root.getChild("missing"));
+    }
+
+    @Test
+    void everyEntryStartsSelected()
+    {
+        assertEquals(PATHS.size(), pathTrie.getSelectedCount());
+        assertEquals(new HashSet<>(fileHeaders), new HashSet<>(pathTrie.getSelectedFileHeaders()));
+
+        assertTrue(pathTrie.getRoot().isSelected());
+        assertTrue(node("root", "src").isSelected());
+        assertFalse(node("root", "src").isIndeterminate());
+    }
+
+    @Test
+    void unselectingASubtreeUpdatesEveryAncestor()
+    {
+        pathTrie.setSelected(node("root", "docs"), false);
+
+        assertEquals(5, pathTrie.getSelectedCount());
+        assertEquals(Set.of("root/", "root/src/x/", "root/src/x/y.java", "root/src/z.java", "other/Makefile"), selectedPaths());
+
+        assertFalse(node("root", "docs").isSelected());
+        assertFalse(node("root", "docs").isIndeterminate());
+        assertFalse(node("root", "docs", "a.txt").isSelected());
+
+        assertTrue(node("root").isIndeterminate());
+        assertTrue(pathTrie.getRoot().isIndeterminate());
+        assertTrue(node("other").isSelected());
+    }
+
+    @Test
+    void reselectingPartOfASubtreeMakesItIndeterminate()
+    {
+        pathTrie.setSelected(node("root"), false);
+
+        assertEquals(1, pathTrie.getSelectedCount());
+        assertEquals(Set.of("other/Makefile"), selectedPaths());
+
+        pathTrie.setSelected(node("root", "docs", "b.txt"), true);
+
+        assertEquals(2, pathTrie.getSelectedCount());
+        assertTrue(node("root", "docs").isIndeterminate());
+        assertTrue(node("root").isIndeterminate());
+
+        pathTrie.setSelected(node("root", "docs"), true);
+
+        assertEquals(4, pathTrie.getSelectedCount());
+        assertTrue(node("root", "docs").isSelected());
+
+        pathTrie.setSelected(node("root"), true);
+
+        assertEquals(PATHS.size(), pathTrie.getSelectedCount());
+        assertTrue(pathTrie.getRoot().isSelected());
+    }
+
+    @Test
+    void selectingTheSameStateTwiceKeepsTheCounts()
+    {
+        pathTrie.setSelected(node("root", "src"), false);
+        pathTrie.setSelected(node("root", "src"), false);
+
+        assertEquals(5, pathTrie.getSelectedCount());
+
+        pathTrie.setSelected(node("root", "src"), true);
+        pathTrie.setSelected(node("root", "src"), true);
+
+        assertEquals(PATHS.size(), pathTrie.getSelectedCount());
+    }
+
+    @Test
+    void filterReplacesTheSelection()
+    {
+        pathTrie.setSelected(node("root", "src"), false);
+
+        assertEquals(2, pathTrie.select(PathFilter.parse("*.java", "")));
+        assertEquals(Set.of("root/src/x/y.java", "root/src/z.java"), selectedPaths());
+        assertTrue(node("root", "src", "x").isIndeterminate());
+
+        assertEquals(PATHS.size(), pathTrie.select(PathFilter.parse("", "")));
+    }
+
+    private PathTrie.Node node(String... names)
+    {
+        PathTrie.Node node = pathTrie.getRoot();
+
+        for (String name : names)
+        {
+            node = node.getChild(name);
+            assertNotNull(node, String.join("/", names));
+        }
+        return node;
+    }
+
+    private static List<String> names(PathTrie.Node node)
+    {
+        return node.getChildren().stream().map(PathTrie.Node::getName).toList();
+    }
+
+    private Set<String> selectedPaths()
+    {
+        HashSet<String> paths = new HashSet<>();
+
+        for (FileHeader fileHeader : pathTrie.getSelectedFileHeaders())
+        {
+            paths.add(PATHS.get(fileHeaders.indexOf(fileHeader)));
+        }
+        return paths;
+    }
+}